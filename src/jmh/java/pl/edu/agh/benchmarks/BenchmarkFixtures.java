@@ -0,0 +1,44 @@
+package pl.edu.agh.benchmarks;
+
+import akka.actor.UntypedActor;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+
+final class BenchmarkFixtures {
+    static final int MAX_VELOCITY = 5;
+
+    private BenchmarkFixtures() {
+    }
+
+    static DriverConfiguration driverConfiguration(int initialDistanceToIntersection, float yellowLightGoProbability) {
+        return new DriverConfiguration.Builder()
+                .acceleration(2)
+                .carLength(2)
+                .carWidth(2)
+                .maxVelocity(MAX_VELOCITY)
+                .yellowLightGoProbability(yellowLightGoProbability)
+                .initialDistanceToIntersection(initialDistanceToIntersection)
+                .randomSeed(1L)
+                .build();
+    }
+
+    static TrafficLightsConfiguration trafficLightsConfiguration(int minimumGreenTime) {
+        return new TrafficLightsConfiguration.Builder()
+                .counterLimitValue(400)
+                .longSupervisedDistance(15)
+                .shortSupervisedDistance(3)
+                .shortSupervisedDistanceMaxCarsNo(1)
+                .minimumGreenTime(minimumGreenTime)
+                .yellowLightDuration(5)
+                .northSouthGreenLightDuration(10)
+                .westEastGreenLightDuration(10)
+                .build();
+    }
+
+    public static class IdleActor extends UntypedActor {
+        @Override
+        public void onReceive(Object message) throws Exception {
+            unhandled(message);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package pl.edu.agh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.logic.DriverBatch;
+import pl.edu.agh.logic.DriverLogic;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.concurrent.TimeUnit;
+
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.RED;
+
+/**
+ * One tick of many vehicles, driven one {@link DriverLogic} at a time and by a {@link DriverBatch}.
+ * Half of the vehicles face a red light; a vehicle far past the intersection starts over, so the
+ * mix of decision branches stays the same across iterations. Scores are per vehicle-step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(DriverBatchBenchmark.VEHICLES)
+public class DriverBatchBenchmark {
+    static final int VEHICLES = 4096;
+    private static final int INITIAL_DISTANCE = 60;
+    private static final int RESTART_DISTANCE = -60;
+
+    private final DriverConfiguration configuration = BenchmarkFixtures.driverConfiguration(INITIAL_DISTANCE, 0.5f);
+    private final DriverLogic[] drivers = new DriverLogic[VEHICLES];
+    private final DriverBatch batch = new DriverBatch(VEHICLES);
+    private final int[] slots = new int[VEHICLES];
+    private final int[] carAheadDistances = new int[VEHICLES];
+    private final TrafficLightColor[] lights = new TrafficLightColor[VEHICLES];
+
+    @Setup(Level.Trial)
+    public void prepareVehicles() {
+        for (int i = 0; i < VEHICLES; i++) {
+            drivers[i] = new DriverLogic(configuration);
+            batch.add(i, configuration);
+            slots[i] = i;
+            carAheadDistances[i] = i % 8;
+            lights[i] = i % 2 == 0 ? GREEN : RED;
+        }
+    }
+
+    @Benchmark
+    public int driverLogic() {
+        int moved = 0;
+        for (int i = 0; i < VEHICLES; i++) {
+            DriverLogic driver = drivers[i];
+            driver.drive(carAheadDistances[i], lights[i], lights[i]);
+            moved += driver.getVelocity();
+            if (driver.getDistanceToIntersection() < RESTART_DISTANCE) {
+                drivers[i] = new DriverLogic(configuration);
+            }
+        }
+        return moved;
+    }
+
+    @Benchmark
+    public int driverBatch() {
+        batch.drive(slots, VEHICLES, carAheadDistances, lights, lights);
+        int moved = 0;
+        for (int i = 0; i < VEHICLES; i++) {
+            moved += batch.getVelocity(i);
+            if (batch.getDistanceToIntersection(i) < RESTART_DISTANCE) {
+                batch.add(i, configuration);
+            }
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,94 @@
+package pl.edu.agh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.logic.DriverLogic;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.RED;
+import static pl.edu.agh.model.TrafficLightColor.YELLOW;
+
+/**
+ * One {@link DriverLogic#drive} call per decision branch. Each scenario drives a driver through a few
+ * green steps once and saves its state; every measured call restores a driver from that state, so it
+ * lands in the intended branch. A single call is too short to time on its own, so an invocation
+ * drives {@link #DRIVERS} of them, and {@link #restoreBaseline} measures the restoring alone, to be
+ * subtracted from {@link #drive}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(DriverLogicBenchmark.DRIVERS)
+public class DriverLogicBenchmark {
+    static final int DRIVERS = 1024;
+
+    public enum Scenario {
+        AFTER_INTERSECTION(0, 0, GREEN, false),
+        GREEN_LIGHT(30, 2, GREEN, false),
+        SAFE_DISTANCE(30, 1, RED, false),
+        START_SLOWING_DOWN(12, 2, RED, false),
+        KEEP_SLOWING_DOWN(12, 2, RED, false),
+        YELLOW_GO(12, 2, YELLOW, true),
+        CANNOT_STOP(13, 3, RED, false);
+
+        private final int initialDistance;
+        private final int greenSteps;
+        private final TrafficLightColor light;
+        private final boolean alwaysGoOnYellow;
+
+        Scenario(int initialDistance, int greenSteps, TrafficLightColor light, boolean alwaysGoOnYellow) {
+            this.initialDistance = initialDistance;
+            this.greenSteps = greenSteps;
+            this.light = light;
+            this.alwaysGoOnYellow = alwaysGoOnYellow;
+        }
+    }
+
+    @Param
+    private Scenario scenario;
+
+    @Param({"1", "1000"})
+    private int carAheadDistance;
+
+    private final DriverLogicState[] states = new DriverLogicState[DRIVERS];
+
+    @Setup(Level.Trial)
+    public void prepareDrivers() {
+        DriverLogic driver = new DriverLogic(BenchmarkFixtures.driverConfiguration(scenario.initialDistance, scenario.alwaysGoOnYellow ? 1.0f : 0.0f));
+        for (int step = 0; step < scenario.greenSteps; step++) {
+            driver.drive(Integer.MAX_VALUE, GREEN, GREEN);
+        }
+        if (scenario == Scenario.KEEP_SLOWING_DOWN) {
+            driver.drive(Integer.MAX_VALUE, RED, RED);
+        }
+        Arrays.fill(states, driver.getState());
+    }
+
+    @Benchmark
+    public int drive() {
+        int velocities = 0;
+        for (DriverLogicState state : states) {
+            DriverLogic driver = new DriverLogic(state);
+            driver.drive(carAheadDistance, scenario.light, GREEN);
+            velocities += driver.getVelocity();
+        }
+        return velocities;
+    }
+
+    @Benchmark
+    public int restoreBaseline() {
+        int velocities = 0;
+        for (DriverLogicState state : states) {
+            DriverLogic driver = new DriverLogic(state);
+            velocities += driver.getVelocity();
+        }
+        return velocities;
+    }
+}
@@ -0,0 +1,84 @@
+package pl.edu.agh.benchmarks;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import com.typesafe.config.ConfigFactory;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.actors.Supervisor;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.engine.SynchronousSimulation;
+import pl.edu.agh.messages.WorldInitialization;
+import pl.edu.agh.model.SimulationStats;
+
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static pl.edu.agh.configuration.ConfigurationLoader.*;
+
+/**
+ * Whole simulations of {@link #ITERATIONS} ticks, reported per tick. Vehicle count is driven by the
+ * generation probability on both streets, street length by the monitored distance from the crossing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndToEndTickBenchmark {
+    private static final int ITERATIONS = 500;
+
+    @Param({"actorPerDriver", "driverGroups", "synchronous"})
+    private String engine;
+
+    @Param({"0.1", "0.9"})
+    private String generationProbability;
+
+    @Param({"30", "300"})
+    private String streetLength;
+
+    private ActorSystem system;
+    private DriverConfiguration driverConfiguration;
+    private TrafficLightsConfiguration trafficLightsConfiguration;
+    private WorldConfiguration worldConfiguration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Properties world = loadPropertiesFile(WORLD_CONFIGURATION_FILENAME);
+        world.setProperty("simulationIterations", String.valueOf(ITERATIONS));
+        world.setProperty("northSouthGenerationProbability", generationProbability);
+        world.setProperty("westEastGenerationProbability", generationProbability);
+        world.setProperty("monitoredDistanceFromCrossing", streetLength);
+        world.setProperty("randomSeed", "42");
+        world.setProperty("driverGroups", "driverGroups".equals(engine) ? String.valueOf(Runtime.getRuntime().availableProcessors()) : "0");
+        worldConfiguration = loadWorldConfiguration(world);
+        driverConfiguration = loadBaseDriverConfiguration(loadPropertiesFile(BASE_DRIVER_CONFIGURATION_FILENAME));
+        trafficLightsConfiguration = loadTrafficLightsConfiguration(loadPropertiesFile(TRAFFIC_LIGHTS_FILENAME));
+        system = ActorSystem.create("endToEndTickBenchmark", ConfigFactory.parseString("akka.loglevel=WARNING"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        system.shutdown();
+        system.awaitTermination();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS)
+    public SimulationStats tick() throws InterruptedException {
+        if ("synchronous".equals(engine)) {
+            return new SynchronousSimulation(driverConfiguration, trafficLightsConfiguration, worldConfiguration).run();
+        }
+        ActorRef supervisor = system.actorOf(Props.create(Supervisor.class));
+        BlockingQueue<SimulationStats> resultCallback = new LinkedBlockingQueue<>();
+        supervisor.tell(new WorldInitialization(driverConfiguration, trafficLightsConfiguration, worldConfiguration, resultCallback), null);
+        SimulationStats result = resultCallback.take();
+        system.stop(supervisor);
+        return result;
+    }
+}
@@ -0,0 +1,56 @@
+package pl.edu.agh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.network.NetworkSimulation;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static pl.edu.agh.configuration.ConfigurationLoader.*;
+
+/**
+ * Whole road network simulations of {@link #ITERATIONS} ticks on a {@link #ROWS} by {@link #COLUMNS}
+ * grid, reported in intersection ticks per second. Varying the partitions shows how the two-phase tick
+ * barrier scales with the available cores; on a single core it only measures the barrier overhead.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NetworkScalingBenchmark {
+    private static final int ITERATIONS = 500;
+    private static final int ROWS = 12;
+    private static final int COLUMNS = 12;
+
+    @Param({"1", "2", "4"})
+    private String partitions;
+
+    private DriverConfiguration driverConfiguration;
+    private TrafficLightsConfiguration trafficLightsConfiguration;
+    private WorldConfiguration worldConfiguration;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Properties world = loadPropertiesFile(WORLD_CONFIGURATION_FILENAME);
+        world.setProperty("simulationIterations", String.valueOf(ITERATIONS + 1));
+        world.setProperty("networkRows", String.valueOf(ROWS));
+        world.setProperty("networkColumns", String.valueOf(COLUMNS));
+        world.setProperty("networkPartitions", partitions);
+        world.setProperty("randomSeed", "42");
+        worldConfiguration = loadWorldConfiguration(world);
+        driverConfiguration = loadBaseDriverConfiguration(loadPropertiesFile(BASE_DRIVER_CONFIGURATION_FILENAME));
+        trafficLightsConfiguration = loadTrafficLightsConfiguration(loadPropertiesFile(TRAFFIC_LIGHTS_FILENAME));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ITERATIONS * ROWS * COLUMNS)
+    public SimulationStats intersectionTick() throws InterruptedException {
+        return new NetworkSimulation(driverConfiguration, trafficLightsConfiguration, worldConfiguration).run();
+    }
+}
@@ -0,0 +1,75 @@
+package pl.edu.agh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.logic.IterationStatsTracker;
+import pl.edu.agh.logic.SimulationStatsCalculator;
+import pl.edu.agh.messages.StatsUpdate;
+import pl.edu.agh.model.StatsDelta;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-tick statistics cost: recording every vehicle's move into a StatsDelta on the Supervisor side
+ * and turning the published StatsUpdate into IterationStats on the StatisticsCollector side.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatisticsBenchmark {
+    @Param({"16", "128", "1024"})
+    private int vehicles;
+
+    @Param({"30", "300"})
+    private int streetLength;
+
+    private int[] positions;
+    private int[] velocities;
+    private Street[] streets;
+    private StatsDelta delta;
+    private StatsUpdate statsUpdate;
+    private IterationStatsTracker tracker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        positions = new int[vehicles];
+        velocities = new int[vehicles];
+        streets = new Street[vehicles];
+        delta = new StatsDelta();
+        for (int i = 0; i < vehicles; i++) {
+            streets[i] = i % 2 == 0 ? Street.NORTH_SOUTH : Street.WEST_EAST;
+            positions[i] = random.nextInt(-streetLength, streetLength + 1);
+            velocities[i] = random.nextInt(BenchmarkFixtures.MAX_VELOCITY + 1);
+            delta.vehicleSpawned(streets[i], positions[i], velocities[i]);
+        }
+        Map<Street, TrafficLightColor> lights = new EnumMap<>(Street.class);
+        lights.put(Street.NORTH_SOUTH, TrafficLightColor.RED);
+        lights.put(Street.WEST_EAST, TrafficLightColor.GREEN);
+        delta.lightsChanged(lights);
+        statsUpdate = delta.publish(0);
+        tracker = new IterationStatsTracker(new SimulationStatsCalculator());
+        tracker.addUpdate(statsUpdate);
+        statsUpdate = delta.publish(0);
+    }
+
+    @Benchmark
+    public StatsUpdate recordVehicleMoves() {
+        for (int i = 0; i < vehicles; i++) {
+            delta.vehicleMoved(streets[i], positions[i], velocities[i], positions[i] - velocities[i], velocities[i]);
+        }
+        return delta.publish(0);
+    }
+
+    @Benchmark
+    public void calculateIterationStats() {
+        tracker.addUpdate(statsUpdate);
+    }
+}
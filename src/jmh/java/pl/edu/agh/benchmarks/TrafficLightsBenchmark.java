@@ -0,0 +1,57 @@
+package pl.edu.agh.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.logic.SelfOrganizingTrafficLightsLogic;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.model.ArrayWorldSnapshot;
+import pl.edu.agh.model.Street;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrafficLightsBenchmark {
+    @Param({"16", "128", "1024"})
+    private int vehicles;
+
+    @Param({"30", "300"})
+    private int streetLength;
+
+    private BenchmarkedTrafficLightsLogic logic;
+    private IntersectionSurrounding intersectionSurrounding;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ArrayWorldSnapshot snapshot = new ArrayWorldSnapshot();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < vehicles; i++) {
+            Street street = i % 2 == 0 ? Street.NORTH_SOUTH : Street.WEST_EAST;
+            int id = snapshot.addVehicle(null, street, BenchmarkFixtures.driverConfiguration(streetLength, 0.05f));
+            snapshot.updateVehicle(id, random.nextInt(-streetLength, streetLength + 1), random.nextInt(BenchmarkFixtures.MAX_VELOCITY + 1));
+        }
+        intersectionSurrounding = snapshot.getIntersectionSurrouding(false);
+        logic = new BenchmarkedTrafficLightsLogic(BenchmarkFixtures.trafficLightsConfiguration(0));
+    }
+
+    @Benchmark
+    public boolean shouldSwitchGreenToYellow() {
+        return logic.shouldSwitchGreenToYellow(intersectionSurrounding);
+    }
+
+    private static class BenchmarkedTrafficLightsLogic extends SelfOrganizingTrafficLightsLogic {
+        BenchmarkedTrafficLightsLogic(TrafficLightsConfiguration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        protected boolean shouldSwitchGreenToYellow(IntersectionSurrounding intersectionSurrounding) {
+            return super.shouldSwitchGreenToYellow(intersectionSurrounding);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package pl.edu.agh.benchmarks;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import com.typesafe.config.ConfigFactory;
+import org.openjdk.jmh.annotations.*;
+import pl.edu.agh.messages.DriverUpdate;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.WorldSnapshot;
+
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorldSnapshotBenchmark {
+    @Param({"16", "128", "1024"})
+    private int vehicles;
+
+    @Param({"30", "300"})
+    private int streetLength;
+
+    @Param({"map", "array"})
+    private String storage;
+
+    private ActorSystem system;
+    private WorldSnapshot snapshot;
+    private ActorRef[] drivers;
+    private int nextDriver = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        system = ActorSystem.create("worldSnapshotBenchmark", ConfigFactory.parseString("akka.loglevel=WARNING"));
+        snapshot = WorldSnapshot.create("array".equals(storage));
+        drivers = new ActorRef[vehicles];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < vehicles; i++) {
+            drivers[i] = system.actorOf(Props.create(BenchmarkFixtures.IdleActor.class));
+            Street street = i % 2 == 0 ? Street.NORTH_SOUTH : Street.WEST_EAST;
+            snapshot.addDriver(drivers[i], street, BenchmarkFixtures.driverConfiguration(streetLength, 0.05f));
+            snapshot.update(drivers[i], new DriverUpdate(random.nextInt(-streetLength, streetLength + 1),
+                    random.nextInt(BenchmarkFixtures.MAX_VELOCITY + 1)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        system.shutdown();
+        system.awaitTermination();
+    }
+
+    @Benchmark
+    public Integer getCarAheadDistance() {
+        nextDriver = nextDriver + 1 == vehicles ? 0 : nextDriver + 1;
+        return snapshot.getCarAheadDistance(drivers[nextDriver]);
+    }
+
+    @Benchmark
+    public IntersectionSurrounding getIntersectionSurrouding() {
+        return snapshot.getIntersectionSurrouding(false);
+    }
+
+    @Benchmark
+    public WorldSnapshot copy() {
+        return snapshot.copy();
+    }
+
+    @Benchmark
+    public Set<ActorRef> getDriversBeforeIntersectionOnStreet() {
+        return snapshot.getDriversBeforeIntersectionOnStreet(Street.WEST_EAST);
+    }
+}
@@ -0,0 +1,64 @@
+package pl.edu.agh.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import pl.edu.agh.journal.JournalWriter;
+import pl.edu.agh.logic.CollisionDetector;
+import pl.edu.agh.messages.CollisionEvent;
+import pl.edu.agh.messages.SimulationEnd;
+import pl.edu.agh.messages.TickOutcome;
+
+/**
+ * Finishes ticks behind the Supervisor in pipelined mode: pairs up the vehicles on the intersection,
+ * reports the collisions and only then forwards the tick's statistics and journal frame, so that tick N+1
+ * is never held up by tick N's collision detection. Ticks arrive and are published in order.
+ */
+public class CollisionDetectionStage extends UntypedActor {
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+    private final CollisionDetector collisionDetector;
+    private final ActorRef statisticsCollectorAgent;
+    private final JournalWriter journalWriter;
+
+    public CollisionDetectionStage(Integer streetWidth, ActorRef statisticsCollectorAgent, JournalWriter journalWriter) {
+        this.collisionDetector = new CollisionDetector(streetWidth);
+        this.statisticsCollectorAgent = statisticsCollectorAgent;
+        this.journalWriter = journalWriter;
+    }
+
+    @Override
+    public void onReceive(Object message) throws Exception {
+        if (message instanceof TickOutcome) {
+            finishTick((TickOutcome<?>) message);
+        } else if (message instanceof SimulationEnd) {
+            if (journalWriter != null) {
+                journalWriter.close();
+            }
+            statisticsCollectorAgent.tell(message, getSelf());
+        }
+    }
+
+    private <T> void finishTick(TickOutcome<T> outcome) {
+        int detectedCollisions = 0;
+        for (CollisionEvent<T> collision : collisionDetector.detectCollisions(outcome.iterationNo,
+                outcome.westEastVehiclesOnIntersection, outcome.northSouthVehiclesOnIntersection)) {
+            log.info("Collision detected: " + collision);
+            getContext().system().eventStream().publish(collision);
+            detectedCollisions++;
+        }
+        if (outcome.statsUpdate != null) {
+            statisticsCollectorAgent.tell(outcome.statsUpdate.withDetectedCollisions(detectedCollisions), getSelf());
+        }
+        if (outcome.journalFrame != null) {
+            journalWriter.write(outcome.journalFrame.withDetectedCollisions(detectedCollisions));
+        }
+    }
+
+    public static Props props(final Integer streetWidth,
+                              final ActorRef statisticsCollectorAgent,
+                              final JournalWriter journalWriter) {
+        return Props.create(CollisionDetectionStage.class, streetWidth, statisticsCollectorAgent, journalWriter);
+    }
+}
@@ -0,0 +1,53 @@
+package pl.edu.agh.actors;
+
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.logic.DriverLogic;
+import pl.edu.agh.messages.DriverGroupFrame;
+import pl.edu.agh.messages.DriverGroupUpdate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class DriverGroup extends UntypedActor {
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+    private final Integer monitoredDistanceFromCrossing;
+    private final Map<Integer, DriverLogic> drivers = new HashMap<>();
+
+    public DriverGroup(Integer monitoredDistanceFromCrossing) {
+        this.monitoredDistanceFromCrossing = monitoredDistanceFromCrossing;
+    }
+
+    @Override
+    public void onReceive(Object message) throws Exception {
+        if (message instanceof DriverGroupFrame) {
+            getSender().tell(drive((DriverGroupFrame) message), getSelf());
+        }
+    }
+
+    private DriverGroupUpdate drive(DriverGroupFrame frame) {
+        for (Map.Entry<Integer, DriverConfiguration> newVehicle : frame.newVehicles.entrySet()) {
+            drivers.put(newVehicle.getKey(), new DriverLogic(newVehicle.getValue()));
+        }
+        int[] distances = new int[frame.vehicleIds.length];
+        int[] velocities = new int[frame.vehicleIds.length];
+        for (int i = 0; i < frame.vehicleIds.length; i++) {
+            DriverLogic driver = drivers.get(frame.vehicleIds[i]);
+            driver.drive(frame.carAheadDistances[i], frame.trafficLightColors[i], frame.previousTrafficLightColors[i]);
+            distances[i] = driver.getDistanceToIntersection();
+            velocities[i] = driver.getVelocity();
+            if (distances[i] < -monitoredDistanceFromCrossing) {
+                drivers.remove(frame.vehicleIds[i]);
+            }
+        }
+        log.debug("Moved " + frame.vehicleIds.length + " drivers");
+        return new DriverGroupUpdate(frame.vehicleIds, distances, velocities);
+    }
+
+    public static Props props(final Integer monitoredDistanceFromCrossing) {
+        return Props.create(DriverGroup.class, monitoredDistanceFromCrossing);
+    }
+}
@@ -0,0 +1,65 @@
+package pl.edu.agh.actors;
+
+import akka.actor.ActorContext;
+import akka.actor.ActorRef;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.DriverWithConfiguration;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Idle Driver actors kept by the TrafficGenerator, reused for each new car instead of starting an actor
+ * per car and stopping it when the car leaves. A reused actor is reset by the Supervisor, which also sends
+ * its first tick, so the reset cannot overtake it. The pool grows on every miss; idle actors beyond the
+ * initial size that were not needed during a whole shrink interval are stopped.
+ */
+class DriverPool {
+    private final ActorContext context;
+    private final int initialSize;
+    private final Deque<ActorRef> idleDrivers = new ArrayDeque<>();
+    private int minIdleSinceShrink;
+    private long hits;
+    private long misses;
+    private long stopped;
+
+    DriverPool(ActorContext context, int initialSize, DriverConfiguration baseConfiguration) {
+        this.context = context;
+        this.initialSize = initialSize;
+        for (int i = 0; i < initialSize; i++) {
+            idleDrivers.push(context.actorOf(Driver.props(baseConfiguration)));
+        }
+        this.minIdleSinceShrink = initialSize;
+    }
+
+    DriverWithConfiguration acquire(DriverConfiguration configuration) {
+        ActorRef driver = idleDrivers.poll();
+        if (driver == null) {
+            misses++;
+            minIdleSinceShrink = 0;
+            return new DriverWithConfiguration(context.actorOf(Driver.props(configuration)), configuration);
+        }
+        hits++;
+        minIdleSinceShrink = Math.min(minIdleSinceShrink, idleDrivers.size());
+        return new DriverWithConfiguration(driver, configuration, true);
+    }
+
+    void release(ActorRef driver) {
+        idleDrivers.push(driver);
+    }
+
+    void shrink() {
+        int surplus = Math.min(minIdleSinceShrink, idleDrivers.size() - initialSize);
+        for (int i = 0; i < surplus; i++) {
+            context.stop(idleDrivers.pollLast());
+            stopped++;
+        }
+        minIdleSinceShrink = idleDrivers.size();
+    }
+
+    String summary() {
+        long acquired = hits + misses;
+        return String.format("hits=%d misses=%d hitRate=%.3f idle=%d stopped=%d",
+                hits, misses, acquired == 0 ? 0.0 : (double) hits / acquired, idleDrivers.size(), stopped);
+    }
+}
@@ -0,0 +1,86 @@
+package pl.edu.agh.actors;
+
+import akka.actor.Props;
+import akka.actor.UntypedActor;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.logic.RandomStreams;
+import pl.edu.agh.messages.RegionAssignment;
+import pl.edu.agh.messages.RegionRegistration;
+import pl.edu.agh.messages.RegionTick;
+import pl.edu.agh.messages.RegionTickResult;
+import pl.edu.agh.messages.SimulationEnd;
+import pl.edu.agh.network.NetworkPartition;
+import pl.edu.agh.network.RoadNetwork;
+
+import java.util.Arrays;
+
+/**
+ * Owns one region of a road network in a separate process: its vehicles, its intersection
+ * controllers and its lanes. Answers every {@link RegionTick} with one {@link RegionTickResult}.
+ */
+public class NetworkRegion extends UntypedActor {
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+    private final String coordinatorPath;
+    private final int region;
+    private NetworkPartition partition;
+    private int[] incomingBoundaryLinks;
+
+    public NetworkRegion(String coordinatorPath, Integer region) {
+        this.coordinatorPath = coordinatorPath;
+        this.region = region;
+    }
+
+    @Override
+    public void preStart() {
+        getContext().actorSelection(coordinatorPath).tell(new RegionRegistration(region), getSelf());
+    }
+
+    @Override
+    public void onReceive(Object message) throws Exception {
+        if (message instanceof RegionAssignment) {
+            init((RegionAssignment) message);
+        } else if (message instanceof RegionTick) {
+            tick((RegionTick) message);
+        } else if (message instanceof SimulationEnd) {
+            getSender().tell(partition.getStats(), getSelf());
+            getContext().system().shutdown();
+        }
+    }
+
+    private void init(RegionAssignment message) {
+        WorldConfiguration worldConfiguration = message.worldConfiguration;
+        RoadNetwork network = new RoadNetwork(
+                worldConfiguration.networkRows,
+                worldConfiguration.networkColumns,
+                worldConfiguration.networkBlockLength,
+                worldConfiguration.monitoredDistanceFromCrossing);
+        int[] rearPositions = new int[network.getLinkCount()];
+        Arrays.fill(rearPositions, NetworkPartition.NO_VEHICLE_ON_LINK);
+        partition = new NetworkPartition(message.region, message.regions, network,
+                message.baseDriverConfiguration, message.trafficLightsConfiguration, worldConfiguration,
+                new RandomStreams(message.masterSeed), rearPositions);
+        incomingBoundaryLinks = network.getIncomingBoundaryLinks(message.region, message.regions);
+        log.info("Region " + region + " owns " + partition.getIntersectionCount() + " intersections");
+    }
+
+    private void tick(RegionTick message) {
+        partition.receiveRemoteHandovers(message.handovers);
+        partition.acceptHandovers();
+        for (int i = 0; i < message.rearPositionLinks.length; i++) {
+            partition.setRearPosition(message.rearPositionLinks[i], message.rearPositions[i]);
+        }
+        partition.tick();
+        int[] rearPositions = new int[incomingBoundaryLinks.length];
+        for (int i = 0; i < incomingBoundaryLinks.length; i++) {
+            rearPositions[i] = partition.getRearPosition(incomingBoundaryLinks[i]);
+        }
+        getSender().tell(new RegionTickResult(region, message.iterationNo, partition.takeRemoteHandovers(),
+                incomingBoundaryLinks, rearPositions), getSelf());
+    }
+
+    public static Props props(final String coordinatorPath, final Integer region) {
+        return Props.create(NetworkRegion.class, coordinatorPath, region);
+    }
+}
@@ -0,0 +1,190 @@
+package pl.edu.agh.actors;
+
+import akka.actor.ActorRef;
+import akka.actor.ReceiveTimeout;
+import akka.actor.Terminated;
+import akka.actor.UntypedActor;
+import akka.event.Logging;
+import akka.event.LoggingAdapter;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.logic.RandomStreams;
+import pl.edu.agh.messages.RegionAssignment;
+import pl.edu.agh.messages.RegionRegistration;
+import pl.edu.agh.messages.RegionStats;
+import pl.edu.agh.messages.RegionTick;
+import pl.edu.agh.messages.RegionTickResult;
+import pl.edu.agh.messages.SimulationEnd;
+import pl.edu.agh.messages.VehicleHandover;
+import pl.edu.agh.messages.WorldInitialization;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.network.NetworkPartition;
+import pl.edu.agh.network.NetworkStatsCalculator;
+import pl.edu.agh.network.RoadNetwork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import scala.concurrent.duration.Duration;
+
+/**
+ * Coordinates road network regions running in other processes. Runs the global tick barrier and
+ * routes vehicles handed over between regions, so each tick costs one message round-trip per region.
+ * A region that does not register in time, or stops before reporting its statistics, stops the
+ * supervisor, which its creator watches.
+ */
+public class NetworkSupervisor extends UntypedActor {
+    private static final long REGION_REGISTRATION_TIMEOUT_SECONDS = 60;
+    private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
+    private WorldInitialization initialization;
+    private WorldConfiguration worldConfiguration;
+    private RoadNetwork network;
+    private int regions;
+    private long masterSeed;
+    private ActorRef[] regionAgents;
+    private int registeredRegions = 0;
+    private boolean[] reportedRegions;
+    private int[][] outgoingBoundaryLinks;
+    private int[] rearPositions;
+    private List<List<VehicleHandover>> pendingHandovers = new ArrayList<>();
+    private int iterationNo = 0;
+    private int awaitedReplies = 0;
+    private long startTime;
+    private final NetworkStatsCalculator statsCalculator = new NetworkStatsCalculator();
+
+    @Override
+    public void onReceive(Object message) throws Exception {
+        if (message instanceof WorldInitialization) {
+            init((WorldInitialization) message);
+        } else if (message instanceof RegionRegistration) {
+            register((RegionRegistration) message);
+        } else if (message instanceof RegionTickResult) {
+            collectTickResult((RegionTickResult) message);
+        } else if (message instanceof RegionStats) {
+            reportedRegions[((RegionStats) message).region] = true;
+            statsCalculator.addRegion((RegionStats) message);
+            if (--awaitedReplies == 0) {
+                finish();
+            }
+        } else if (message instanceof Terminated) {
+            regionTerminated(((Terminated) message).getActor());
+        } else if (message instanceof ReceiveTimeout) {
+            fail("Only " + registeredRegions + " of " + regions + " regions registered within "
+                    + REGION_REGISTRATION_TIMEOUT_SECONDS + " s");
+        }
+    }
+
+    private void init(WorldInitialization message) {
+        this.initialization = message;
+        this.worldConfiguration = message.worldConfiguration;
+        this.network = new RoadNetwork(
+                worldConfiguration.networkRows,
+                worldConfiguration.networkColumns,
+                worldConfiguration.networkBlockLength,
+                worldConfiguration.monitoredDistanceFromCrossing);
+        this.regions = worldConfiguration.networkRegionProcesses;
+        this.masterSeed = new RandomStreams(worldConfiguration.randomSeed).getMasterSeed();
+        this.regionAgents = new ActorRef[regions];
+        this.reportedRegions = new boolean[regions];
+        this.outgoingBoundaryLinks = new int[regions][];
+        for (int region = 0; region < regions; region++) {
+            outgoingBoundaryLinks[region] = network.getOutgoingBoundaryLinks(region, regions);
+            pendingHandovers.add(new ArrayList<>());
+        }
+        this.rearPositions = new int[network.getLinkCount()];
+        Arrays.fill(rearPositions, NetworkPartition.NO_VEHICLE_ON_LINK);
+        getContext().setReceiveTimeout(Duration.create(REGION_REGISTRATION_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+    }
+
+    private void register(RegionRegistration message) {
+        log.info("Region " + message.region + " registered from " + getSender().path().address());
+        regionAgents[message.region] = getSender();
+        getContext().watch(getSender());
+        getSender().tell(new RegionAssignment(message.region, regions, masterSeed,
+                initialization.baseDriverConfiguration,
+                initialization.trafficLightsConfiguration,
+                worldConfiguration), getSelf());
+        if (++registeredRegions == regions) {
+            getContext().setReceiveTimeout(Duration.Undefined());
+            startTime = System.nanoTime();
+            startNewIteration();
+        }
+    }
+
+    /**
+     * Regions shut down after reporting their statistics; before that, losing one, whether its process
+     * died or the connection to it failed, makes the simulation impossible to finish.
+     */
+    private void regionTerminated(ActorRef regionAgent) {
+        for (int region = 0; region < regions; region++) {
+            if (regionAgent.equals(regionAgents[region]) && !reportedRegions[region]) {
+                fail("Region " + region + " at " + regionAgent.path().address() + " terminated during iteration " + iterationNo);
+            }
+        }
+    }
+
+    private void fail(String reason) {
+        log.error(reason);
+        getContext().stop(getSelf());
+    }
+
+    private void startNewIteration() {
+        iterationNo++;
+        awaitedReplies = regions;
+        for (int region = 0; region < regions; region++) {
+            int[] links = outgoingBoundaryLinks[region];
+            int[] positions = new int[links.length];
+            for (int i = 0; i < links.length; i++) {
+                positions[i] = rearPositions[links[i]];
+            }
+            regionAgents[region].tell(new RegionTick(iterationNo, pendingHandovers.get(region), links, positions), getSelf());
+            pendingHandovers.set(region, new ArrayList<>());
+        }
+    }
+
+    private void collectTickResult(RegionTickResult message) {
+        for (int i = 0; i < message.rearPositionLinks.length; i++) {
+            rearPositions[message.rearPositionLinks[i]] = message.rearPositions[i];
+        }
+        for (VehicleHandover handover : message.handovers) {
+            pendingHandovers.get(network.getPartition(network.getIntersectionOfLink(handover.link), regions)).add(handover);
+        }
+        if (--awaitedReplies > 0) {
+            return;
+        }
+        includeHandoversInRearPositions();
+        if (iterationNo < worldConfiguration.simulationIterations - 1) {
+            startNewIteration();
+        } else {
+            awaitedReplies = regions;
+            for (ActorRef region : regionAgents) {
+                region.tell(new SimulationEnd(), getSelf());
+            }
+        }
+    }
+
+    /**
+     * Vehicles entering a region are accepted there only at the beginning of the next tick, so the
+     * rear a region reported does not include them yet.
+     */
+    private void includeHandoversInRearPositions() {
+        for (List<VehicleHandover> handovers : pendingHandovers) {
+            for (VehicleHandover handover : handovers) {
+                int position = handover.driver.distanceToIntersection + network.getLinkLength(handover.link);
+                rearPositions[handover.link] = Math.max(rearPositions[handover.link], position);
+            }
+        }
+    }
+
+    private void finish() {
+        double elapsedSeconds = (System.nanoTime() - startTime) / 1e9;
+        log.info(String.format("Simulated %d intersections in %d region processes: %.1f s (%.0f intersection ticks/s)",
+                network.getIntersectionCount(), regions, elapsedSeconds,
+                (double) network.getIntersectionCount() * iterationNo / elapsedSeconds));
+        SimulationStats stats = statsCalculator.calculateSimulationStats(iterationNo);
+        BlockingQueue<SimulationStats> resultCallback = initialization.resultCallback;
+        resultCallback.offer(stats);
+    }
+}
@@ -6,18 +6,41 @@ import akka.event.Logging;
 import akka.event.LoggingAdapter;
 import pl.edu.agh.configuration.DriverConfiguration;
 import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.journal.JournalFrame;
+import pl.edu.agh.journal.JournalRecorder;
+import pl.edu.agh.journal.JournalWriter;
+import pl.edu.agh.logic.CollisionDetector;
+import pl.edu.agh.metrics.TickMetrics;
+import pl.edu.agh.metrics.TickPhase;
 import pl.edu.agh.messages.*;
 import pl.edu.agh.model.*;
+import pl.edu.agh.observer.ObserverTap;
+import pl.edu.agh.observer.WorldFrame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class Supervisor extends UntypedActor {
     private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
     private WorldConfiguration worldConfiguration;
+    private CollisionDetector collisionDetector;
     private ActorRef trafficLightsAgent;
     private ActorRef trafficGeneratorAgent;
     private ActorRef statisticsCollectorAgent;
-    private WorldSnapshot previousSnapshot;
-    private WorldSnapshot currentSnapshot;
+    private ActorRef collisionDetectionStage;
+    private DoubleBufferedWorldSnapshot snapshots;
+    private StatsDelta statsDelta = new StatsDelta();
+    private JournalRecorder journalRecorder;
+    private JournalWriter journalWriter;
     private IterationStatus iterationStatus = new IterationStatus();
+    private List<ActorRef> driverGroups = new ArrayList<>();
+    private List<Map<Integer, DriverConfiguration>> newVehiclesPerGroup = new ArrayList<>();
+    private TickMetrics tickMetrics;
+    private ObserverTap observerTap;
+    private boolean convergenceReached = false;
 
     @Override
     public void onReceive(Object message) throws Exception {
@@ -26,38 +49,121 @@ public class Supervisor extends UntypedActor {
         } else if (message instanceof DriverUpdate) {
             updateWorldState((DriverUpdate) message);
             iterationStatus.incrementDriverUpdatesCounter();
+            if (tickMetrics != null) {
+                tickMetrics.driverUpdateReceived();
+            }
+        } else if (message instanceof DriverGroupUpdate) {
+            updateWorldState((DriverGroupUpdate) message);
+            iterationStatus.incrementDriverUpdatesCounter();
+            if (tickMetrics != null) {
+                tickMetrics.driverUpdateReceived();
+            }
+        } else if (message instanceof ConvergenceReached) {
+            convergenceReached = true;
         } else if (message instanceof TrafficLightsUpdate) {
-            currentSnapshot.update((TrafficLightsUpdate) message);
+            if (tickMetrics != null) {
+                tickMetrics.replyReceived(TickPhase.LIGHTS_REPLY);
+            }
+            snapshots.update((TrafficLightsUpdate) message);
+            statsDelta.lightsChanged(((TrafficLightsUpdate) message).streetToLightColor);
+            if (journalRecorder != null) {
+                journalRecorder.lightsChanged(((TrafficLightsUpdate) message).streetToLightColor);
+            }
             iterationStatus.markTrafficLightsUpdateReceived();
         } else if (message instanceof TrafficGenerationMessage) {
-            previousSnapshot.update((TrafficGenerationMessage) message);
-            currentSnapshot.update((TrafficGenerationMessage) message);
+            addNewTraffic((TrafficGenerationMessage) message);
             if (((TrafficGenerationMessage) message).isInitial) {
                 log.info("Broadcasting initial info");
+                if (collisionDetectionStage != null) {
+                    publishTickOutcome(Collections.emptyList(), Collections.emptyList(), true);
+                }
                 broadcastWorldSnapshot();
-                iterationStatus.startNewIteration(currentSnapshot.getAllDrivers().size());
+                iterationStatus.startNewIteration(getExpectedDriverUpdates());
             } else {
                 iterationStatus.markTrafficGenerationUpdateReceived();
+                if (tickMetrics != null) {
+                    tickMetrics.replyReceived(TickPhase.GENERATOR_REPLY);
+                }
             }
         }
         if (iterationStatus.areAllUpdatesReceived()) {
-            if (detectCollisions()) {
-                iterationStatus.incrementDetectedCollisionsCounter();
+            if (tickMetrics != null) {
+                tickMetrics.allUpdatesReceived();
+            }
+            boolean lastIteration = iterationStatus.getIterationNo() >= worldConfiguration.simulationIterations || convergenceReached;
+            long collisionDetectionStart = System.nanoTime();
+            if (collisionDetectionStage != null) {
+                handOffCollisionDetection(!lastIteration);
+            } else {
+                for (CollisionEvent<?> collision : detectCollisions()) {
+                    log.info("Collision detected: " + collision);
+                    getContext().system().eventStream().publish(collision);
+                    iterationStatus.incrementDetectedCollisionsCounter();
+                }
+            }
+            if (tickMetrics != null) {
+                tickMetrics.phaseFinished(TickPhase.COLLISION_DETECTION, collisionDetectionStart);
+                if (worldConfiguration.tickMetricsLogInterval > 0
+                        && iterationStatus.getIterationNo() % worldConfiguration.tickMetricsLogInterval == 0) {
+                    log.info("Tick metrics: " + tickMetrics.summary());
+                }
+            }
+            if (observerTap != null && observerTap.isDue(iterationStatus.getIterationNo())) {
+                observerTap.publish(WorldFrame.of(iterationStatus.getIterationNo(), snapshots.getCurrent()));
             }
-            if (iterationStatus.getIterationNo() < worldConfiguration.simulationIterations) {
+            if (!lastIteration) {
                 broadcastWorldSnapshot();
-                iterationStatus.startNewIteration(currentSnapshot.getAllDrivers().size());
+                iterationStatus.startNewIteration(getExpectedDriverUpdates());
             } else {
-                statisticsCollectorAgent.tell(new SimulationEnd(), getSelf());
+                if (tickMetrics != null) {
+                    tickMetrics.simulationFinished();
+                    log.info("Tick metrics: " + tickMetrics.summary());
+                }
+                if (observerTap != null) {
+                    log.info("World observers dropped " + observerTap.getDroppedFrames() + " frames");
+                    observerTap.close();
+                }
+                if (collisionDetectionStage != null) {
+                    collisionDetectionStage.tell(new SimulationEnd(), getSelf());
+                } else {
+                    if (journalWriter != null) {
+                        journalWriter.close();
+                    }
+                    statisticsCollectorAgent.tell(new SimulationEnd(), getSelf());
+                }
+            }
+            long swapStart = System.nanoTime();
+            snapshots.swap();
+            if (tickMetrics != null) {
+                tickMetrics.phaseFinished(TickPhase.SNAPSHOT_SWAP, swapStart);
             }
-            previousSnapshot = currentSnapshot.copy();
+        }
+    }
+
+    @Override
+    public void postStop() {
+        if (tickMetrics != null) {
+            tickMetrics.unregister();
+        }
+        if (observerTap != null) {
+            observerTap.close();
         }
     }
 
     private void init(WorldInitialization message) {
         this.worldConfiguration = message.worldConfiguration;
-        previousSnapshot = new WorldSnapshot();
-        currentSnapshot = previousSnapshot.copy();
+        if (worldConfiguration.checkpointFile != null || worldConfiguration.restoreCheckpointFile != null) {
+            log.warning("Checkpoints are written and restored only by the synchronous engine, ignoring checkpointFile and restoreCheckpointFile");
+        }
+        if (worldConfiguration.batchDriverKernel) {
+            log.warning("batchDriverKernel applies only to the synchronous engine, drivers run as actors");
+        }
+        this.collisionDetector = new CollisionDetector(worldConfiguration.streetWidth);
+        snapshots = new DoubleBufferedWorldSnapshot(WorldSnapshot.create(worldConfiguration.useArrayWorldSnapshot || isGroupMode() || worldConfiguration.sharedTickFrames));
+        for (int i = 0; i < worldConfiguration.driverGroups; i++) {
+            driverGroups.add(this.getContext().actorOf(DriverGroup.props(worldConfiguration.monitoredDistanceFromCrossing), "driverGroup" + i));
+            newVehiclesPerGroup.add(new HashMap<>());
+        }
         statisticsCollectorAgent = this.getContext().actorOf(StatisticsCollector.props(message.baseDriverConfiguration, message.worldConfiguration, message.resultCallback));
         if (worldConfiguration.useSimpleLights) {
             trafficLightsAgent = this.getContext().actorOf(SimpleTrafficLights.props(message.trafficLightsConfiguration), "simpleTrafficLights");
@@ -68,59 +174,300 @@ public class Supervisor extends UntypedActor {
                 TrafficGenerator.props(
                         message.worldConfiguration.newCarGenerationProbability,
                         message.baseDriverConfiguration,
-                        message.worldConfiguration.monitoredDistanceFromCrossing),
+                        message.worldConfiguration.monitoredDistanceFromCrossing,
+                        message.worldConfiguration.randomSeed,
+                        !isGroupMode(),
+                        message.worldConfiguration.driverPoolSize,
+                        message.worldConfiguration.trafficTraceFile,
+                        message.worldConfiguration.trafficTraceRecordFile),
                 "trafficGenerator");
-        trafficGeneratorAgent.tell(currentSnapshot.getIntersectionSurrouding(true), getSelf());
+        statsDelta.lightsChanged(new HashMap<>(snapshots.getCurrent().getLightColors()));
+        if (worldConfiguration.journalFile != null) {
+            journalRecorder = new JournalRecorder();
+            journalRecorder.lightsChanged(new HashMap<>(snapshots.getCurrent().getLightColors()));
+            journalWriter = new JournalWriter(worldConfiguration.journalFile);
+        }
+        if (worldConfiguration.pipelinedTicks) {
+            collisionDetectionStage = this.getContext().actorOf(
+                    CollisionDetectionStage.props(worldConfiguration.streetWidth, statisticsCollectorAgent, journalWriter),
+                    "collisionDetectionStage");
+        }
+        if (worldConfiguration.tickMetrics) {
+            tickMetrics = new TickMetrics(getContext().system().name());
+            tickMetrics.register();
+        }
+        if (worldConfiguration.observerSampleInterval > 0 && !message.observers.isEmpty()) {
+            observerTap = new ObserverTap(worldConfiguration.observerSampleInterval, worldConfiguration.observerBufferSize, message.observers);
+        }
+        trafficGeneratorAgent.tell(snapshots.getCurrent().getIntersectionSurrouding(true), getSelf());
     }
 
     private void updateWorldState(DriverUpdate message) {
+        DriverState state = snapshots.getCurrent().getDriverState(getSender());
         if (message.newDistanceToIntersection < -worldConfiguration.monitoredDistanceFromCrossing) {
             log.info("Removing actor from simulation " + getSender());
-            currentSnapshot.remove(getSender());
-            context().stop(getSender());
+            statsDelta.vehicleRemoved(state.getStreet(), state.getPositionOnStreet(), state.getCurrentVelocity());
+            if (journalRecorder != null) {
+                journalRecorder.vehicleRemoved(getSender());
+            }
+            snapshots.remove(getSender());
+            if (worldConfiguration.driverPoolSize > 0) {
+                trafficGeneratorAgent.tell(new DriverRelease(getSender()), getSelf());
+            } else {
+                context().stop(getSender());
+            }
         } else {
-            currentSnapshot.update(getSender(), message);
+            statsDelta.vehicleMoved(state.getStreet(), state.getPositionOnStreet(), state.getCurrentVelocity(),
+                    message.newDistanceToIntersection, message.currentVelocity);
+            if (journalRecorder != null) {
+                journalRecorder.vehicleMoved(getSender(), message.newDistanceToIntersection, message.currentVelocity);
+            }
+            snapshots.update(getSender(), message);
+        }
+    }
+
+    private void updateWorldState(DriverGroupUpdate message) {
+        ArrayWorldSnapshot currentSnapshot = (ArrayWorldSnapshot) snapshots.getCurrent();
+        for (int i = 0; i < message.vehicleIds.length; i++) {
+            int id = message.vehicleIds[i];
+            Street street = currentSnapshot.getStreet(id);
+            if (message.newDistancesToIntersection[i] < -worldConfiguration.monitoredDistanceFromCrossing) {
+                statsDelta.vehicleRemoved(street, currentSnapshot.getPosition(id), currentSnapshot.getVelocity(id));
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleRemoved(id);
+                }
+                snapshots.removeVehicle(id);
+            } else {
+                statsDelta.vehicleMoved(street, currentSnapshot.getPosition(id), currentSnapshot.getVelocity(id),
+                        message.newDistancesToIntersection[i], message.currentVelocities[i]);
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleMoved(id, message.newDistancesToIntersection[i], message.currentVelocities[i]);
+                }
+                snapshots.updateVehicle(id, new DriverUpdate(message.newDistancesToIntersection[i], message.currentVelocities[i]));
+            }
         }
     }
 
+    private void addNewTraffic(TrafficGenerationMessage message) {
+        for (Street street : message.newTraffic.keySet()) {
+            message.newTraffic.get(street).ifPresent(driverWithConfig -> statsDelta.vehicleSpawned(
+                    street, driverWithConfig.configuration.initialDistanceToIntersection, WorldSnapshot.INITIAL_VELOCITY));
+        }
+        if (!isGroupMode()) {
+            resetReusedDrivers(message);
+            snapshots.update(message);
+            if (worldConfiguration.sharedTickFrames) {
+                assignVehicleIds(message);
+            }
+        }
+        for (Street street : message.newTraffic.keySet()) {
+            message.newTraffic.get(street).ifPresent(driverWithConfig -> {
+                Object vehicle = driverWithConfig.driver;
+                if (isGroupMode()) {
+                    int id = snapshots.addVehicle(street, driverWithConfig.configuration);
+                    newVehiclesPerGroup.get(id % driverGroups.size()).put(id, driverWithConfig.configuration);
+                    vehicle = id;
+                }
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleSpawned(vehicle, street, driverWithConfig.configuration.initialDistanceToIntersection);
+                }
+            });
+        }
+    }
+
+    private boolean isGroupMode() {
+        return worldConfiguration.driverGroups > 0;
+    }
+
+    private int getExpectedDriverUpdates() {
+        return isGroupMode() ? driverGroups.size() : snapshots.getCurrent().getVehiclesCount();
+    }
+
     private void broadcastWorldSnapshot() {
-        for (ActorRef driver : currentSnapshot.getAllDrivers()) {
-            driver.tell(new SurroundingWorldSnapshot(currentSnapshot.getCarAheadDistance(driver), null, getLights(currentSnapshot.getDriverState(driver).getStreet()),  getLights(previousSnapshot.getDriverState(driver).getStreet())), getSelf());
+        WorldSnapshot currentSnapshot = snapshots.getCurrent();
+        WorldSnapshot previousSnapshot = snapshots.getPrevious();
+        if (tickMetrics != null) {
+            tickMetrics.tickStarted(currentSnapshot.getVehiclesCount());
         }
+        // the controllers work on the same snapshot as the drivers, so they are asked first to overlap with the driver broadcast
         trafficLightsAgent.tell(currentSnapshot.getIntersectionSurrouding(false), getSelf());
         trafficGeneratorAgent.tell(currentSnapshot.getIntersectionSurrouding(false), getSelf());
-        statisticsCollectorAgent.tell(getStatsUpdate(), getSelf());
+        int messagesSent = 2;
+        if (isGroupMode()) {
+            messagesSent += broadcastDriverGroupFrames((ArrayWorldSnapshot) currentSnapshot, (ArrayWorldSnapshot) previousSnapshot);
+        } else if (worldConfiguration.sharedTickFrames) {
+            messagesSent += broadcastTickFrame((ArrayWorldSnapshot) currentSnapshot);
+        } else {
+            for (ActorRef driver : currentSnapshot.getAllDrivers()) {
+                driver.tell(new SurroundingWorldSnapshot(currentSnapshot.getCarAheadDistance(driver), null, getLights(currentSnapshot.getDriverState(driver).getStreet()),  getLights(previousSnapshot.getDriverState(driver).getStreet())), getSelf());
+                messagesSent++;
+            }
+        }
+        if (collisionDetectionStage == null) {
+            statisticsCollectorAgent.tell(statsDelta.publish(iterationStatus.getDetectedCollisionsCounter()), getSelf());
+            messagesSent++;
+            if (journalWriter != null) {
+                journalWriter.write(journalRecorder.publish(iterationStatus.getIterationNo(), iterationStatus.getDetectedCollisionsCounter()));
+            }
+        }
+        if (tickMetrics != null) {
+            tickMetrics.broadcastFinished(messagesSent);
+        }
     }
 
-    private boolean detectCollisions() {
-        for (ActorRef horizontalDriver : currentSnapshot.getDriversOnStreet(Street.WEST_EAST)) {
-            for (ActorRef verticalDriver : currentSnapshot.getDriversOnStreet(Street.NORTH_SOUTH)) {
-                if (areBothOnIntersection(horizontalDriver, verticalDriver)) {
-                    log.info("Collision detected between " + horizontalDriver + " and " + verticalDriver);
-                    return true;
+    private int broadcastDriverGroupFrames(ArrayWorldSnapshot currentSnapshot, ArrayWorldSnapshot previousSnapshot) {
+        int groupsCount = driverGroups.size();
+        int[] groupSizes = new int[groupsCount];
+        for (int id = 0; id < currentSnapshot.getVehicleIdsBound(); id++) {
+            if (currentSnapshot.isPresent(id)) {
+                groupSizes[id % groupsCount]++;
+            }
+        }
+        for (int group = 0; group < groupsCount; group++) {
+            int[] vehicleIds = new int[groupSizes[group]];
+            int[] carAheadDistances = new int[groupSizes[group]];
+            TrafficLightColor[] lights = new TrafficLightColor[groupSizes[group]];
+            TrafficLightColor[] previousLights = new TrafficLightColor[groupSizes[group]];
+            int index = 0;
+            for (int id = group; id < currentSnapshot.getVehicleIdsBound(); id += groupsCount) {
+                if (currentSnapshot.isPresent(id)) {
+                    vehicleIds[index] = id;
+                    carAheadDistances[index] = currentSnapshot.getCarAheadDistance(id);
+                    lights[index] = getLights(currentSnapshot.getStreet(id));
+                    previousLights[index] = getLights(previousSnapshot.getStreet(id));
+                    index++;
                 }
             }
+            driverGroups.get(group).tell(new DriverGroupFrame(vehicleIds, carAheadDistances, lights, previousLights, newVehiclesPerGroup.get(group)), getSelf());
+            newVehiclesPerGroup.set(group, new HashMap<>());
         }
-        return false;
+        return groupsCount;
     }
 
-    private boolean areBothOnIntersection(ActorRef horizontalDriver, ActorRef verticalDriver) {
-        return isOnIntersection(horizontalDriver) && isOnIntersection(verticalDriver);
+    /**
+     * Pipelined mode: only narrows the vehicles down to those on the intersection, which needs both snapshots,
+     * and leaves the pairing, the collision reports and the publishing of the tick to the stage.
+     */
+    private void handOffCollisionDetection(boolean publishStats) {
+        if (isGroupMode()) {
+            List<Integer> westEastVehicles = new ArrayList<>();
+            List<Integer> northSouthVehicles = new ArrayList<>();
+            collectVehiclesOnIntersection(westEastVehicles, northSouthVehicles);
+            publishTickOutcome(westEastVehicles, northSouthVehicles, publishStats);
+        } else {
+            WorldSnapshot currentSnapshot = snapshots.getCurrent();
+            publishTickOutcome(getDriversOnIntersection(currentSnapshot, Street.WEST_EAST),
+                    getDriversOnIntersection(currentSnapshot, Street.NORTH_SOUTH), publishStats);
+        }
     }
 
-    private boolean isOnIntersection(ActorRef driver) {
-        DriverState currentState = currentSnapshot.getDriverState(driver);
-        DriverState previousState = previousSnapshot.getDriverState(driver);
-        DriverConfiguration configuration = currentSnapshot.getDriverConfiguration(driver);
-        return (previousState.getPositionOnStreet()+configuration.carLength-1 > -worldConfiguration.streetWidth)
-                && (currentState.getPositionOnStreet() < 1);
+    private <T> void publishTickOutcome(List<T> westEastVehicles, List<T> northSouthVehicles, boolean publishStats) {
+        StatsUpdate statsUpdate = publishStats ? statsDelta.publish(0) : null;
+        JournalFrame journalFrame = publishStats && journalRecorder != null ? journalRecorder.publish(iterationStatus.getIterationNo(), 0) : null;
+        collisionDetectionStage.tell(new TickOutcome<>(iterationStatus.getIterationNo(), westEastVehicles, northSouthVehicles,
+                statsUpdate, journalFrame), getSelf());
+        if (tickMetrics != null) {
+            tickMetrics.messageSent();
+        }
+    }
+
+    private void resetReusedDrivers(TrafficGenerationMessage message) {
+        for (Street street : message.newTraffic.keySet()) {
+            message.newTraffic.get(street).filter(driverWithConfig -> driverWithConfig.reused).ifPresent(driverWithConfig -> {
+                driverWithConfig.driver.tell(new DriverReset(driverWithConfig.configuration), getSelf());
+                if (tickMetrics != null) {
+                    tickMetrics.messageSent();
+                }
+            });
+        }
     }
 
-    private StatsUpdate getStatsUpdate() {
-        return new StatsUpdate(iterationStatus.getDetectedCollisionsCounter(), previousSnapshot.copy(), currentSnapshot.copy());
+    private void assignVehicleIds(TrafficGenerationMessage message) {
+        ArrayWorldSnapshot currentSnapshot = (ArrayWorldSnapshot) snapshots.getCurrent();
+        for (Street street : message.newTraffic.keySet()) {
+            message.newTraffic.get(street).ifPresent(driverWithConfig -> {
+                driverWithConfig.driver.tell(new VehicleIdAssignment(currentSnapshot.getVehicleId(driverWithConfig.driver), street), getSelf());
+                if (tickMetrics != null) {
+                    tickMetrics.messageSent();
+                }
+            });
+        }
+    }
+
+    private int broadcastTickFrame(ArrayWorldSnapshot currentSnapshot) {
+        TrafficLightColor[] lights = new TrafficLightColor[Street.values().length];
+        TrafficLightColor[] previousLights = new TrafficLightColor[Street.values().length];
+        for (Street street : Street.values()) {
+            lights[street.ordinal()] = getLights(street);
+            previousLights[street.ordinal()] = getLights(street);
+        }
+        int[] carAheadDistances = new int[currentSnapshot.getVehicleIdsBound()];
+        for (int id = 0; id < currentSnapshot.getVehicleIdsBound(); id++) {
+            if (currentSnapshot.isPresent(id)) {
+                carAheadDistances[id] = currentSnapshot.getCarAheadDistance(id);
+            }
+        }
+        TickFrame frame = new TickFrame(lights, previousLights, carAheadDistances);
+        int messagesSent = 0;
+        for (int id = 0; id < currentSnapshot.getVehicleIdsBound(); id++) {
+            if (currentSnapshot.isPresent(id)) {
+                currentSnapshot.getDriver(id).tell(frame, getSelf());
+                messagesSent++;
+            }
+        }
+        return messagesSent;
+    }
+
+    private List<? extends CollisionEvent<?>> detectCollisions() {
+        if (isGroupMode()) {
+            return detectVehicleCollisions();
+        }
+        WorldSnapshot currentSnapshot = snapshots.getCurrent();
+        return collisionDetector.detectCollisions(iterationStatus.getIterationNo(),
+                getDriversOnIntersection(currentSnapshot, Street.WEST_EAST),
+                getDriversOnIntersection(currentSnapshot, Street.NORTH_SOUTH));
+    }
+
+    private List<ActorRef> getDriversOnIntersection(WorldSnapshot currentSnapshot, Street street) {
+        List<ActorRef> drivers = new ArrayList<>();
+        for (ActorRef driver : currentSnapshot.getDriversOnStreet(street)) {
+            if (isOnIntersection(driver)) {
+                drivers.add(driver);
+            }
+        }
+        return drivers;
+    }
+
+    private List<CollisionEvent<Integer>> detectVehicleCollisions() {
+        List<Integer> westEastVehicles = new ArrayList<>();
+        List<Integer> northSouthVehicles = new ArrayList<>();
+        collectVehiclesOnIntersection(westEastVehicles, northSouthVehicles);
+        return collisionDetector.detectCollisions(iterationStatus.getIterationNo(), westEastVehicles, northSouthVehicles);
+    }
+
+    private void collectVehiclesOnIntersection(List<Integer> westEastVehicles, List<Integer> northSouthVehicles) {
+        ArrayWorldSnapshot currentSnapshot = (ArrayWorldSnapshot) snapshots.getCurrent();
+        ArrayWorldSnapshot previousSnapshot = (ArrayWorldSnapshot) snapshots.getPrevious();
+        for (int id = 0; id < currentSnapshot.getVehicleIdsBound(); id++) {
+            if (currentSnapshot.isPresent(id)
+                    && collisionDetector.isOnIntersection(previousSnapshot.getPosition(id), currentSnapshot.getPosition(id), currentSnapshot.getConfiguration(id).carLength)) {
+                if (currentSnapshot.getStreet(id) == Street.WEST_EAST) {
+                    westEastVehicles.add(id);
+                } else {
+                    northSouthVehicles.add(id);
+                }
+            }
+        }
+    }
+
+    private boolean isOnIntersection(ActorRef driver) {
+        DriverState currentState = snapshots.getCurrent().getDriverState(driver);
+        DriverState previousState = snapshots.getPrevious().getDriverState(driver);
+        DriverConfiguration configuration = snapshots.getCurrent().getDriverConfiguration(driver);
+        return collisionDetector.isOnIntersection(previousState.getPositionOnStreet(), currentState.getPositionOnStreet(), configuration.carLength);
     }
 
     private TrafficLightColor getLights(Street street) {
-        return currentSnapshot.getLightColorOnStreet(street);
+        return snapshots.getCurrent().getLightColorOnStreet(street);
     }
 }
@@ -5,41 +5,66 @@ import akka.actor.Props;
 import akka.actor.UntypedActor;
 import akka.event.Logging;
 import akka.event.LoggingAdapter;
-import akka.japi.Creator;
 import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.logic.TrafficGenerationLogic;
+import pl.edu.agh.messages.DriverRelease;
 import pl.edu.agh.messages.IntersectionSurrounding;
 import pl.edu.agh.messages.TrafficGenerationMessage;
-import pl.edu.agh.model.DriverState;
 import pl.edu.agh.model.DriverWithConfiguration;
 import pl.edu.agh.model.Street;
+import pl.edu.agh.trace.TrafficTraceReader;
+import pl.edu.agh.trace.TrafficTraceWriter;
 
 import java.util.*;
 
-import static java.lang.Math.*;
-import static java.lang.Math.min;
 import static pl.edu.agh.model.Street.NORTH_SOUTH;
 import static pl.edu.agh.model.Street.WEST_EAST;
 
 public class TrafficGenerator extends UntypedActor {
-    private static final Integer DEFAULT_CAR_LENGTH = 2;
-    private final Random random = new Random();
+    private static final int DRIVER_POOL_SHRINK_INTERVAL = 1000;
     private final LoggingAdapter log = Logging.getLogger(getContext().system(), this);
-    private final Map<Street, Float> newCarProbability;
-    private final DriverConfiguration baseConfiguration;
-    private final Integer initialDistanceToCrossing;
+    private final TrafficGenerationLogic logic;
+    private final Boolean spawnDriverActors;
+    private final DriverPool driverPool;
+    private int generatedTicks = 0;
+    private int iterationNo = 0;
 
     public TrafficGenerator(Map<Street, Float> newCarProbability,
                             DriverConfiguration baseConfiguration,
-                            Integer initialDistanceToCrossing) {
-        this.newCarProbability = newCarProbability;
-        this.baseConfiguration = baseConfiguration;
-        this.initialDistanceToCrossing = initialDistanceToCrossing;
+                            Integer initialDistanceToCrossing,
+                            Long randomSeed,
+                            Boolean spawnDriverActors,
+                            Integer driverPoolSize,
+                            String trafficTraceFile,
+                            String trafficTraceRecordFile) {
+        this.logic = new TrafficGenerationLogic(newCarProbability, baseConfiguration, initialDistanceToCrossing, randomSeed,
+                trafficTraceFile == null ? null : new TrafficTraceReader(trafficTraceFile),
+                trafficTraceRecordFile == null ? null : new TrafficTraceWriter(trafficTraceRecordFile));
+        this.spawnDriverActors = spawnDriverActors;
+        this.driverPool = spawnDriverActors && driverPoolSize > 0 ? new DriverPool(getContext(), driverPoolSize, baseConfiguration) : null;
     }
 
     @Override
     public void onReceive(Object message) throws Exception {
         if (message instanceof IntersectionSurrounding) {
             getSender().tell(generateTraffic((IntersectionSurrounding)message), getSelf());
+            if (driverPool != null && ++generatedTicks % DRIVER_POOL_SHRINK_INTERVAL == 0) {
+                driverPool.shrink();
+                log.info("Driver pool: " + driverPool.summary());
+            }
+        } else if (message instanceof DriverRelease) {
+            driverPool.release(((DriverRelease) message).driver);
+        }
+    }
+
+    @Override
+    public void postStop() {
+        if (logic.isReplayingTrace()) {
+            log.info("Traffic trace backlog: " + logic.traceBacklogSummary());
+        }
+        logic.close();
+        if (driverPool != null) {
+            log.info("Driver pool: " + driverPool.summary());
         }
     }
 
@@ -48,70 +73,47 @@ public class TrafficGenerator extends UntypedActor {
 
         if (message.isInitialMessage) {
             log.info("Received initial message");
-            newTraffic.put(NORTH_SOUTH, generateDriverWithConfiguration());
-            newTraffic.put(WEST_EAST, generateDriverWithConfiguration());
+            newTraffic.put(NORTH_SOUTH, createDriver(logic.generateInitialTraffic(NORTH_SOUTH)));
+            newTraffic.put(WEST_EAST, createDriver(logic.generateInitialTraffic(WEST_EAST)));
             return new TrafficGenerationMessage(newTraffic, true);
         }
         else {
-            newTraffic.put(NORTH_SOUTH, generateTraffic(isGenerationPossible(message, NORTH_SOUTH), NORTH_SOUTH));
-            newTraffic.put(WEST_EAST, generateTraffic(isGenerationPossible(message, WEST_EAST), WEST_EAST));
+            iterationNo++;
+            newTraffic.put(NORTH_SOUTH, createDriver(logic.generateTraffic(isGenerationPossible(message, NORTH_SOUTH), NORTH_SOUTH, iterationNo)));
+            newTraffic.put(WEST_EAST, createDriver(logic.generateTraffic(isGenerationPossible(message, WEST_EAST), WEST_EAST, iterationNo)));
             return new TrafficGenerationMessage(newTraffic, false);
         }
 
     }
 
     private boolean isGenerationPossible(IntersectionSurrounding intersectionSurrounding, Street street) {
-        Set<DriverState> drivers = intersectionSurrounding.streetToDrivers.get(street);
-        return !isAnyOnStreetBeginning(drivers);
+        return logic.isGenerationPossible(intersectionSurrounding.occupancy, street);
     }
 
-    private boolean isAnyOnStreetBeginning(Set<DriverState> drivers) {
-        for (DriverState driver : drivers) {
-            if (isOnStreetBeginning(driver)) {
-                return true;
-            }
+    private Optional<DriverWithConfiguration> createDriver(Optional<DriverConfiguration> driverConfiguration) {
+        if (!driverConfiguration.isPresent()) {
+            return Optional.empty();
         }
-        return false;
-    }
-
-    private boolean isOnStreetBeginning(DriverState driver) {
-        return initialDistanceToCrossing >= driver.getPositionOnStreet() + DEFAULT_CAR_LENGTH;
-    }
-
-    private Optional<DriverWithConfiguration> generateTraffic(boolean isGenerationPossible, Street street) {
-        if (isGenerationPossible && (random() < newCarProbability.get(street))) {
-            log.info("Generating car on street " + street);
-            return generateDriverWithConfiguration();
+        log.info("Generated driver with configuration " + driverConfiguration.get());
+        if (driverPool != null) {
+            return Optional.of(driverPool.acquire(driverConfiguration.get()));
         }
-        return Optional.empty();
-    }
-
-    private Optional<DriverWithConfiguration> generateDriverWithConfiguration() {
-        DriverConfiguration driverConfiguration = generateRandomizedConfiguration(initialDistanceToCrossing);
-        log.info("Generated driver with configuration " + driverConfiguration);
-        ActorRef driver = this.getContext().actorOf(Driver.props(driverConfiguration));
-        return Optional.of(new DriverWithConfiguration(driver, driverConfiguration));
-    }
-
-    private DriverConfiguration generateRandomizedConfiguration(Integer initialDistanceToIntersection) {
-        return new DriverConfiguration.Builder()
-                .acceleration(max(1, baseConfiguration.acceleration + (int) random.nextGaussian()))
-                .carLength(max(1, baseConfiguration.carLength + (int) random.nextGaussian()))
-                .initialDistanceToIntersection(initialDistanceToIntersection)
-                .carWidth(baseConfiguration.carWidth)
-                .maxVelocity(max(1, baseConfiguration.maxVelocity + (int) random.nextGaussian()))
-                .yellowLightGoProbability((float)max(0, min(1, baseConfiguration.yellowLightGoProbability + random.nextGaussian()/10)))
-                .build();
+        ActorRef driver = null;
+        if (spawnDriverActors) {
+            driver = this.getContext().actorOf(Driver.props(driverConfiguration.get()));
+        }
+        return Optional.of(new DriverWithConfiguration(driver, driverConfiguration.get()));
     }
 
     public static Props props(final Map<Street, Float> newCarProbability,
                               final DriverConfiguration baseConfiguration,
-                              final Integer initialDistanceToCrossing) {
-        return Props.create(new Creator<TrafficGenerator>() {
-            @Override
-            public TrafficGenerator create() throws Exception {
-                return new TrafficGenerator(newCarProbability, baseConfiguration, initialDistanceToCrossing);
-            }
-        });
+                              final Integer initialDistanceToCrossing,
+                              final Long randomSeed,
+                              final Boolean spawnDriverActors,
+                              final Integer driverPoolSize,
+                              final String trafficTraceFile,
+                              final String trafficTraceRecordFile) {
+        return Props.create(TrafficGenerator.class, newCarProbability, baseConfiguration, initialDistanceToCrossing, randomSeed,
+                spawnDriverActors, driverPoolSize, trafficTraceFile, trafficTraceRecordFile);
     }
 }
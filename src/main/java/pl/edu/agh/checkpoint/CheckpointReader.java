@@ -0,0 +1,113 @@
+package pl.edu.agh.checkpoint;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.SimulationStatsState;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficGenerationState;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.model.TrafficLightsState;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads a checkpoint file. Layout, all big-endian inside a gzip stream:
+ * <pre>
+ * int magic, byte version, int iterationNo,
+ * lights:     utf controller, byte color per street, int greenSince, int yellowSince, byte n, n x int counter,
+ * generator:  long masterSeed, long generatedVehicles, long randomDraws,
+ * statistics: int iterations, int collisions, float velocity, int cars, float crossings, float waiting,
+ *             per street (float greenDuration, int greenPeriods), int greenSince,
+ * int vehicles, vehicles x (byte street, driver configuration, int velocity, int distance,
+ *                           boolean yellowGo, boolean slowDown, long randomDraws)
+ * </pre>
+ */
+public final class CheckpointReader {
+    private static final Street[] STREETS = Street.values();
+    private static final TrafficLightColor[] COLORS = TrafficLightColor.values();
+
+    private CheckpointReader() {
+    }
+
+    public static SimulationCheckpoint read(String filename) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Paths.get(filename)))))) {
+            return read(input, filename);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read checkpoint " + filename, e);
+        }
+    }
+
+    /**
+     * Reads the uncompressed checkpoint, {@code source} names it in errors.
+     */
+    static SimulationCheckpoint read(DataInputStream input, String source) throws IOException {
+        if (input.readInt() != CheckpointWriter.MAGIC || input.readByte() != CheckpointWriter.VERSION) {
+            throw new IllegalStateException(source + " is not a simulation checkpoint");
+        }
+        int iterationNo = input.readInt();
+        TrafficLightsState trafficLights = readTrafficLights(input);
+        TrafficGenerationState trafficGeneration = new TrafficGenerationState(input.readLong(), input.readLong(), input.readLong());
+        SimulationStatsState statistics = readStatistics(input);
+        int vehiclesCount = input.readInt();
+        Street[] streets = new Street[vehiclesCount];
+        DriverLogicState[] vehicles = new DriverLogicState[vehiclesCount];
+        for (int i = 0; i < vehiclesCount; i++) {
+            streets[i] = STREETS[input.readByte()];
+            vehicles[i] = readDriver(input);
+        }
+        return new SimulationCheckpoint(iterationNo, trafficLights, trafficGeneration, statistics, streets, vehicles);
+    }
+
+    private static TrafficLightsState readTrafficLights(DataInputStream input) throws IOException {
+        String controller = input.readUTF();
+        Map<Street, TrafficLightColor> lights = new EnumMap<>(Street.class);
+        for (Street street : STREETS) {
+            lights.put(street, COLORS[input.readByte()]);
+        }
+        int greenSince = input.readInt();
+        int yellowSince = input.readInt();
+        int[] counters = new int[input.readByte()];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = input.readInt();
+        }
+        return new TrafficLightsState(controller, lights, greenSince, yellowSince, counters);
+    }
+
+    private static SimulationStatsState readStatistics(DataInputStream input) throws IOException {
+        int iterations = input.readInt();
+        int collisions = input.readInt();
+        float velocity = input.readFloat();
+        int cars = input.readInt();
+        float crossings = input.readFloat();
+        float waiting = input.readFloat();
+        float[] greenDurations = new float[STREETS.length];
+        int[] greenPeriods = new int[STREETS.length];
+        for (Street street : STREETS) {
+            greenDurations[street.ordinal()] = input.readFloat();
+            greenPeriods[street.ordinal()] = input.readInt();
+        }
+        return new SimulationStatsState(iterations, collisions, velocity, cars, crossings, waiting,
+                greenDurations, greenPeriods, input.readInt());
+    }
+
+    private static DriverLogicState readDriver(DataInputStream input) throws IOException {
+        DriverConfiguration configuration = new DriverConfiguration.Builder()
+                .maxVelocity(input.readInt())
+                .acceleration(input.readInt())
+                .carLength(input.readInt())
+                .carWidth(input.readInt())
+                .initialDistanceToIntersection(input.readInt())
+                .yellowLightGoProbability(input.readFloat())
+                .randomSeed(input.readBoolean() ? input.readLong() : null)
+                .build();
+        return new DriverLogicState(configuration, input.readInt(), input.readInt(),
+                input.readBoolean(), input.readBoolean(), input.readLong());
+    }
+}
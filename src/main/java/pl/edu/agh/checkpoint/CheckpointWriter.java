@@ -0,0 +1,113 @@
+package pl.edu.agh.checkpoint;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.SimulationStatsState;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficGenerationState;
+import pl.edu.agh.model.TrafficLightsState;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a checkpoint to a gzipped binary file, see {@link CheckpointReader} for the layout. The file
+ * is written next to the target and moved over it, so a crash never leaves a torn checkpoint.
+ */
+public final class CheckpointWriter {
+    static final int MAGIC = 0x54534331;
+    static final byte VERSION = 1;
+
+    private CheckpointWriter() {
+    }
+
+    public static void write(String filename, SimulationCheckpoint checkpoint) {
+        Path target = Paths.get(filename).toAbsolutePath();
+        Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary))))) {
+            write(output, checkpoint);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write checkpoint " + filename, e);
+        }
+        try {
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not replace checkpoint " + filename, e);
+        }
+    }
+
+    /**
+     * Writes the uncompressed checkpoint.
+     */
+    static void write(DataOutputStream output, SimulationCheckpoint checkpoint) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+        output.writeInt(checkpoint.iterationNo);
+        writeTrafficLights(output, checkpoint.trafficLights);
+        writeTrafficGeneration(output, checkpoint.trafficGeneration);
+        writeStatistics(output, checkpoint.statistics);
+        output.writeInt(checkpoint.vehicles.length);
+        for (int i = 0; i < checkpoint.vehicles.length; i++) {
+            output.writeByte(checkpoint.vehicleStreets[i].ordinal());
+            writeDriver(output, checkpoint.vehicles[i]);
+        }
+    }
+
+    private static void writeTrafficLights(DataOutputStream output, TrafficLightsState state) throws IOException {
+        output.writeUTF(state.controller);
+        for (Street street : Street.values()) {
+            output.writeByte(state.streetToLightColor.get(street).ordinal());
+        }
+        output.writeInt(state.currentLightGreenSince);
+        output.writeInt(state.currentLightYellowSince);
+        output.writeByte(state.controllerCounters.length);
+        for (int counter : state.controllerCounters) {
+            output.writeInt(counter);
+        }
+    }
+
+    private static void writeTrafficGeneration(DataOutputStream output, TrafficGenerationState state) throws IOException {
+        output.writeLong(state.masterSeed);
+        output.writeLong(state.generatedVehicles);
+        output.writeLong(state.randomDraws);
+    }
+
+    private static void writeStatistics(DataOutputStream output, SimulationStatsState state) throws IOException {
+        output.writeInt(state.numberOfIterations);
+        output.writeInt(state.totalNumberOfCollisions);
+        output.writeFloat(state.totalVelocity);
+        output.writeInt(state.totalCars);
+        output.writeFloat(state.totalCrossings);
+        output.writeFloat(state.totalNumberOfWaitingCars);
+        for (Street street : Street.values()) {
+            output.writeFloat(state.totalGreenLightDurations[street.ordinal()]);
+            output.writeInt(state.numberOfGreenLightPeriods[street.ordinal()]);
+        }
+        output.writeInt(state.currentLightGreenSince);
+    }
+
+    private static void writeDriver(DataOutputStream output, DriverLogicState state) throws IOException {
+        DriverConfiguration configuration = state.configuration;
+        output.writeInt(configuration.maxVelocity);
+        output.writeInt(configuration.acceleration);
+        output.writeInt(configuration.carLength);
+        output.writeInt(configuration.carWidth);
+        output.writeInt(configuration.initialDistanceToIntersection);
+        output.writeFloat(configuration.yellowLightGoProbability);
+        output.writeBoolean(configuration.randomSeed != null);
+        if (configuration.randomSeed != null) {
+            output.writeLong(configuration.randomSeed);
+        }
+        output.writeInt(state.velocity);
+        output.writeInt(state.distanceToIntersection);
+        output.writeBoolean(state.decidedForYellowGo);
+        output.writeBoolean(state.decidedToSlowDown);
+        output.writeLong(state.randomDraws);
+    }
+}
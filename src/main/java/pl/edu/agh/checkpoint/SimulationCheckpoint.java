@@ -0,0 +1,35 @@
+package pl.edu.agh.checkpoint;
+
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.SimulationStatsState;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficGenerationState;
+import pl.edu.agh.model.TrafficLightsState;
+
+/**
+ * Full state of a synchronous simulation after {@code iterationNo} ticks. The world snapshot is
+ * not stored separately: between ticks it holds exactly the drivers' positions and velocities
+ * and the lights of the controller.
+ */
+public final class SimulationCheckpoint {
+    public final int iterationNo;
+    public final TrafficLightsState trafficLights;
+    public final TrafficGenerationState trafficGeneration;
+    public final SimulationStatsState statistics;
+    public final Street[] vehicleStreets;
+    public final DriverLogicState[] vehicles;
+
+    public SimulationCheckpoint(int iterationNo,
+                                TrafficLightsState trafficLights,
+                                TrafficGenerationState trafficGeneration,
+                                SimulationStatsState statistics,
+                                Street[] vehicleStreets,
+                                DriverLogicState[] vehicles) {
+        this.iterationNo = iterationNo;
+        this.trafficLights = trafficLights;
+        this.trafficGeneration = trafficGeneration;
+        this.statistics = statistics;
+        this.vehicleStreets = vehicleStreets;
+        this.vehicles = vehicles;
+    }
+}
@@ -0,0 +1,117 @@
+package pl.edu.agh.configuration;
+
+import com.google.common.collect.ImmutableMap;
+import pl.edu.agh.model.Street;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+public final class ConfigurationLoader {
+    public static final String BASE_DRIVER_CONFIGURATION_FILENAME = "/drivers.properties";
+    public static final String WORLD_CONFIGURATION_FILENAME = "/world.properties";
+    public static final String TRAFFIC_LIGHTS_FILENAME = "/lights.properties";
+
+    private ConfigurationLoader() {
+    }
+
+    public static DriverConfiguration loadBaseDriverConfiguration(Properties prop) {
+        DriverConfiguration configuration = new DriverConfiguration.Builder()
+                .acceleration(loadInt(prop, "acceleration"))
+                .carLength(loadInt(prop, "carLength"))
+                .carWidth(loadInt(prop, "carWidth"))
+                .maxVelocity(loadInt(prop, "maxVelocity"))
+                .yellowLightGoProbability(loadFloat(prop, "yellowLightGoProbability"))
+                .build();
+        return configuration;
+    }
+
+    public static WorldConfiguration loadWorldConfiguration(Properties prop) {
+        WorldConfiguration configuration = new WorldConfiguration.Builder()
+                .monitoredDistanceFromCrossing(loadInt(prop, "monitoredDistanceFromCrossing"))
+                .newCarGenerationProbability(ImmutableMap.<Street, Float>builder()
+                        .put(Street.WEST_EAST, loadFloat(prop, "westEastGenerationProbability"))
+                        .put(Street.NORTH_SOUTH, loadFloat(prop, "northSouthGenerationProbability"))
+                        .build())
+                .streetWidth(loadInt(prop, "streetWidth"))
+                .useSimpleLights(loadBoolean(prop, "useSimpleLights"))
+                .simulationIterations(loadInt(prop, "simulationIterations"))
+                .useArrayWorldSnapshot(loadBoolean(prop, "useArrayWorldSnapshot"))
+                .useSynchronousEngine(loadBoolean(prop, "useSynchronousEngine"))
+                .randomSeed(loadOptionalLong(prop, "randomSeed"))
+                .driverGroups(loadInt(prop, "driverGroups"))
+                .statisticsHistoryFile(loadOptionalString(prop, "statisticsHistoryFile"))
+                .statisticsSeriesFile(loadOptionalString(prop, "statisticsSeriesFile"))
+                .journalFile(loadOptionalString(prop, "journalFile"))
+                .parameterSweepFile(loadOptionalString(prop, "parameterSweepFile"))
+                .networkRows(loadInt(prop, "networkRows"))
+                .networkColumns(loadInt(prop, "networkColumns"))
+                .networkBlockLength(loadInt(prop, "networkBlockLength"))
+                .networkPartitions(loadInt(prop, "networkPartitions"))
+                .networkRegionProcesses(loadInt(prop, "networkRegionProcesses"))
+                .checkpointFile(loadOptionalString(prop, "checkpointFile"))
+                .checkpointInterval(loadInt(prop, "checkpointInterval"))
+                .restoreCheckpointFile(loadOptionalString(prop, "restoreCheckpointFile"))
+                .tickMetrics(loadBoolean(prop, "tickMetrics"))
+                .tickMetricsLogInterval(loadInt(prop, "tickMetricsLogInterval"))
+                .pipelinedTicks(loadBoolean(prop, "pipelinedTicks"))
+                .sharedTickFrames(loadBoolean(prop, "sharedTickFrames"))
+                .driverPoolSize(loadInt(prop, "driverPoolSize"))
+                .convergenceRelativeTolerance(loadFloat(prop, "convergenceRelativeTolerance"))
+                .convergenceMinIterations(loadInt(prop, "convergenceMinIterations"))
+                .batchDriverKernel(loadBoolean(prop, "batchDriverKernel"))
+                .observerSampleInterval(loadInt(prop, "observerSampleInterval"))
+                .observerBufferSize(loadInt(prop, "observerBufferSize"))
+                .trafficTraceFile(loadOptionalString(prop, "trafficTraceFile"))
+                .trafficTraceRecordFile(loadOptionalString(prop, "trafficTraceRecordFile"))
+                .build();
+        return configuration;
+    }
+
+    public static TrafficLightsConfiguration loadTrafficLightsConfiguration(Properties prop) {
+        TrafficLightsConfiguration lightsConfiguration = new TrafficLightsConfiguration.Builder()
+                .counterLimitValue(loadInt(prop, "counterLimitValue"))
+                .longSupervisedDistance(loadInt(prop, "longSupervisedDistance"))
+                .shortSupervisedDistance(loadInt(prop, "shortSupervisedDistance"))
+                .shortSupervisedDistanceMaxCarsNo(loadInt(prop, "shortSupervisedDistanceMaxCarNo"))
+                .minimumGreenTime(loadInt(prop, "minimumGreenTime"))
+                .yellowLightDuration(loadInt(prop, "yellowLightDuration"))
+                .northSouthGreenLightDuration(loadInt(prop, "northSouthGreenLightDuration"))
+                .westEastGreenLightDuration(loadInt(prop, "westEastGreenLightDuration"))
+                .build();
+        return lightsConfiguration;
+    }
+
+    public static Properties loadPropertiesFile(String filename) {
+        try (InputStream inputStream = ConfigurationLoader.class.getResourceAsStream(filename)) {
+            Properties prop = new Properties();
+            prop.load(inputStream);
+            return prop;
+        } catch (IOException e) {
+
+        }
+        throw new IllegalStateException("Could not load properties file!");
+    }
+
+    private static Integer loadInt(Properties prop, String key) {
+        return Integer.parseInt(prop.getProperty(key));
+    }
+
+    private static Float loadFloat(Properties prop, String key) {
+        return Float.parseFloat(prop.getProperty(key));
+    }
+
+    private static Long loadOptionalLong(Properties prop, String key) {
+        String value = prop.getProperty(key);
+        return value == null || value.isEmpty() ? null : Long.parseLong(value);
+    }
+
+    private static String loadOptionalString(Properties prop, String key) {
+        String value = prop.getProperty(key);
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static Boolean loadBoolean(Properties prop, String key) {
+        return Boolean.parseBoolean(prop.getProperty(key));
+    }
+}
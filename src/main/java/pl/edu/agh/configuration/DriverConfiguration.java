@@ -1,14 +1,19 @@
 package pl.edu.agh.configuration;
 
+import java.io.Serializable;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 
-public class DriverConfiguration {
+public class DriverConfiguration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final Integer maxVelocity;
     public final Integer acceleration;
     public final Integer carLength;
     public final Integer carWidth;
     public final Integer initialDistanceToIntersection;
     public final Float yellowLightGoProbability;
+    public final Long randomSeed;
 
     public static class Builder {
         private Integer maxVelocity;
@@ -17,6 +22,7 @@ public class DriverConfiguration {
         private Integer carWidth;
         private Integer initialDistanceToIntersection;
         private Float yellowLightGoProbability;
+        private Long randomSeed;
 
         public Builder maxVelocity(Integer maxVelocity) {
             this.maxVelocity = maxVelocity;
@@ -48,6 +54,11 @@ public class DriverConfiguration {
             return this;
         }
 
+        public Builder randomSeed(Long randomSeed) {
+            this.randomSeed = randomSeed;
+            return this;
+        }
+
         public DriverConfiguration build() {
             return new DriverConfiguration(this);
         }
@@ -62,6 +73,7 @@ public class DriverConfiguration {
                 .add("carWidth", carWidth)
                 .add("initialDistanceToIntersection", initialDistanceToIntersection)
                 .add("yellowGoProbability", yellowLightGoProbability)
+                .add("randomSeed", randomSeed)
                 .toString();
     }
 
@@ -72,5 +84,6 @@ public class DriverConfiguration {
         carWidth = builder.carWidth;
         initialDistanceToIntersection = builder.initialDistanceToIntersection;
         yellowLightGoProbability = builder.yellowLightGoProbability;
+        randomSeed = builder.randomSeed;
     }
 }
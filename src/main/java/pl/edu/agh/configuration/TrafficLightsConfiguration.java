@@ -1,6 +1,10 @@
 package pl.edu.agh.configuration;
 
-public class TrafficLightsConfiguration {
+import java.io.Serializable;
+
+public class TrafficLightsConfiguration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final Integer counterLimitValue;
     public final Integer shortSupervisedDistance;
     public final Integer shortSupervisedDistanceMaxCarsNo;
@@ -2,14 +2,45 @@ package pl.edu.agh.configuration;
 
 import pl.edu.agh.model.Street;
 
+import java.io.Serializable;
 import java.util.Map;
 
-public class WorldConfiguration {
+public class WorldConfiguration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
     public final Integer monitoredDistanceFromCrossing;
     public final Integer streetWidth;
     public final Boolean useSimpleLights;
     public final Map<Street, Float> newCarGenerationProbability;
     public final Integer simulationIterations;
+    public final Boolean useArrayWorldSnapshot;
+    public final Boolean useSynchronousEngine;
+    public final Long randomSeed;
+    public final Integer driverGroups;
+    public final String statisticsHistoryFile;
+    public final String statisticsSeriesFile;
+    public final String journalFile;
+    public final String parameterSweepFile;
+    public final Integer networkRows;
+    public final Integer networkColumns;
+    public final Integer networkBlockLength;
+    public final Integer networkPartitions;
+    public final Integer networkRegionProcesses;
+    public final String checkpointFile;
+    public final Integer checkpointInterval;
+    public final String restoreCheckpointFile;
+    public final Boolean tickMetrics;
+    public final Integer tickMetricsLogInterval;
+    public final Boolean pipelinedTicks;
+    public final Boolean sharedTickFrames;
+    public final Integer driverPoolSize;
+    public final Float convergenceRelativeTolerance;
+    public final Integer convergenceMinIterations;
+    public final Boolean batchDriverKernel;
+    public final Integer observerSampleInterval;
+    public final Integer observerBufferSize;
+    public final String trafficTraceFile;
+    public final String trafficTraceRecordFile;
 
     public static class Builder {
         private Integer monitoredDistanceFromCrossing;
@@ -17,6 +48,34 @@ public class WorldConfiguration {
         private Boolean useSimpleLights;
         private Map<Street, Float> newCarGenerationProbability;
         private Integer simulationIterations;
+        private Boolean useArrayWorldSnapshot;
+        private Boolean useSynchronousEngine;
+        private Long randomSeed;
+        private Integer driverGroups;
+        private String statisticsHistoryFile;
+        private String statisticsSeriesFile;
+        private String journalFile;
+        private String parameterSweepFile;
+        private Integer networkRows;
+        private Integer networkColumns;
+        private Integer networkBlockLength;
+        private Integer networkPartitions;
+        private Integer networkRegionProcesses;
+        private String checkpointFile;
+        private Integer checkpointInterval;
+        private String restoreCheckpointFile;
+        private Boolean tickMetrics;
+        private Integer tickMetricsLogInterval;
+        private Boolean pipelinedTicks;
+        private Boolean sharedTickFrames;
+        private Integer driverPoolSize;
+        private Float convergenceRelativeTolerance;
+        private Integer convergenceMinIterations;
+        private Boolean batchDriverKernel;
+        private Integer observerSampleInterval;
+        private Integer observerBufferSize;
+        private String trafficTraceFile;
+        private String trafficTraceRecordFile;
 
         public Builder monitoredDistanceFromCrossing(Integer monitoredDistanceFromCrossing) {
             this.monitoredDistanceFromCrossing = monitoredDistanceFromCrossing;
@@ -43,6 +102,146 @@ public class WorldConfiguration {
             return this;
         }
 
+        public Builder useArrayWorldSnapshot(Boolean useArrayWorldSnapshot) {
+            this.useArrayWorldSnapshot = useArrayWorldSnapshot;
+            return this;
+        }
+
+        public Builder useSynchronousEngine(Boolean useSynchronousEngine) {
+            this.useSynchronousEngine = useSynchronousEngine;
+            return this;
+        }
+
+        public Builder randomSeed(Long randomSeed) {
+            this.randomSeed = randomSeed;
+            return this;
+        }
+
+        public Builder driverGroups(Integer driverGroups) {
+            this.driverGroups = driverGroups;
+            return this;
+        }
+
+        public Builder statisticsHistoryFile(String statisticsHistoryFile) {
+            this.statisticsHistoryFile = statisticsHistoryFile;
+            return this;
+        }
+
+        public Builder statisticsSeriesFile(String statisticsSeriesFile) {
+            this.statisticsSeriesFile = statisticsSeriesFile;
+            return this;
+        }
+
+        public Builder journalFile(String journalFile) {
+            this.journalFile = journalFile;
+            return this;
+        }
+
+        public Builder parameterSweepFile(String parameterSweepFile) {
+            this.parameterSweepFile = parameterSweepFile;
+            return this;
+        }
+
+        public Builder networkRows(Integer networkRows) {
+            this.networkRows = networkRows;
+            return this;
+        }
+
+        public Builder networkColumns(Integer networkColumns) {
+            this.networkColumns = networkColumns;
+            return this;
+        }
+
+        public Builder networkBlockLength(Integer networkBlockLength) {
+            this.networkBlockLength = networkBlockLength;
+            return this;
+        }
+
+        public Builder networkPartitions(Integer networkPartitions) {
+            this.networkPartitions = networkPartitions;
+            return this;
+        }
+
+        public Builder networkRegionProcesses(Integer networkRegionProcesses) {
+            this.networkRegionProcesses = networkRegionProcesses;
+            return this;
+        }
+
+        public Builder checkpointFile(String checkpointFile) {
+            this.checkpointFile = checkpointFile;
+            return this;
+        }
+
+        public Builder checkpointInterval(Integer checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        public Builder restoreCheckpointFile(String restoreCheckpointFile) {
+            this.restoreCheckpointFile = restoreCheckpointFile;
+            return this;
+        }
+
+        public Builder tickMetrics(Boolean tickMetrics) {
+            this.tickMetrics = tickMetrics;
+            return this;
+        }
+
+        public Builder tickMetricsLogInterval(Integer tickMetricsLogInterval) {
+            this.tickMetricsLogInterval = tickMetricsLogInterval;
+            return this;
+        }
+
+        public Builder pipelinedTicks(Boolean pipelinedTicks) {
+            this.pipelinedTicks = pipelinedTicks;
+            return this;
+        }
+
+        public Builder sharedTickFrames(Boolean sharedTickFrames) {
+            this.sharedTickFrames = sharedTickFrames;
+            return this;
+        }
+
+        public Builder driverPoolSize(Integer driverPoolSize) {
+            this.driverPoolSize = driverPoolSize;
+            return this;
+        }
+
+        public Builder convergenceRelativeTolerance(Float convergenceRelativeTolerance) {
+            this.convergenceRelativeTolerance = convergenceRelativeTolerance;
+            return this;
+        }
+
+        public Builder convergenceMinIterations(Integer convergenceMinIterations) {
+            this.convergenceMinIterations = convergenceMinIterations;
+            return this;
+        }
+
+        public Builder batchDriverKernel(Boolean batchDriverKernel) {
+            this.batchDriverKernel = batchDriverKernel;
+            return this;
+        }
+
+        public Builder observerSampleInterval(Integer observerSampleInterval) {
+            this.observerSampleInterval = observerSampleInterval;
+            return this;
+        }
+
+        public Builder observerBufferSize(Integer observerBufferSize) {
+            this.observerBufferSize = observerBufferSize;
+            return this;
+        }
+
+        public Builder trafficTraceFile(String trafficTraceFile) {
+            this.trafficTraceFile = trafficTraceFile;
+            return this;
+        }
+
+        public Builder trafficTraceRecordFile(String trafficTraceRecordFile) {
+            this.trafficTraceRecordFile = trafficTraceRecordFile;
+            return this;
+        }
+
         public WorldConfiguration build() {
             return new WorldConfiguration(this);
         }
@@ -55,6 +254,34 @@ public class WorldConfiguration {
         this.useSimpleLights = builder.useSimpleLights;
         this.newCarGenerationProbability = builder.newCarGenerationProbability;
         this.simulationIterations = builder.simulationIterations;
+        this.useArrayWorldSnapshot = builder.useArrayWorldSnapshot;
+        this.useSynchronousEngine = builder.useSynchronousEngine;
+        this.randomSeed = builder.randomSeed;
+        this.driverGroups = builder.driverGroups;
+        this.statisticsHistoryFile = builder.statisticsHistoryFile;
+        this.statisticsSeriesFile = builder.statisticsSeriesFile;
+        this.journalFile = builder.journalFile;
+        this.parameterSweepFile = builder.parameterSweepFile;
+        this.networkRows = builder.networkRows;
+        this.networkColumns = builder.networkColumns;
+        this.networkBlockLength = builder.networkBlockLength;
+        this.networkPartitions = builder.networkPartitions;
+        this.networkRegionProcesses = builder.networkRegionProcesses;
+        this.checkpointFile = builder.checkpointFile;
+        this.checkpointInterval = builder.checkpointInterval;
+        this.restoreCheckpointFile = builder.restoreCheckpointFile;
+        this.tickMetrics = builder.tickMetrics;
+        this.tickMetricsLogInterval = builder.tickMetricsLogInterval;
+        this.pipelinedTicks = builder.pipelinedTicks;
+        this.sharedTickFrames = builder.sharedTickFrames;
+        this.driverPoolSize = builder.driverPoolSize;
+        this.convergenceRelativeTolerance = builder.convergenceRelativeTolerance;
+        this.convergenceMinIterations = builder.convergenceMinIterations;
+        this.batchDriverKernel = builder.batchDriverKernel;
+        this.observerSampleInterval = builder.observerSampleInterval;
+        this.observerBufferSize = builder.observerBufferSize;
+        this.trafficTraceFile = builder.trafficTraceFile;
+        this.trafficTraceRecordFile = builder.trafficTraceRecordFile;
     }
 
 }
@@ -0,0 +1,253 @@
+package pl.edu.agh.engine;
+
+import pl.edu.agh.model.SimulationStats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static pl.edu.agh.configuration.ConfigurationLoader.loadBaseDriverConfiguration;
+import static pl.edu.agh.configuration.ConfigurationLoader.loadTrafficLightsConfiguration;
+import static pl.edu.agh.configuration.ConfigurationLoader.loadWorldConfiguration;
+
+/**
+ * Runs many synchronous simulations concurrently in this JVM, one per parameter point and seed.
+ * The sweep definition is a properties file:
+ * <ul>
+ * <li>{@code key=v1,v2,...} - the grid is the cartesian product of all such keys</li>
+ * <li>{@code point.N.key=value} - explicit points instead of a grid</li>
+ * <li>{@code seeds=s1,s2,...} - replication seeds, each point runs once per seed</li>
+ * <li>{@code resultsFile} and {@code threads} - output CSV and concurrency (capped at core count)</li>
+ * </ul>
+ * Keys may come from any of drivers, world or lights properties.
+ */
+public class ParameterSweep {
+    private static final String SEEDS_KEY = "seeds";
+    private static final String RESULTS_FILE_KEY = "resultsFile";
+    private static final String THREADS_KEY = "threads";
+    private static final String POINT_PREFIX = "point.";
+    private static final String DEFAULT_RESULTS_FILE = "sweep-results.csv";
+    private static final String RANDOM_SEED_KEY = "randomSeed";
+    private static final String[] PER_RUN_OUTPUT_KEYS = {"statisticsHistoryFile", "statisticsSeriesFile", "journalFile", "parameterSweepFile", "checkpointFile", "trafficTraceRecordFile"};
+
+    private final List<Properties> baseProperties;
+    private final List<String> parameterNames;
+    private final List<Map<String, String>> points;
+    private final List<String> seeds;
+    private final String resultsFile;
+    private final int threads;
+    private Consumer<String> progressListener = progress -> {};
+
+    public ParameterSweep(Properties driverProperties,
+                          Properties worldProperties,
+                          Properties lightsProperties,
+                          Properties sweepDefinition) {
+        this.baseProperties = Arrays.asList(driverProperties, worldProperties, lightsProperties);
+        this.seeds = splitValues(sweepDefinition.getProperty(SEEDS_KEY, worldProperties.getProperty(RANDOM_SEED_KEY, "")));
+        this.resultsFile = sweepDefinition.getProperty(RESULTS_FILE_KEY, DEFAULT_RESULTS_FILE);
+        int cores = Runtime.getRuntime().availableProcessors();
+        this.threads = Math.min(cores, Integer.parseInt(sweepDefinition.getProperty(THREADS_KEY, String.valueOf(cores))));
+        this.points = isExplicitPointsList(sweepDefinition) ? loadPoints(sweepDefinition) : expandGrid(sweepDefinition);
+        TreeSet<String> names = new TreeSet<>();
+        for (Map<String, String> point : points) {
+            names.addAll(point.keySet());
+        }
+        this.parameterNames = new ArrayList<>(names);
+    }
+
+    public static Properties loadSweepDefinition(String filename) {
+        try (InputStream inputStream = Files.newInputStream(Paths.get(filename))) {
+            Properties prop = new Properties();
+            prop.load(inputStream);
+            return prop;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load parameter sweep file " + filename, e);
+        }
+    }
+
+    /**
+     * Receives a progress line after every completed run.
+     */
+    public void setProgressListener(Consumer<String> progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    public void run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<SweepResult> completionService = new ExecutorCompletionService<>(executor);
+        int runs = 0;
+        for (Map<String, String> point : points) {
+            for (String seed : seeds) {
+                completionService.submit(() -> runSimulation(point, seed));
+                runs++;
+            }
+        }
+        long start = System.nanoTime();
+        try (Writer writer = new BufferedWriter(Files.newBufferedWriter(Paths.get(resultsFile), StandardCharsets.UTF_8))) {
+            writer.write(header());
+            writer.flush();
+            for (int completed = 1; completed <= runs; completed++) {
+                SweepResult result = completionService.take().get();
+                writer.write(result.toCsv(parameterNames));
+                writer.flush();
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+                progressListener.accept(String.format("Completed %d/%d runs in %.1f s (%.2f runs/s)",
+                        completed, runs, elapsedSeconds, completed / elapsedSeconds));
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write parameter sweep results to " + resultsFile, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation in parameter sweep failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SweepResult runSimulation(Map<String, String> point, String seed) {
+        List<Properties> properties = new ArrayList<>();
+        for (Properties base : baseProperties) {
+            Properties copy = new Properties();
+            copy.putAll(base);
+            properties.add(copy);
+        }
+        for (String key : PER_RUN_OUTPUT_KEYS) {
+            properties.get(1).remove(key);
+        }
+        properties.get(1).setProperty(RANDOM_SEED_KEY, seed);
+        for (Map.Entry<String, String> parameter : point.entrySet()) {
+            override(properties, parameter.getKey(), parameter.getValue());
+        }
+        long start = System.nanoTime();
+        SimulationStats stats = new SynchronousSimulation(
+                loadBaseDriverConfiguration(properties.get(0)),
+                loadTrafficLightsConfiguration(properties.get(2)),
+                loadWorldConfiguration(properties.get(1))).run();
+        return new SweepResult(point, seed, stats, (System.nanoTime() - start) / 1000000);
+    }
+
+    private void override(List<Properties> properties, String key, String value) {
+        for (Properties prop : properties) {
+            if (prop.containsKey(key)) {
+                prop.setProperty(key, value);
+                return;
+            }
+        }
+        throw new IllegalArgumentException("Unknown parameter in sweep definition: " + key);
+    }
+
+    private String header() {
+        StringBuilder header = new StringBuilder();
+        for (String name : parameterNames) {
+            header.append(name).append(',');
+        }
+        return header.append("seed,averageVelocity,totalNumberOfCollisions,averageNumberOfIntersectionCrossings,")
+                .append("averageNumberOfCarsWaitingOnRedOrYellow,averageGreenLightDurationOnNorthSouth,")
+                .append("averageGreenLightDurationOnWestEast,averageVelocityHalfWidth,")
+                .append("averageNumberOfIntersectionCrossingsHalfWidth,averageNumberOfCarsWaitingOnRedOrYellowHalfWidth,runMillis\n")
+                .toString();
+    }
+
+    private static boolean isExplicitPointsList(Properties sweepDefinition) {
+        for (String key : sweepDefinition.stringPropertyNames()) {
+            if (key.startsWith(POINT_PREFIX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<Map<String, String>> loadPoints(Properties sweepDefinition) {
+        SortedMap<Integer, Map<String, String>> points = new TreeMap<>();
+        for (String key : sweepDefinition.stringPropertyNames()) {
+            if (!key.startsWith(POINT_PREFIX)) {
+                continue;
+            }
+            String rest = key.substring(POINT_PREFIX.length());
+            int separator = rest.indexOf('.');
+            Integer pointNo = Integer.parseInt(rest.substring(0, separator));
+            points.computeIfAbsent(pointNo, n -> new TreeMap<>()).put(rest.substring(separator + 1), sweepDefinition.getProperty(key));
+        }
+        return new ArrayList<>(points.values());
+    }
+
+    private static List<Map<String, String>> expandGrid(Properties sweepDefinition) {
+        List<Map<String, String>> points = new ArrayList<>();
+        points.add(new LinkedHashMap<>());
+        for (String key : new TreeSet<>(sweepDefinition.stringPropertyNames())) {
+            if (key.equals(SEEDS_KEY) || key.equals(RESULTS_FILE_KEY) || key.equals(THREADS_KEY)) {
+                continue;
+            }
+            List<Map<String, String>> expanded = new ArrayList<>();
+            for (Map<String, String> point : points) {
+                for (String value : splitValues(sweepDefinition.getProperty(key))) {
+                    Map<String, String> next = new LinkedHashMap<>(point);
+                    next.put(key, value);
+                    expanded.add(next);
+                }
+            }
+            points = expanded;
+        }
+        return points;
+    }
+
+    private static List<String> splitValues(String values) {
+        List<String> result = new ArrayList<>();
+        for (String value : values.split(",")) {
+            result.add(value.trim());
+        }
+        return result.isEmpty() ? Collections.singletonList("") : result;
+    }
+
+    private static class SweepResult {
+        private final Map<String, String> point;
+        private final String seed;
+        private final SimulationStats stats;
+        private final long runMillis;
+
+        SweepResult(Map<String, String> point, String seed, SimulationStats stats, long runMillis) {
+            this.point = point;
+            this.seed = seed;
+            this.stats = stats;
+            this.runMillis = runMillis;
+        }
+
+        String toCsv(List<String> parameterNames) {
+            StringBuilder line = new StringBuilder();
+            for (String name : parameterNames) {
+                line.append(point.getOrDefault(name, "")).append(',');
+            }
+            return line.append(seed).append(',')
+                    .append(stats.averageVelocity).append(',')
+                    .append(stats.totalNumberOfCollisions).append(',')
+                    .append(stats.averageNumberOfIntersectionCrossings).append(',')
+                    .append(stats.averageNumberOfCarsWaitingOnRedOrYellow).append(',')
+                    .append(stats.averageGreenLightDurationOnNorthSouth).append(',')
+                    .append(stats.averageGreenLightDurationOnWestEast).append(',')
+                    .append(stats.averageVelocityHalfWidth).append(',')
+                    .append(stats.averageNumberOfIntersectionCrossingsHalfWidth).append(',')
+                    .append(stats.averageNumberOfCarsWaitingOnRedOrYellowHalfWidth).append(',')
+                    .append(runMillis).append('\n')
+                    .toString();
+        }
+    }
+}
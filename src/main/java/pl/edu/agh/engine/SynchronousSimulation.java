@@ -0,0 +1,381 @@
+package pl.edu.agh.engine;
+
+import com.google.common.collect.ImmutableMap;
+import pl.edu.agh.checkpoint.CheckpointReader;
+import pl.edu.agh.checkpoint.CheckpointWriter;
+import pl.edu.agh.checkpoint.SimulationCheckpoint;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.journal.JournalRecorder;
+import pl.edu.agh.journal.JournalWriter;
+import pl.edu.agh.logic.CollisionDetector;
+import pl.edu.agh.logic.DriverBatch;
+import pl.edu.agh.logic.DriverLogic;
+import pl.edu.agh.logic.SelfOrganizingTrafficLightsLogic;
+import pl.edu.agh.logic.SimpleTrafficLightsLogic;
+import pl.edu.agh.logic.SimulationStatsCalculator;
+import pl.edu.agh.logic.TrafficGenerationLogic;
+import pl.edu.agh.logic.TrafficLightsLogic;
+import pl.edu.agh.messages.CollisionEvent;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.messages.TrafficLightsUpdate;
+import pl.edu.agh.model.ArrayWorldSnapshot;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.IterationStats;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.trace.TrafficTraceReader;
+import pl.edu.agh.trace.TrafficTraceWriter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+
+public class SynchronousSimulation {
+    private static final int INITIAL_CAPACITY = 64;
+    private final WorldConfiguration worldConfiguration;
+    private final TrafficLightsLogic trafficLightsLogic;
+    private TrafficGenerationLogic trafficGenerationLogic;
+    private final CollisionDetector collisionDetector;
+    private final SimulationStatsCalculator statsCalculator;
+    private final ArrayWorldSnapshot world;
+    private final JournalRecorder journalRecorder;
+    private final JournalWriter journalWriter;
+    private DriverLogic[] drivers = new DriverLogic[INITIAL_CAPACITY];
+    private final DriverBatch driverBatch;
+    private TrafficLightColor[] lightColors = new TrafficLightColor[INITIAL_CAPACITY];
+    private int[] previousPositions = new int[INITIAL_CAPACITY];
+    private int[] vehicleIds = new int[INITIAL_CAPACITY];
+    private int[] carAheadDistances = new int[INITIAL_CAPACITY];
+    private int vehiclesInTick = 0;
+    private Map<Street, TrafficLightColor> previousLights;
+    private int completedIterations = 0;
+    private Consumer<CollisionEvent<Integer>> collisionListener = collision -> {};
+
+    public SynchronousSimulation(DriverConfiguration baseDriverConfiguration,
+                                 TrafficLightsConfiguration trafficLightsConfiguration,
+                                 WorldConfiguration worldConfiguration) {
+        this.worldConfiguration = worldConfiguration;
+        if (worldConfiguration.useSimpleLights) {
+            this.trafficLightsLogic = new SimpleTrafficLightsLogic(trafficLightsConfiguration);
+        } else {
+            this.trafficLightsLogic = new SelfOrganizingTrafficLightsLogic(trafficLightsConfiguration);
+        }
+        this.trafficGenerationLogic = new TrafficGenerationLogic(
+                worldConfiguration.newCarGenerationProbability,
+                baseDriverConfiguration,
+                worldConfiguration.monitoredDistanceFromCrossing,
+                worldConfiguration.randomSeed,
+                worldConfiguration.trafficTraceFile == null ? null : new TrafficTraceReader(worldConfiguration.trafficTraceFile),
+                worldConfiguration.trafficTraceRecordFile == null ? null : new TrafficTraceWriter(worldConfiguration.trafficTraceRecordFile));
+        this.collisionDetector = new CollisionDetector(worldConfiguration.streetWidth);
+        this.statsCalculator = new SimulationStatsCalculator(worldConfiguration.statisticsHistoryFile, worldConfiguration.statisticsSeriesFile,
+                worldConfiguration.convergenceRelativeTolerance, worldConfiguration.convergenceMinIterations);
+        this.world = new ArrayWorldSnapshot();
+        this.driverBatch = worldConfiguration.batchDriverKernel ? new DriverBatch(INITIAL_CAPACITY) : null;
+        if (worldConfiguration.restoreCheckpointFile != null) {
+            restore(CheckpointReader.read(worldConfiguration.restoreCheckpointFile), baseDriverConfiguration);
+        }
+        this.journalRecorder = worldConfiguration.journalFile != null ? new JournalRecorder() : null;
+        this.journalWriter = worldConfiguration.journalFile != null ? new JournalWriter(worldConfiguration.journalFile) : null;
+    }
+
+    public SimulationStats run() {
+        if (completedIterations == 0) {
+            trafficGenerationLogic.generateInitialTraffic(NORTH_SOUTH).ifPresent(configuration -> spawn(NORTH_SOUTH, configuration));
+            trafficGenerationLogic.generateInitialTraffic(WEST_EAST).ifPresent(configuration -> spawn(WEST_EAST, configuration));
+            previousLights = ImmutableMap.copyOf(world.getLightColors());
+            if (journalRecorder != null) {
+                journalRecorder.lightsChanged(new HashMap<>(world.getLightColors()));
+            }
+            recordIteration(0, 0, 0);
+        }
+        for (int iteration = completedIterations + 1; iteration <= worldConfiguration.simulationIterations; iteration++) {
+            tick(iteration, iteration < worldConfiguration.simulationIterations);
+            completedIterations = iteration;
+            if (isCheckpointDue(iteration)) {
+                CheckpointWriter.write(worldConfiguration.checkpointFile, checkpoint());
+            }
+            if (statsCalculator.hasConverged()) {
+                break;
+            }
+        }
+        trafficGenerationLogic.close();
+        if (journalWriter != null) {
+            journalWriter.close();
+        }
+        return statsCalculator.calculateSimulationStats();
+    }
+
+    /**
+     * State after the last completed tick; a simulation restored from it continues with the next one.
+     */
+    public SimulationCheckpoint checkpoint() {
+        collectVehicles();
+        Street[] streets = new Street[vehiclesInTick];
+        DriverLogicState[] vehicles = new DriverLogicState[vehiclesInTick];
+        for (int i = 0; i < vehiclesInTick; i++) {
+            streets[i] = world.getStreet(vehicleIds[i]);
+            vehicles[i] = driverBatch != null ? driverBatch.getState(vehicleIds[i]) : drivers[vehicleIds[i]].getState();
+        }
+        return new SimulationCheckpoint(completedIterations, trafficLightsLogic.getState(),
+                trafficGenerationLogic.getState(), statsCalculator.getState(), streets, vehicles);
+    }
+
+    private boolean isCheckpointDue(int iteration) {
+        return worldConfiguration.checkpointFile != null
+                && worldConfiguration.checkpointInterval > 0
+                && iteration % worldConfiguration.checkpointInterval == 0
+                && iteration < worldConfiguration.simulationIterations;
+    }
+
+    /**
+     * Forks are allowed: a different lights controller takes over the checkpointed lights, and a
+     * random seed other than the checkpointed one starts a fresh traffic generator stream while
+     * vehicles already on the streets keep theirs.
+     */
+    private void restore(SimulationCheckpoint checkpoint, DriverConfiguration baseDriverConfiguration) {
+        if (worldConfiguration.trafficTraceFile != null || worldConfiguration.trafficTraceRecordFile != null) {
+            throw new IllegalStateException("A simulation restored from a checkpoint cannot replay or record a traffic trace");
+        }
+        if (worldConfiguration.journalFile != null) {
+            throw new IllegalStateException("A simulation restored from a checkpoint cannot record a journal");
+        }
+        completedIterations = checkpoint.iterationNo;
+        trafficLightsLogic.restoreState(checkpoint.trafficLights);
+        world.update(new TrafficLightsUpdate(trafficLightsLogic.getState().streetToLightColor));
+        previousLights = ImmutableMap.copyOf(world.getLightColors());
+        if (worldConfiguration.randomSeed == null || worldConfiguration.randomSeed == checkpoint.trafficGeneration.masterSeed) {
+            trafficGenerationLogic = new TrafficGenerationLogic(
+                    worldConfiguration.newCarGenerationProbability,
+                    baseDriverConfiguration,
+                    worldConfiguration.monitoredDistanceFromCrossing,
+                    checkpoint.trafficGeneration);
+        }
+        statsCalculator.restoreState(checkpoint.statistics);
+        for (int i = 0; i < checkpoint.vehicles.length; i++) {
+            DriverLogicState state = checkpoint.vehicles[i];
+            int id = world.addVehicle(null, checkpoint.vehicleStreets[i], state.configuration);
+            ensureCapacity(id + 1);
+            if (driverBatch != null) {
+                driverBatch.add(id, state);
+            } else {
+                drivers[id] = new DriverLogic(state);
+            }
+            world.updateVehicle(id, state.distanceToIntersection, state.velocity);
+        }
+    }
+
+    public void setCollisionListener(Consumer<CollisionEvent<Integer>> collisionListener) {
+        this.collisionListener = collisionListener;
+    }
+
+    private void tick(int iteration, boolean recordStatistics) {
+        IntersectionSurrounding intersectionSurrounding = world.getIntersectionSurrouding(false);
+        collectVehicles();
+        for (int i = 0; i < vehiclesInTick; i++) {
+            carAheadDistances[i] = world.getCarAheadDistance(vehicleIds[i]);
+        }
+        Map<Street, TrafficLightColor> newLights = trafficLightsLogic.update(intersectionSurrounding);
+        Optional<DriverConfiguration> northSouthTraffic = trafficGenerationLogic.generateTraffic(
+                trafficGenerationLogic.isGenerationPossible(intersectionSurrounding.occupancy, NORTH_SOUTH), NORTH_SOUTH, iteration);
+        Optional<DriverConfiguration> westEastTraffic = trafficGenerationLogic.generateTraffic(
+                trafficGenerationLogic.isGenerationPossible(intersectionSurrounding.occupancy, WEST_EAST), WEST_EAST, iteration);
+
+        int crossings = moveDrivers();
+        List<CollisionEvent<Integer>> collisions = detectCollisions(iteration);
+        collisions.forEach(collisionListener);
+
+        world.update(new TrafficLightsUpdate(newLights));
+        if (journalRecorder != null) {
+            journalRecorder.lightsChanged(new HashMap<>(newLights));
+        }
+        northSouthTraffic.ifPresent(configuration -> spawn(NORTH_SOUTH, configuration));
+        westEastTraffic.ifPresent(configuration -> spawn(WEST_EAST, configuration));
+        if (recordStatistics) {
+            recordIteration(iteration, collisions.size(), crossings);
+        }
+        world.recycleRemovedIds();
+    }
+
+    private int moveDrivers() {
+        if (driverBatch != null) {
+            return moveDriversInBatch();
+        }
+        int crossings = 0;
+        for (int i = 0; i < vehiclesInTick; i++) {
+            int id = vehicleIds[i];
+            DriverLogic driver = drivers[id];
+            TrafficLightColor lightColor = world.getLightColorOnStreet(world.getStreet(id));
+            driver.drive(carAheadDistances[i], lightColor, lightColor);
+            previousPositions[id] = world.getPosition(id);
+            if (driver.getDistanceToIntersection() < -worldConfiguration.monitoredDistanceFromCrossing) {
+                world.removeVehicle(id);
+                drivers[id] = null;
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleRemoved(id);
+                }
+                vehicleIds[i] = ArrayWorldSnapshot.NO_VEHICLE;
+            } else {
+                world.updateVehicle(id, driver.getDistanceToIntersection(), driver.getVelocity());
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleMoved(id, driver.getDistanceToIntersection(), driver.getVelocity());
+                }
+                if (previousPositions[id] > 0 && driver.getDistanceToIntersection() <= 0) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    private int moveDriversInBatch() {
+        for (int i = 0; i < vehiclesInTick; i++) {
+            lightColors[i] = world.getLightColorOnStreet(world.getStreet(vehicleIds[i]));
+        }
+        driverBatch.drive(vehicleIds, vehiclesInTick, carAheadDistances, lightColors, lightColors);
+        int crossings = 0;
+        for (int i = 0; i < vehiclesInTick; i++) {
+            int id = vehicleIds[i];
+            int distanceToIntersection = driverBatch.getDistanceToIntersection(id);
+            previousPositions[id] = world.getPosition(id);
+            if (distanceToIntersection < -worldConfiguration.monitoredDistanceFromCrossing) {
+                world.removeVehicle(id);
+                driverBatch.remove(id);
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleRemoved(id);
+                }
+                vehicleIds[i] = ArrayWorldSnapshot.NO_VEHICLE;
+            } else {
+                world.updateVehicle(id, distanceToIntersection, driverBatch.getVelocity(id));
+                if (journalRecorder != null) {
+                    journalRecorder.vehicleMoved(id, distanceToIntersection, driverBatch.getVelocity(id));
+                }
+                if (previousPositions[id] > 0 && distanceToIntersection <= 0) {
+                    crossings++;
+                }
+            }
+        }
+        return crossings;
+    }
+
+    private List<CollisionEvent<Integer>> detectCollisions(int iteration) {
+        List<Integer> westEastVehicles = new ArrayList<>();
+        List<Integer> northSouthVehicles = new ArrayList<>();
+        for (int i = 0; i < vehiclesInTick; i++) {
+            int id = vehicleIds[i];
+            if (id != ArrayWorldSnapshot.NO_VEHICLE
+                    && collisionDetector.isOnIntersection(previousPositions[id], world.getPosition(id), world.getConfiguration(id).carLength)) {
+                if (world.getStreet(id) == WEST_EAST) {
+                    westEastVehicles.add(id);
+                } else {
+                    northSouthVehicles.add(id);
+                }
+            }
+        }
+        return collisionDetector.detectCollisions(iteration, westEastVehicles, northSouthVehicles);
+    }
+
+    private void recordIteration(int iteration, int collisions, int crossings) {
+        Map<Street, TrafficLightColor> currentLights = world.getLightColors();
+        int[] carsPerStreet = new int[Street.values().length];
+        int[] carsBeforeIntersection = new int[Street.values().length];
+        int[] velocityPerStreet = new int[Street.values().length];
+        int[] velocityBeforeIntersection = new int[Street.values().length];
+        for (int id = 0; id < world.getVehicleIdsBound(); id++) {
+            if (!world.isPresent(id)) {
+                continue;
+            }
+            int street = world.getStreet(id).ordinal();
+            carsPerStreet[street]++;
+            velocityPerStreet[street] += world.getVelocity(id);
+            if (world.getPosition(id) > 0) {
+                carsBeforeIntersection[street]++;
+                velocityBeforeIntersection[street] += world.getVelocity(id);
+            }
+        }
+        int waiting = 0;
+        for (Street street : Street.values()) {
+            if (currentLights.get(street) != GREEN) {
+                waiting += carsBeforeIntersection[street.ordinal()];
+            }
+        }
+        IterationStats stats = new IterationStats.Builder()
+                .numberOfCarsPerStreet(countsPerStreet(carsPerStreet))
+                .numberOfCarsBeforeIntersection(countsPerStreet(carsBeforeIntersection))
+                .numberOfDetectedCollisions(collisions)
+                .numberOfDriversThatCrossedIntersection(crossings)
+                .numberOfDriversWaitingOnRedOrYellow(waiting)
+                .averageVelocityPerStreet(averagesPerStreet(velocityPerStreet, carsPerStreet))
+                .averageVelocityBeforeIntersection(averagesPerStreet(velocityBeforeIntersection, carsBeforeIntersection))
+                .build();
+        statsCalculator.addIteration(stats, previousLights, currentLights);
+        previousLights = ImmutableMap.copyOf(currentLights);
+        if (journalWriter != null) {
+            journalWriter.write(journalRecorder.publish(iteration, collisions));
+        }
+    }
+
+    private Map<Street, Integer> countsPerStreet(int[] counts) {
+        return ImmutableMap.<Street, Integer>builder()
+                .put(NORTH_SOUTH, counts[NORTH_SOUTH.ordinal()])
+                .put(WEST_EAST, counts[WEST_EAST.ordinal()])
+                .build();
+    }
+
+    private Map<Street, Float> averagesPerStreet(int[] totals, int[] counts) {
+        return ImmutableMap.<Street, Float>builder()
+                .put(NORTH_SOUTH, average(totals[NORTH_SOUTH.ordinal()], counts[NORTH_SOUTH.ordinal()]))
+                .put(WEST_EAST, average(totals[WEST_EAST.ordinal()], counts[WEST_EAST.ordinal()]))
+                .build();
+    }
+
+    private Float average(int total, int count) {
+        return count == 0 ? 0.0f : ((float) total / count);
+    }
+
+    private void collectVehicles() {
+        vehiclesInTick = 0;
+        ensureCapacity(world.getVehicleIdsBound());
+        for (int id = 0; id < world.getVehicleIdsBound(); id++) {
+            if (world.isPresent(id)) {
+                vehicleIds[vehiclesInTick++] = id;
+            }
+        }
+    }
+
+    private void spawn(Street street, DriverConfiguration configuration) {
+        int id = world.addVehicle(null, street, configuration);
+        ensureCapacity(id + 1);
+        if (driverBatch != null) {
+            driverBatch.add(id, configuration);
+        } else {
+            drivers[id] = new DriverLogic(configuration);
+        }
+        if (journalRecorder != null) {
+            journalRecorder.vehicleSpawned(id, street, configuration.initialDistanceToIntersection);
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= drivers.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, drivers.length * 2);
+        drivers = Arrays.copyOf(drivers, newCapacity);
+        previousPositions = Arrays.copyOf(previousPositions, newCapacity);
+        vehicleIds = Arrays.copyOf(vehicleIds, newCapacity);
+        carAheadDistances = Arrays.copyOf(carAheadDistances, newCapacity);
+        lightColors = Arrays.copyOf(lightColors, newCapacity);
+    }
+}
@@ -0,0 +1,55 @@
+package pl.edu.agh.journal;
+
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+/**
+ * Journal layout: a 4 byte magic number followed by frames. Each frame holds
+ * <pre>
+ * varint iterationNo, byte lights, varint collisions,
+ * varint spawnedCount,  spawnedCount  x (zigzag id delta, byte street, varint position),
+ * varint movedCount,    movedCount    x (zigzag id delta, zigzag position delta, varint velocity),
+ * varint removedCount,  removedCount  x (zigzag id delta)
+ * </pre>
+ * Id deltas are taken against the previous id in the same list, position deltas against the last
+ * journaled position of that vehicle. Lights byte 0 means no change.
+ */
+final class JournalFormat {
+    static final int MAGIC = 0x54534A31;
+    static final byte LIGHTS_UNCHANGED = 0;
+    private static final TrafficLightColor[] COLORS = TrafficLightColor.values();
+
+    private JournalFormat() {
+    }
+
+    static byte encodeLights(Map<Street, TrafficLightColor> lights) {
+        if (lights == null) {
+            return LIGHTS_UNCHANGED;
+        }
+        return (byte) (1 + lights.get(NORTH_SOUTH).ordinal() * COLORS.length + lights.get(WEST_EAST).ordinal());
+    }
+
+    static Map<Street, TrafficLightColor> decodeLights(byte encoded) {
+        if (encoded == LIGHTS_UNCHANGED) {
+            return null;
+        }
+        Map<Street, TrafficLightColor> lights = new EnumMap<>(Street.class);
+        lights.put(NORTH_SOUTH, COLORS[(encoded - 1) / COLORS.length]);
+        lights.put(WEST_EAST, COLORS[(encoded - 1) % COLORS.length]);
+        return lights;
+    }
+
+    static int zigZag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unZigZag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,50 @@
+package pl.edu.agh.journal;
+
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.Map;
+
+/**
+ * Everything that changed in the world between two consecutive broadcasts of the Supervisor.
+ * Vehicles are identified by journal ids, which are reused only after the frame that removed them.
+ */
+public class JournalFrame {
+    public final int iterationNo;
+    public final int detectedCollisions;
+    public final Map<Street, TrafficLightColor> changedLightColors;
+    public final int[] spawnedVehicleIds;
+    public final Street[] spawnedStreets;
+    public final int[] spawnedPositions;
+    public final int[] movedVehicleIds;
+    public final int[] positions;
+    public final int[] velocities;
+    public final int[] removedVehicleIds;
+
+    public JournalFrame(int iterationNo,
+                        int detectedCollisions,
+                        Map<Street, TrafficLightColor> changedLightColors,
+                        int[] spawnedVehicleIds,
+                        Street[] spawnedStreets,
+                        int[] spawnedPositions,
+                        int[] movedVehicleIds,
+                        int[] positions,
+                        int[] velocities,
+                        int[] removedVehicleIds) {
+        this.iterationNo = iterationNo;
+        this.detectedCollisions = detectedCollisions;
+        this.changedLightColors = changedLightColors;
+        this.spawnedVehicleIds = spawnedVehicleIds;
+        this.spawnedStreets = spawnedStreets;
+        this.spawnedPositions = spawnedPositions;
+        this.movedVehicleIds = movedVehicleIds;
+        this.positions = positions;
+        this.velocities = velocities;
+        this.removedVehicleIds = removedVehicleIds;
+    }
+
+    public JournalFrame withDetectedCollisions(int detectedCollisions) {
+        return new JournalFrame(iterationNo, detectedCollisions, changedLightColors, spawnedVehicleIds, spawnedStreets,
+                spawnedPositions, movedVehicleIds, positions, velocities, removedVehicleIds);
+    }
+}
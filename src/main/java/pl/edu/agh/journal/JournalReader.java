@@ -0,0 +1,199 @@
+package pl.edu.agh.journal;
+
+import pl.edu.agh.logic.IterationStatsTracker;
+import pl.edu.agh.logic.SimulationStatsCalculator;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.model.StatsDelta;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.WorldSnapshot;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Streams back the frames written by {@link JournalWriter}, with absolute positions restored.
+ */
+public class JournalReader implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Street[] STREETS = Street.values();
+    private final String filename;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private int[] lastPositions = new int[64];
+    private boolean endOfFile = false;
+
+    public JournalReader(String filename) {
+        this.filename = filename;
+        try {
+            this.channel = FileChannel.open(Paths.get(filename), READ);
+            buffer.flip();
+            if (readInt() != JournalFormat.MAGIC) {
+                throw new IllegalStateException(filename + " is not a simulation journal");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open journal file " + filename, e);
+        }
+    }
+
+    /**
+     * Returns the next frame, or null once the whole journal has been read.
+     */
+    public JournalFrame readFrame() {
+        try {
+            if (!hasRemaining()) {
+                return null;
+            }
+            return decodeFrame();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read journal file " + filename, e);
+        }
+    }
+
+    /**
+     * Replays the journal through the same statistics pipeline as StatisticsCollector, without
+     * running any drivers.
+     */
+    public static SimulationStats recomputeSimulationStats(String filename) {
+        SimulationStatsCalculator calculator = new SimulationStatsCalculator();
+        IterationStatsTracker tracker = new IterationStatsTracker(calculator);
+        StatsDelta delta = new StatsDelta();
+        Street[] streets = new Street[64];
+        int[] positions = new int[64];
+        int[] velocities = new int[64];
+        try (JournalReader reader = new JournalReader(filename)) {
+            JournalFrame frame;
+            while ((frame = reader.readFrame()) != null) {
+                for (int i = 0; i < frame.spawnedVehicleIds.length; i++) {
+                    int id = frame.spawnedVehicleIds[i];
+                    if (id >= streets.length) {
+                        int capacity = Math.max(id + 1, streets.length * 2);
+                        streets = Arrays.copyOf(streets, capacity);
+                        positions = Arrays.copyOf(positions, capacity);
+                        velocities = Arrays.copyOf(velocities, capacity);
+                    }
+                    streets[id] = frame.spawnedStreets[i];
+                    positions[id] = frame.spawnedPositions[i];
+                    velocities[id] = WorldSnapshot.INITIAL_VELOCITY;
+                    delta.vehicleSpawned(streets[id], positions[id], velocities[id]);
+                }
+                for (int i = 0; i < frame.movedVehicleIds.length; i++) {
+                    int id = frame.movedVehicleIds[i];
+                    delta.vehicleMoved(streets[id], positions[id], velocities[id], frame.positions[i], frame.velocities[i]);
+                    positions[id] = frame.positions[i];
+                    velocities[id] = frame.velocities[i];
+                }
+                for (int id : frame.removedVehicleIds) {
+                    delta.vehicleRemoved(streets[id], positions[id], velocities[id]);
+                }
+                if (frame.changedLightColors != null) {
+                    delta.lightsChanged(frame.changedLightColors);
+                }
+                tracker.addUpdate(delta.publish(frame.detectedCollisions));
+            }
+        }
+        return calculator.calculateSimulationStats();
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close journal file " + filename, e);
+        }
+    }
+
+    private JournalFrame decodeFrame() throws IOException {
+        int iterationNo = readVarInt();
+        byte lights = readByte();
+        int detectedCollisions = readVarInt();
+
+        int spawnedCount = readVarInt();
+        int[] spawnedVehicleIds = new int[spawnedCount];
+        Street[] spawnedStreets = new Street[spawnedCount];
+        int[] spawnedPositions = new int[spawnedCount];
+        int previousId = 0;
+        for (int i = 0; i < spawnedCount; i++) {
+            int id = previousId + JournalFormat.unZigZag(readVarInt());
+            spawnedVehicleIds[i] = id;
+            spawnedStreets[i] = STREETS[readByte()];
+            spawnedPositions[i] = readVarInt();
+            ensureLastPositionsCapacity(id);
+            lastPositions[id] = spawnedPositions[i];
+            previousId = id;
+        }
+
+        int movedCount = readVarInt();
+        int[] movedVehicleIds = new int[movedCount];
+        int[] positions = new int[movedCount];
+        int[] velocities = new int[movedCount];
+        previousId = 0;
+        for (int i = 0; i < movedCount; i++) {
+            int id = previousId + JournalFormat.unZigZag(readVarInt());
+            movedVehicleIds[i] = id;
+            positions[i] = lastPositions[id] + JournalFormat.unZigZag(readVarInt());
+            velocities[i] = readVarInt();
+            lastPositions[id] = positions[i];
+            previousId = id;
+        }
+
+        int removedCount = readVarInt();
+        int[] removedVehicleIds = new int[removedCount];
+        previousId = 0;
+        for (int i = 0; i < removedCount; i++) {
+            removedVehicleIds[i] = previousId + JournalFormat.unZigZag(readVarInt());
+            previousId = removedVehicleIds[i];
+        }
+        return new JournalFrame(iterationNo, detectedCollisions, JournalFormat.decodeLights(lights),
+                spawnedVehicleIds, spawnedStreets, spawnedPositions,
+                movedVehicleIds, positions, velocities, removedVehicleIds);
+    }
+
+    private int readVarInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = readByte();
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            value = (value << 8) | (readByte() & 0xFF);
+        }
+        return value;
+    }
+
+    private byte readByte() throws IOException {
+        if (!hasRemaining()) {
+            throw new IOException("Unexpected end of journal");
+        }
+        return buffer.get();
+    }
+
+    private boolean hasRemaining() throws IOException {
+        if (!buffer.hasRemaining() && !endOfFile) {
+            buffer.clear();
+            endOfFile = channel.read(buffer) < 0;
+            buffer.flip();
+        }
+        return buffer.hasRemaining();
+    }
+
+    private void ensureLastPositionsCapacity(int id) {
+        if (id >= lastPositions.length) {
+            lastPositions = Arrays.copyOf(lastPositions, Math.max(id + 1, lastPositions.length * 2));
+        }
+    }
+}
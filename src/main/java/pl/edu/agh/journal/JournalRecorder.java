@@ -0,0 +1,125 @@
+package pl.edu.agh.journal;
+
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.model.WorldSnapshot;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Collects world changes reported by the Supervisor or the synchronous engine into {@link JournalFrame}s.
+ * Vehicles can be identified by any key (actor refs or snapshot ids); they are mapped onto dense journal ids.
+ */
+public class JournalRecorder {
+    private static final int INITIAL_CAPACITY = 64;
+    private final Map<Object, Integer> vehicleToId = new HashMap<>();
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeIdsCount = 0;
+    private int nextId = 0;
+    private int[] lastPositions = new int[INITIAL_CAPACITY];
+    private int[] lastVelocities = new int[INITIAL_CAPACITY];
+
+    private int[] spawnedVehicleIds = new int[INITIAL_CAPACITY];
+    private Street[] spawnedStreets = new Street[INITIAL_CAPACITY];
+    private int[] spawnedPositions = new int[INITIAL_CAPACITY];
+    private int spawnedCount = 0;
+    private int[] movedVehicleIds = new int[INITIAL_CAPACITY];
+    private int[] positions = new int[INITIAL_CAPACITY];
+    private int[] velocities = new int[INITIAL_CAPACITY];
+    private int movedCount = 0;
+    private int[] removedVehicleIds = new int[INITIAL_CAPACITY];
+    private int removedCount = 0;
+    private Map<Street, TrafficLightColor> lightColors;
+    private Map<Street, TrafficLightColor> publishedLightColors;
+
+    public void vehicleSpawned(Object vehicle, Street street, int positionOnStreet) {
+        int id = allocateId();
+        vehicleToId.put(vehicle, id);
+        lastPositions[id] = positionOnStreet;
+        lastVelocities[id] = WorldSnapshot.INITIAL_VELOCITY;
+        if (spawnedCount == spawnedVehicleIds.length) {
+            int capacity = spawnedCount * 2;
+            spawnedVehicleIds = Arrays.copyOf(spawnedVehicleIds, capacity);
+            spawnedStreets = Arrays.copyOf(spawnedStreets, capacity);
+            spawnedPositions = Arrays.copyOf(spawnedPositions, capacity);
+        }
+        spawnedVehicleIds[spawnedCount] = id;
+        spawnedStreets[spawnedCount] = street;
+        spawnedPositions[spawnedCount] = positionOnStreet;
+        spawnedCount++;
+    }
+
+    public void vehicleMoved(Object vehicle, int positionOnStreet, int velocity) {
+        int id = vehicleToId.get(vehicle);
+        if (lastPositions[id] == positionOnStreet && lastVelocities[id] == velocity) {
+            return;
+        }
+        lastPositions[id] = positionOnStreet;
+        lastVelocities[id] = velocity;
+        if (movedCount == movedVehicleIds.length) {
+            int capacity = movedCount * 2;
+            movedVehicleIds = Arrays.copyOf(movedVehicleIds, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            velocities = Arrays.copyOf(velocities, capacity);
+        }
+        movedVehicleIds[movedCount] = id;
+        positions[movedCount] = positionOnStreet;
+        velocities[movedCount] = velocity;
+        movedCount++;
+    }
+
+    public void vehicleRemoved(Object vehicle) {
+        int id = vehicleToId.remove(vehicle);
+        if (removedCount == removedVehicleIds.length) {
+            removedVehicleIds = Arrays.copyOf(removedVehicleIds, removedCount * 2);
+        }
+        removedVehicleIds[removedCount++] = id;
+    }
+
+    public void lightsChanged(Map<Street, TrafficLightColor> lightColors) {
+        this.lightColors = lightColors;
+    }
+
+    public JournalFrame publish(int iterationNo, int detectedCollisions) {
+        Map<Street, TrafficLightColor> changedLightColors = null;
+        if (lightColors != null && !lightColors.equals(publishedLightColors)) {
+            changedLightColors = lightColors;
+            publishedLightColors = lightColors;
+        }
+        JournalFrame frame = new JournalFrame(iterationNo, detectedCollisions, changedLightColors,
+                Arrays.copyOf(spawnedVehicleIds, spawnedCount),
+                Arrays.copyOf(spawnedStreets, spawnedCount),
+                Arrays.copyOf(spawnedPositions, spawnedCount),
+                Arrays.copyOf(movedVehicleIds, movedCount),
+                Arrays.copyOf(positions, movedCount),
+                Arrays.copyOf(velocities, movedCount),
+                Arrays.copyOf(removedVehicleIds, removedCount));
+        for (int i = 0; i < removedCount; i++) {
+            releaseId(removedVehicleIds[i]);
+        }
+        spawnedCount = 0;
+        movedCount = 0;
+        removedCount = 0;
+        return frame;
+    }
+
+    private int allocateId() {
+        if (freeIdsCount > 0) {
+            return freeIds[--freeIdsCount];
+        }
+        if (nextId == lastPositions.length) {
+            lastPositions = Arrays.copyOf(lastPositions, nextId * 2);
+            lastVelocities = Arrays.copyOf(lastVelocities, nextId * 2);
+        }
+        return nextId++;
+    }
+
+    private void releaseId(int id) {
+        if (freeIdsCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeIdsCount * 2);
+        }
+        freeIds[freeIdsCount++] = id;
+    }
+}
@@ -0,0 +1,159 @@
+package pl.edu.agh.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Encodes {@link JournalFrame}s on a dedicated background thread, so {@link #write} does not wait for
+ * I/O. At most {@link #MAX_PENDING_FRAMES} frames are queued; beyond that {@link #write} blocks until
+ * the thread catches up. The frames are delta-encoded in order, so the caller never encodes them itself.
+ */
+public class JournalWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_VARINT_SIZE = 5;
+    private static final int MAX_PENDING_FRAMES = 1024;
+    private final String filename;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_FRAMES),
+            runnable -> {
+                Thread thread = new Thread(runnable, "journal-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("Journal writer is closed");
+                }
+                try {
+                    pool.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for the journal writer", e);
+                }
+            });
+    private int[] lastPositions = new int[64];
+    private volatile IOException failure;
+
+    public JournalWriter(String filename) {
+        this.filename = filename;
+        try {
+            this.channel = FileChannel.open(Paths.get(filename), CREATE, WRITE, TRUNCATE_EXISTING);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open journal file " + filename, e);
+        }
+        buffer.putInt(JournalFormat.MAGIC);
+    }
+
+    public void write(JournalFrame frame) {
+        executor.execute(() -> {
+            if (failure == null) {
+                try {
+                    encode(frame);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            if (failure == null) {
+                flush();
+            }
+            channel.close();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Could not write journal file " + filename, failure);
+        }
+    }
+
+    private void encode(JournalFrame frame) throws IOException {
+        putVarInt(frame.iterationNo);
+        ensureRemaining(1);
+        buffer.put(JournalFormat.encodeLights(frame.changedLightColors));
+        putVarInt(frame.detectedCollisions);
+
+        putVarInt(frame.spawnedVehicleIds.length);
+        int previousId = 0;
+        for (int i = 0; i < frame.spawnedVehicleIds.length; i++) {
+            int id = frame.spawnedVehicleIds[i];
+            putVarInt(JournalFormat.zigZag(id - previousId));
+            ensureRemaining(1);
+            buffer.put((byte) frame.spawnedStreets[i].ordinal());
+            putVarInt(frame.spawnedPositions[i]);
+            ensureLastPositionsCapacity(id);
+            lastPositions[id] = frame.spawnedPositions[i];
+            previousId = id;
+        }
+
+        putVarInt(frame.movedVehicleIds.length);
+        previousId = 0;
+        for (int i = 0; i < frame.movedVehicleIds.length; i++) {
+            int id = frame.movedVehicleIds[i];
+            putVarInt(JournalFormat.zigZag(id - previousId));
+            putVarInt(JournalFormat.zigZag(frame.positions[i] - lastPositions[id]));
+            putVarInt(frame.velocities[i]);
+            lastPositions[id] = frame.positions[i];
+            previousId = id;
+        }
+
+        putVarInt(frame.removedVehicleIds.length);
+        previousId = 0;
+        for (int id : frame.removedVehicleIds) {
+            putVarInt(JournalFormat.zigZag(id - previousId));
+            previousId = id;
+        }
+    }
+
+    private void putVarInt(int value) throws IOException {
+        ensureRemaining(MAX_VARINT_SIZE);
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private void ensureLastPositionsCapacity(int id) {
+        if (id >= lastPositions.length) {
+            lastPositions = Arrays.copyOf(lastPositions, Math.max(id + 1, lastPositions.length * 2));
+        }
+    }
+}
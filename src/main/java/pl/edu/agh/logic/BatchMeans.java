@@ -0,0 +1,100 @@
+package pl.edu.agh.logic;
+
+/**
+ * Confidence interval of a per-iteration mean by non-overlapping batch means. Consecutive iterations
+ * are strongly correlated, but means of long enough batches are nearly independent, so the spread of
+ * the batch means gives an honest interval. Whenever {@link #MAX_BATCHES} batches are complete they
+ * are merged pairwise, which doubles the batch size as the run grows while keeping the number of
+ * batches between {@link #MIN_BATCHES} and {@link #MAX_BATCHES}.
+ * <p>
+ * Observations are ratios {@code numerator / denominator}, e.g. velocity sum over number of cars,
+ * with the denominator 1 for plain means.
+ */
+public class BatchMeans {
+    public static final int MIN_BATCHES = 20;
+    public static final int MAX_BATCHES = 2 * MIN_BATCHES;
+    private static final double Z_95 = 1.959964;
+
+    private final double[] numerators = new double[MAX_BATCHES];
+    private final double[] denominators = new double[MAX_BATCHES];
+    private int completedBatches = 0;
+    private int batchSize = 1;
+    private int observationsInBatch = 0;
+
+    public void add(double numerator, double denominator) {
+        numerators[completedBatches] += numerator;
+        denominators[completedBatches] += denominator;
+        if (++observationsInBatch == batchSize) {
+            observationsInBatch = 0;
+            if (++completedBatches == MAX_BATCHES) {
+                mergeBatches();
+            }
+        }
+    }
+
+    public int getCompletedBatches() {
+        return completedBatches;
+    }
+
+    public double getMean() {
+        double numerator = 0.0;
+        double denominator = 0.0;
+        for (int batch = 0; batch < completedBatches; batch++) {
+            numerator += numerators[batch];
+            denominator += denominators[batch];
+        }
+        return numerator / denominator;
+    }
+
+    /**
+     * Half-width of the 95% confidence interval of the mean; NaN before {@link #MIN_BATCHES} batches
+     * are complete or while a batch has a zero denominator.
+     */
+    public double getHalfWidth() {
+        if (completedBatches < MIN_BATCHES) {
+            return Double.NaN;
+        }
+        double sum = 0.0;
+        double sumOfSquares = 0.0;
+        for (int batch = 0; batch < completedBatches; batch++) {
+            double batchMean = numerators[batch] / denominators[batch];
+            sum += batchMean;
+            sumOfSquares += batchMean * batchMean;
+        }
+        double mean = sum / completedBatches;
+        double variance = Math.max(0.0, (sumOfSquares - completedBatches * mean * mean) / (completedBatches - 1));
+        return studentT95(completedBatches - 1) * Math.sqrt(variance / completedBatches);
+    }
+
+    /**
+     * True once the half-width is at most {@code relativeTolerance} of the absolute mean.
+     */
+    public boolean isWithin(double relativeTolerance) {
+        return getHalfWidth() <= relativeTolerance * Math.abs(getMean());
+    }
+
+    private void mergeBatches() {
+        for (int batch = 0; batch < MIN_BATCHES; batch++) {
+            numerators[batch] = numerators[2 * batch] + numerators[2 * batch + 1];
+            denominators[batch] = denominators[2 * batch] + denominators[2 * batch + 1];
+        }
+        for (int batch = MIN_BATCHES; batch < MAX_BATCHES; batch++) {
+            numerators[batch] = 0.0;
+            denominators[batch] = 0.0;
+        }
+        completedBatches = MIN_BATCHES;
+        batchSize *= 2;
+    }
+
+    /**
+     * Two-sided 95% quantile of Student's t distribution from its expansion around the normal one,
+     * accurate to three decimals for the degrees of freedom used here.
+     */
+    private static double studentT95(int degreesOfFreedom) {
+        double z = Z_95;
+        double z3 = z * z * z;
+        double z5 = z3 * z * z;
+        double n = degreesOfFreedom;
+        return z + (z3 + z) / (4 * n) + (5 * z5 + 16 * z3 + 3 * z) / (96 * n * n);
+    }
+}
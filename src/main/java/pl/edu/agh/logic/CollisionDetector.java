@@ -0,0 +1,40 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.messages.CollisionEvent;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class CollisionDetector {
+    private final Integer streetWidth;
+
+    public CollisionDetector(Integer streetWidth) {
+        this.streetWidth = streetWidth;
+    }
+
+    public boolean isOnIntersection(int previousPositionOnStreet, int currentPositionOnStreet, int carLength) {
+        return (previousPositionOnStreet + carLength - 1 > -streetWidth)
+                && (currentPositionOnStreet < 1);
+    }
+
+    /**
+     * Pairs every WEST_EAST vehicle with every NORTH_SOUTH vehicle. Both lists must already be
+     * narrowed down with {@link #isOnIntersection}, so apart from the reported pairs the cost is
+     * linear in the number of vehicles.
+     */
+    public <T> List<CollisionEvent<T>> detectCollisions(int iterationNo,
+                                                        List<T> westEastVehiclesOnIntersection,
+                                                        List<T> northSouthVehiclesOnIntersection) {
+        if (westEastVehiclesOnIntersection.isEmpty() || northSouthVehiclesOnIntersection.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<CollisionEvent<T>> collisions = new ArrayList<>(westEastVehiclesOnIntersection.size() * northSouthVehiclesOnIntersection.size());
+        for (T westEastVehicle : westEastVehiclesOnIntersection) {
+            for (T northSouthVehicle : northSouthVehiclesOnIntersection) {
+                collisions.add(new CollisionEvent<>(iterationNo, westEastVehicle, northSouthVehicle));
+            }
+        }
+        return collisions;
+    }
+}
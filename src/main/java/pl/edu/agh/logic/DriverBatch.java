@@ -0,0 +1,119 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.Arrays;
+
+/**
+ * The rules of {@link DriverLogic} applied to many vehicles kept in parallel primitive arrays indexed
+ * by slot. Both apply {@link DrivingRules}, and every vehicle keeps its own random stream and draws
+ * from it in the same order as DriverLogic does, so a vehicle driven here moves exactly like the same
+ * vehicle driven by a DriverLogic.
+ */
+public class DriverBatch {
+    private int[] velocities;
+    private int[] distancesToIntersection;
+    private int[] accelerations;
+    private int[] maxVelocities;
+    private float[] yellowLightGoProbabilities;
+    private boolean[] decidedForYellowGo;
+    private boolean[] decidedToSlowDown;
+    private ReplayableRandom[] randoms;
+    private DriverConfiguration[] configurations;
+
+    public DriverBatch(int initialCapacity) {
+        velocities = new int[initialCapacity];
+        distancesToIntersection = new int[initialCapacity];
+        accelerations = new int[initialCapacity];
+        maxVelocities = new int[initialCapacity];
+        yellowLightGoProbabilities = new float[initialCapacity];
+        decidedForYellowGo = new boolean[initialCapacity];
+        decidedToSlowDown = new boolean[initialCapacity];
+        randoms = new ReplayableRandom[initialCapacity];
+        configurations = new DriverConfiguration[initialCapacity];
+    }
+
+    public void add(int slot, DriverConfiguration configuration) {
+        ensureCapacity(slot + 1);
+        velocities[slot] = 0;
+        distancesToIntersection[slot] = configuration.initialDistanceToIntersection;
+        accelerations[slot] = configuration.acceleration;
+        maxVelocities[slot] = configuration.maxVelocity;
+        yellowLightGoProbabilities[slot] = configuration.yellowLightGoProbability;
+        decidedForYellowGo[slot] = false;
+        decidedToSlowDown[slot] = false;
+        randoms[slot] = RandomStreams.vehicleStream(configuration.randomSeed);
+        configurations[slot] = configuration;
+    }
+
+    public void add(int slot, DriverLogicState state) {
+        add(slot, state.configuration);
+        velocities[slot] = state.velocity;
+        distancesToIntersection[slot] = state.distanceToIntersection;
+        decidedForYellowGo[slot] = state.decidedForYellowGo;
+        decidedToSlowDown[slot] = state.decidedToSlowDown;
+        randoms[slot].skipTo(state.randomDraws);
+    }
+
+    public void remove(int slot) {
+        randoms[slot] = null;
+        configurations[slot] = null;
+    }
+
+    public int getVelocity(int slot) {
+        return velocities[slot];
+    }
+
+    public int getDistanceToIntersection(int slot) {
+        return distancesToIntersection[slot];
+    }
+
+    public DriverLogicState getState(int slot) {
+        return new DriverLogicState(configurations[slot], velocities[slot], distancesToIntersection[slot],
+                decidedForYellowGo[slot], decidedToSlowDown[slot], randoms[slot].getDraws());
+    }
+
+    /**
+     * Drives the vehicles in {@code slots[0..count)}; the other arrays are indexed like {@code slots}.
+     */
+    public void drive(int[] slots, int count, int[] carAheadDistances,
+                      TrafficLightColor[] trafficLightColors, TrafficLightColor[] previousTrafficLightColors) {
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            int velocity = velocities[slot];
+            int distanceToIntersection = distancesToIntersection[slot];
+            DrivingRules.Manoeuvre manoeuvre = DrivingRules.decide(velocity, distanceToIntersection, accelerations[slot],
+                    decidedToSlowDown[slot], decidedForYellowGo[slot], yellowLightGoProbabilities[slot],
+                    trafficLightColors[i], previousTrafficLightColors[i], randoms[slot]);
+            decidedToSlowDown[slot] = manoeuvre.decidedToSlowDown(decidedToSlowDown[slot]);
+            decidedForYellowGo[slot] = manoeuvre.decidedForYellowGo(decidedForYellowGo[slot]);
+            int newVelocity;
+            if (manoeuvre.slowsDown()) {
+                newVelocity = DrivingRules.slowDown(velocity, distanceToIntersection, accelerations[slot]);
+            } else {
+                int accelerated = DrivingRules.acceleratedVelocity(velocity, accelerations[slot], maxVelocities[slot]);
+                newVelocity = DrivingRules.randomSlowdown(Math.min(carAheadDistances[i], accelerated), randoms[slot]);
+            }
+            velocities[slot] = newVelocity;
+            distancesToIntersection[slot] = distanceToIntersection - newVelocity;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= velocities.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, velocities.length * 2);
+        velocities = Arrays.copyOf(velocities, newCapacity);
+        distancesToIntersection = Arrays.copyOf(distancesToIntersection, newCapacity);
+        accelerations = Arrays.copyOf(accelerations, newCapacity);
+        maxVelocities = Arrays.copyOf(maxVelocities, newCapacity);
+        yellowLightGoProbabilities = Arrays.copyOf(yellowLightGoProbabilities, newCapacity);
+        decidedForYellowGo = Arrays.copyOf(decidedForYellowGo, newCapacity);
+        decidedToSlowDown = Arrays.copyOf(decidedToSlowDown, newCapacity);
+        randoms = Arrays.copyOf(randoms, newCapacity);
+        configurations = Arrays.copyOf(configurations, newCapacity);
+    }
+}
@@ -0,0 +1,73 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.DriverLogicState;
+import pl.edu.agh.model.TrafficLightColor;
+
+public class DriverLogic {
+    private final DriverConfiguration configuration;
+    private final ReplayableRandom random;
+    private Integer velocity = 0;
+    private Integer distanceToIntersection;
+    private boolean decidedForYellowGo = false;
+    private boolean decidedToSlowDown = false;
+
+    public DriverLogic(DriverConfiguration configuration) {
+        this.configuration = configuration;
+        this.random = RandomStreams.vehicleStream(configuration.randomSeed);
+        this.distanceToIntersection = configuration.initialDistanceToIntersection;
+    }
+
+    public DriverLogic(DriverLogicState state) {
+        this(state.configuration);
+        this.velocity = state.velocity;
+        this.distanceToIntersection = state.distanceToIntersection;
+        this.decidedForYellowGo = state.decidedForYellowGo;
+        this.decidedToSlowDown = state.decidedToSlowDown;
+        this.random.skipTo(state.randomDraws);
+    }
+
+    public void drive(Integer carAheadDistance, TrafficLightColor trafficLightColor, TrafficLightColor previousTrafficLightColor) {
+        DrivingRules.Manoeuvre manoeuvre = DrivingRules.decide(velocity, distanceToIntersection, configuration.acceleration,
+                decidedToSlowDown, decidedForYellowGo, configuration.yellowLightGoProbability,
+                trafficLightColor, previousTrafficLightColor, random);
+        decidedToSlowDown = manoeuvre.decidedToSlowDown(decidedToSlowDown);
+        decidedForYellowGo = manoeuvre.decidedForYellowGo(decidedForYellowGo);
+        int newVelocity;
+        if (manoeuvre.slowsDown()) {
+            newVelocity = DrivingRules.slowDown(velocity, distanceToIntersection, configuration.acceleration);
+        } else {
+            int accelerated = DrivingRules.acceleratedVelocity(velocity, configuration.acceleration, configuration.maxVelocity);
+            newVelocity = DrivingRules.randomSlowdown(Math.min(carAheadDistance, accelerated), random);
+        }
+        velocity = newVelocity;
+        distanceToIntersection -= newVelocity;
+    }
+
+    /**
+     * Moves the driver onto the next link of a road network, keeping the velocity. Decisions taken for
+     * the lights of the intersection just crossed do not carry over to the next one.
+     */
+    public void enterNextLink(int linkLength) {
+        distanceToIntersection += linkLength;
+        decidedForYellowGo = false;
+        decidedToSlowDown = false;
+    }
+
+    public Integer getVelocity() {
+        return velocity;
+    }
+
+    public Integer getDistanceToIntersection() {
+        return distanceToIntersection;
+    }
+
+    public DriverConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public DriverLogicState getState() {
+        return new DriverLogicState(configuration, velocity, distanceToIntersection,
+                decidedForYellowGo, decidedToSlowDown, random.getDraws());
+    }
+}
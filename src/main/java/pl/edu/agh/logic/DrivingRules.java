@@ -0,0 +1,139 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.model.TrafficLightColor;
+
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.YELLOW;
+
+/**
+ * The driving rules shared by {@link DriverLogic} and {@link DriverBatch}, on primitive arguments so
+ * both can keep their own storage. Random draws happen in a fixed order: the yellow light decision
+ * first, then the Nagel-Schreckenberg slowdown.
+ */
+final class DrivingRules {
+    static final double RANDOM_SLOWDOWN_PROBABILITY = 0.1;
+
+    /**
+     * What a driver does in a tick, and how it changes the decisions taken at earlier lights.
+     */
+    enum Manoeuvre {
+        FOLLOW_PAST_STOP_LINE,
+        FOLLOW_ON_GREEN,
+        KEEP_SLOWING_DOWN,
+        FOLLOW_AT_SAFE_DISTANCE,
+        GO_ON_YELLOW,
+        START_SLOWING_DOWN,
+        FOLLOW_UNABLE_TO_STOP;
+
+        boolean slowsDown() {
+            return this == KEEP_SLOWING_DOWN || this == START_SLOWING_DOWN;
+        }
+
+        boolean decidedToSlowDown(boolean decidedBefore) {
+            if (this == FOLLOW_ON_GREEN) {
+                return false;
+            }
+            return decidedBefore || this == START_SLOWING_DOWN;
+        }
+
+        boolean decidedForYellowGo(boolean decidedBefore) {
+            return decidedBefore || this == GO_ON_YELLOW;
+        }
+    }
+
+    private DrivingRules() {
+    }
+
+    static Manoeuvre decide(int velocity,
+                            int distanceToIntersection,
+                            int acceleration,
+                            boolean decidedToSlowDown,
+                            boolean decidedForYellowGo,
+                            float yellowLightGoProbability,
+                            TrafficLightColor trafficLightColor,
+                            TrafficLightColor previousTrafficLightColor,
+                            ReplayableRandom random) {
+        if (distanceToIntersection < 1) {
+            return Manoeuvre.FOLLOW_PAST_STOP_LINE;
+        }
+        if (trafficLightColor == GREEN) {
+            return Manoeuvre.FOLLOW_ON_GREEN;
+        }
+        if (decidedToSlowDown) {
+            return Manoeuvre.KEEP_SLOWING_DOWN;
+        }
+        if (isInSafeDistanceToIntersection(velocity, distanceToIntersection)) {
+            return Manoeuvre.FOLLOW_AT_SAFE_DISTANCE;
+        }
+        if (decidedForYellowGo
+                || (lightsJustChangedToYellow(trafficLightColor, previousTrafficLightColor)
+                && yellowLightGoProbability > random.nextDouble())) {
+            return Manoeuvre.GO_ON_YELLOW;
+        }
+        if (isAbleToStopBeforeIntersection(velocity, distanceToIntersection, acceleration)) {
+            return Manoeuvre.START_SLOWING_DOWN;
+        }
+        return Manoeuvre.FOLLOW_UNABLE_TO_STOP;
+    }
+
+    static int acceleratedVelocity(int velocity, int acceleration, int maxVelocity) {
+        return velocity < maxVelocity ? Math.min(velocity + acceleration, maxVelocity) : velocity;
+    }
+
+    /**
+     * The last Nagel-Schreckenberg step, applied to the velocity already limited by the car ahead.
+     */
+    static int randomSlowdown(int velocity, ReplayableRandom random) {
+        if (random.nextDouble() < RANDOM_SLOWDOWN_PROBABILITY) {
+            return Math.max(0, velocity - 1);
+        }
+        return velocity;
+    }
+
+    /**
+     * Velocity of a driver braking before the stop line: the weakest braking that still stops in time.
+     */
+    static int slowDown(int velocity, int distanceToIntersection, int acceleration) {
+        int minimalRequiredAcceleration = acceleration;
+        while (minimalRequiredAcceleration > 0
+                && isAbleToStopWithAcceleration(velocity, distanceToIntersection, minimalRequiredAcceleration)) {
+            minimalRequiredAcceleration--;
+        }
+        return Math.max(0, velocity - minimalRequiredAcceleration - 1);
+    }
+
+    /**
+     * Braking by one per tick, the time to stop equals the velocity.
+     */
+    private static boolean isInSafeDistanceToIntersection(int velocity, int distanceToIntersection) {
+        return velocity < (int) (distanceToIntersection / (double) velocity);
+    }
+
+    private static boolean lightsJustChangedToYellow(TrafficLightColor trafficLightColor, TrafficLightColor previousTrafficLightColor) {
+        return previousTrafficLightColor != YELLOW && trafficLightColor == YELLOW;
+    }
+
+    private static boolean isAbleToStopBeforeIntersection(int velocity, int distanceToIntersection, int acceleration) {
+        return distanceToIntersection > 0 && distanceToStop(velocity, acceleration) < distanceToIntersection;
+    }
+
+    private static boolean isAbleToStopWithAcceleration(int velocity, int distanceToIntersection, int acceleration) {
+        int currentVelocity = velocity;
+        int distanceLeft = distanceToIntersection;
+        while (currentVelocity > 0) {
+            currentVelocity -= acceleration;
+            distanceLeft -= currentVelocity;
+        }
+        return distanceLeft > 0;
+    }
+
+    private static int distanceToStop(int velocity, int acceleration) {
+        int distanceToStop = 0;
+        int velocityInStep = velocity;
+        do {
+            velocityInStep -= acceleration;
+            distanceToStop += velocityInStep;
+        } while (velocityInStep > 0);
+        return distanceToStop;
+    }
+}
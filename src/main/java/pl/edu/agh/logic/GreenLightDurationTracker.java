@@ -0,0 +1,85 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.YELLOW;
+
+public class GreenLightDurationTracker {
+    private final Map<Street, Float> totalGreenLightDurations = new EnumMap<>(Street.class);
+    private final Map<Street, Integer> numberOfGreenLightPeriods = new EnumMap<>(Street.class);
+    private int currentLightGreenSince = 0;
+
+    public GreenLightDurationTracker() {
+        for (Street street : Street.values()) {
+            totalGreenLightDurations.put(street, 0.0f);
+            numberOfGreenLightPeriods.put(street, 0);
+        }
+    }
+
+    public void addLights(Map<Street, TrafficLightColor> previousLights, Map<Street, TrafficLightColor> currentLights) {
+        if (justChangedToYellow(previousLights, currentLights)) {
+            saveGreenLightDuration(previousLights);
+        } else if (justChangedToGreen(previousLights, currentLights)) {
+            currentLightGreenSince = 0;
+        } else if (hasGreenLightOn(currentLights)) {
+            currentLightGreenSince++;
+        }
+    }
+
+    public int getCurrentLightGreenSince() {
+        return currentLightGreenSince;
+    }
+
+    public void restore(float[] totalGreenLightDurations, int[] numberOfGreenLightPeriods, int currentLightGreenSince) {
+        for (Street street : Street.values()) {
+            this.totalGreenLightDurations.put(street, totalGreenLightDurations[street.ordinal()]);
+            this.numberOfGreenLightPeriods.put(street, numberOfGreenLightPeriods[street.ordinal()]);
+        }
+        this.currentLightGreenSince = currentLightGreenSince;
+    }
+
+    public float getTotalGreenLightDuration(Street street) {
+        return totalGreenLightDurations.get(street);
+    }
+
+    public int getNumberOfGreenLightPeriods(Street street) {
+        return numberOfGreenLightPeriods.get(street);
+    }
+
+    public float getAverageGreenLightDuration(Street street) {
+        return totalGreenLightDurations.get(street) / numberOfGreenLightPeriods.get(street);
+    }
+
+    private void saveGreenLightDuration(Map<Street, TrafficLightColor> previousLights) {
+        Street street = previousLights.get(NORTH_SOUTH) == GREEN ? NORTH_SOUTH : WEST_EAST;
+        totalGreenLightDurations.put(street, totalGreenLightDurations.get(street) + currentLightGreenSince);
+        numberOfGreenLightPeriods.put(street, numberOfGreenLightPeriods.get(street) + 1);
+    }
+
+    private boolean justChangedToYellow(Map<Street, TrafficLightColor> previousLights, Map<Street, TrafficLightColor> currentLights) {
+        return hasGreenLightOn(previousLights) && hasYellowLightOn(currentLights);
+    }
+
+    private boolean justChangedToGreen(Map<Street, TrafficLightColor> previousLights, Map<Street, TrafficLightColor> currentLights) {
+        return hasYellowLightOn(previousLights) && hasGreenLightOn(currentLights);
+    }
+
+    private boolean hasGreenLightOn(Map<Street, TrafficLightColor> lights) {
+        return hasLightOn(lights, GREEN);
+    }
+
+    private boolean hasYellowLightOn(Map<Street, TrafficLightColor> lights) {
+        return hasLightOn(lights, YELLOW);
+    }
+
+    private boolean hasLightOn(Map<Street, TrafficLightColor> lights, TrafficLightColor color) {
+        return lights.get(NORTH_SOUTH) == color || lights.get(WEST_EAST) == color;
+    }
+}
@@ -0,0 +1,60 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.model.IterationStats;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+public class IterationStatsHistoryWriter implements Closeable {
+    private static final String HEADER = "iteration,carsNorthSouth,carsWestEast,carsBeforeIntersectionNorthSouth,"
+            + "carsBeforeIntersectionWestEast,collisions,crossings,waitingOnRedOrYellow,averageVelocityNorthSouth,"
+            + "averageVelocityWestEast,averageVelocityBeforeIntersectionNorthSouth,averageVelocityBeforeIntersectionWestEast";
+    private final Writer writer;
+    private int iterationNo = 0;
+
+    public IterationStatsHistoryWriter(String filename) {
+        try {
+            this.writer = new BufferedWriter(Files.newBufferedWriter(Paths.get(filename), StandardCharsets.UTF_8));
+            writer.write(HEADER);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open statistics history file " + filename, e);
+        }
+    }
+
+    public void append(IterationStats stats) {
+        try {
+            writer.write(iterationNo++ + ","
+                    + stats.numberOfCarsPerStreet.get(NORTH_SOUTH) + ","
+                    + stats.numberOfCarsPerStreet.get(WEST_EAST) + ","
+                    + stats.numberOfCarsBeforeIntersection.get(NORTH_SOUTH) + ","
+                    + stats.numberOfCarsBeforeIntersection.get(WEST_EAST) + ","
+                    + stats.numberOfDetectedCollisions + ","
+                    + stats.numberOfDriversThatCrossedIntersection + ","
+                    + stats.numberOfDriversWaitingOnRedOrYellow + ","
+                    + stats.averageVelocityPerStreet.get(NORTH_SOUTH) + ","
+                    + stats.averageVelocityPerStreet.get(WEST_EAST) + ","
+                    + stats.averageVelocityBeforeIntersection.get(NORTH_SOUTH) + ","
+                    + stats.averageVelocityBeforeIntersection.get(WEST_EAST) + "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write statistics history", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close statistics history file", e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package pl.edu.agh.logic;
+
+import com.google.common.collect.ImmutableMap;
+import pl.edu.agh.messages.StatsUpdate;
+import pl.edu.agh.model.IterationStats;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+
+public class IterationStatsTracker {
+    private static final int STREETS_COUNT = Street.values().length;
+    private final SimulationStatsCalculator calculator;
+    private final int[] carsPerStreet = new int[STREETS_COUNT];
+    private final int[] carsBeforeIntersection = new int[STREETS_COUNT];
+    private final int[] velocityPerStreet = new int[STREETS_COUNT];
+    private final int[] velocityBeforeIntersection = new int[STREETS_COUNT];
+    private Map<Street, TrafficLightColor> currentLights;
+
+    public IterationStatsTracker(SimulationStatsCalculator calculator) {
+        this.calculator = calculator;
+    }
+
+    public void addUpdate(StatsUpdate statsUpdate) {
+        Map<Street, TrafficLightColor> previousLights = currentLights;
+        apply(statsUpdate);
+        if (previousLights == null) {
+            previousLights = currentLights;
+        }
+        calculator.addIteration(calculateIterationStats(statsUpdate), previousLights, currentLights);
+    }
+
+    private void apply(StatsUpdate message) {
+        for (int street = 0; street < STREETS_COUNT; street++) {
+            carsPerStreet[street] += message.spawnedVehicles[street] - message.removedVehicles[street];
+            carsBeforeIntersection[street] += message.vehiclesBeforeIntersectionChange[street];
+            velocityPerStreet[street] += message.velocitySumChange[street];
+            velocityBeforeIntersection[street] += message.velocityBeforeIntersectionSumChange[street];
+        }
+        if (message.changedLightColors != null) {
+            currentLights = message.changedLightColors;
+        }
+    }
+
+    private IterationStats calculateIterationStats(StatsUpdate message) {
+        return new IterationStats.Builder()
+                .numberOfCarsPerStreet(toStreetMap(carsPerStreet))
+                .numberOfCarsBeforeIntersection(toStreetMap(carsBeforeIntersection))
+                .numberOfDetectedCollisions(message.detectedCollisions)
+                .numberOfDriversThatCrossedIntersection(calculateNumberOfDriversThatCrossedIntersection(message))
+                .numberOfDriversWaitingOnRedOrYellow(calculateNumberOfDriversWaitingOnRedOrYellow())
+                .averageVelocityPerStreet(calculateAverageVelocity(velocityPerStreet, carsPerStreet))
+                .averageVelocityBeforeIntersection(calculateAverageVelocity(velocityBeforeIntersection, carsBeforeIntersection))
+                .build();
+    }
+
+    private int calculateNumberOfDriversThatCrossedIntersection(StatsUpdate message) {
+        int crossed = 0;
+        for (int street = 0; street < STREETS_COUNT; street++) {
+            crossed += message.crossedVehicles[street];
+        }
+        return crossed;
+    }
+
+    private int calculateNumberOfDriversWaitingOnRedOrYellow() {
+        return getDriversAwaitingBeforeRedOrYellow(NORTH_SOUTH) + getDriversAwaitingBeforeRedOrYellow(WEST_EAST);
+    }
+
+    private int getDriversAwaitingBeforeRedOrYellow(Street street) {
+        if (currentLights.get(street) != GREEN) {
+            return carsBeforeIntersection[street.ordinal()];
+        }
+        return 0;
+    }
+
+    private Map<Street, Integer> toStreetMap(int[] values) {
+        return ImmutableMap.<Street, Integer>builder()
+                .put(NORTH_SOUTH, values[NORTH_SOUTH.ordinal()])
+                .put(WEST_EAST, values[WEST_EAST.ordinal()])
+                .build();
+    }
+
+    private Map<Street, Float> calculateAverageVelocity(int[] totalVelocities, int[] numbersOfDrivers) {
+        return ImmutableMap.<Street, Float>builder()
+                .put(NORTH_SOUTH, calculateAverageVelocity(totalVelocities[NORTH_SOUTH.ordinal()], numbersOfDrivers[NORTH_SOUTH.ordinal()]))
+                .put(WEST_EAST, calculateAverageVelocity(totalVelocities[WEST_EAST.ordinal()], numbersOfDrivers[WEST_EAST.ordinal()]))
+                .build();
+    }
+
+    private Float calculateAverageVelocity(int totalVelocity, int numberOfDrivers) {
+        return numberOfDrivers == 0? 0.0f : ((float) totalVelocity / numberOfDrivers);
+    }
+
+}
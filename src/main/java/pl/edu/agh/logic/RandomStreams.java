@@ -0,0 +1,66 @@
+package pl.edu.agh.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * Derives independent random streams from one master seed. A stream depends only on the master
+ * seed and its stream id, never on which thread asks for it or in what order.
+ */
+public final class RandomStreams {
+    private static final long TRAFFIC_GENERATOR_STREAM = -1L;
+    private static final long FIRST_SOURCE_LINK_STREAM = -2L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private final long masterSeed;
+
+    public RandomStreams(Long masterSeed) {
+        this.masterSeed = masterSeed == null ? new SplittableRandom().nextLong() : masterSeed;
+    }
+
+    public long getMasterSeed() {
+        return masterSeed;
+    }
+
+    public ReplayableRandom trafficGeneratorStream() {
+        return new ReplayableRandom(new SplittableRandom(streamSeed(TRAFFIC_GENERATOR_STREAM)));
+    }
+
+    public long vehicleSeed(long vehicleId) {
+        return streamSeed(vehicleId);
+    }
+
+    /**
+     * Master seed for the traffic generator of one source link in a road network.
+     */
+    public long sourceLinkSeed(int link) {
+        return streamSeed(FIRST_SOURCE_LINK_STREAM - link);
+    }
+
+    public static ReplayableRandom vehicleStream(Long vehicleSeed) {
+        return new ReplayableRandom(vehicleSeed == null ? new SplittableRandom() : new SplittableRandom(vehicleSeed));
+    }
+
+    /**
+     * Standard normal value by the polar method; SplittableRandom has no nextGaussian on Java 8.
+     */
+    public static double nextGaussian(ReplayableRandom random) {
+        double x;
+        double y;
+        double s;
+        do {
+            x = 2 * random.nextDouble() - 1;
+            y = 2 * random.nextDouble() - 1;
+            s = x * x + y * y;
+        } while (s >= 1 || s == 0);
+        return x * Math.sqrt(-2 * Math.log(s) / s);
+    }
+
+    private long streamSeed(long streamId) {
+        return mix64(masterSeed + (streamId + 1) * GOLDEN_GAMMA);
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
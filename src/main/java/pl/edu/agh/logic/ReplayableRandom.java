@@ -0,0 +1,31 @@
+package pl.edu.agh.logic;
+
+import java.util.SplittableRandom;
+
+/**
+ * A seeded random stream that counts its draws. SplittableRandom does not expose its state, so a
+ * saved stream is restored by replaying the same number of draws from its seed.
+ */
+public final class ReplayableRandom {
+    private final SplittableRandom random;
+    private long draws = 0;
+
+    ReplayableRandom(SplittableRandom random) {
+        this.random = random;
+    }
+
+    public double nextDouble() {
+        draws++;
+        return random.nextDouble();
+    }
+
+    public long getDraws() {
+        return draws;
+    }
+
+    public void skipTo(long draws) {
+        while (this.draws < draws) {
+            nextDouble();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.StreetOccupancy;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.RED;
+
+public class SelfOrganizingTrafficLightsLogic extends TrafficLightsLogic {
+    private final Map<Street, Integer> streetCounters = new HashMap<Street, Integer>();
+
+    public SelfOrganizingTrafficLightsLogic(TrafficLightsConfiguration configuration) {
+        super(configuration);
+        streetCounters.put(WEST_EAST, 0);
+        streetCounters.put(NORTH_SOUTH, 0);
+    }
+
+    @Override
+    protected void updateState(IntersectionSurrounding intersectionSurrounding) {
+        updateCounters(intersectionSurrounding.occupancy);
+    }
+
+    @Override
+    protected boolean shouldSwitchGreenToYellow(IntersectionSurrounding intersectionSurrounding) {
+        if (getCurrentLightGreenSince() < configuration.minimumGreenTime) {
+            return false;
+        }
+        StreetOccupancy occupancy = intersectionSurrounding.occupancy;
+        if (fewCarsLeftInShortDistance(occupancy, getStreetOn(GREEN))) {
+            return false;
+        }
+        if (noOneOnGreenDirection(occupancy, getStreetOn(GREEN)) && isAnyoneAwaitingOnRed(occupancy, getStreetOn(RED))) {
+            return true;
+        }
+        if (redStreetColorCounter() > configuration.counterLimitValue) {
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected int[] getControllerCounters() {
+        int[] counters = new int[Street.values().length];
+        for (Street street : Street.values()) {
+            counters[street.ordinal()] = streetCounters.get(street);
+        }
+        return counters;
+    }
+
+    @Override
+    protected void restoreControllerCounters(int[] counters) {
+        for (Street street : Street.values()) {
+            streetCounters.put(street, counters[street.ordinal()]);
+        }
+    }
+
+    private void updateCounters(StreetOccupancy occupancy) {
+        if (getLightColorOn(NORTH_SOUTH).equals(RED)) {
+            streetCounters.put(NORTH_SOUTH, streetCounters.get(NORTH_SOUTH) + occupancy.countWithin(NORTH_SOUTH, configuration.longSupervisedDistance));
+        }
+        if (getLightColorOn(WEST_EAST).equals(RED)) {
+            streetCounters.put(WEST_EAST, streetCounters.get(WEST_EAST) + occupancy.countWithin(WEST_EAST, configuration.longSupervisedDistance));
+        }
+    }
+
+    private boolean fewCarsLeftInShortDistance(StreetOccupancy occupancy, Street streetOnGreen) {
+        int awaitingOnGreen = occupancy.countWithin(streetOnGreen, configuration.shortSupervisedDistance);
+        return awaitingOnGreen < configuration.shortSupervisedDistanceMaxCarsNo && awaitingOnGreen > 0;
+    }
+
+    private boolean isAnyoneAwaitingOnRed(StreetOccupancy occupancy, Street streetOnRed) {
+        return occupancy.countWithin(streetOnRed, configuration.longSupervisedDistance) > 0;
+    }
+
+    private boolean noOneOnGreenDirection(StreetOccupancy occupancy, Street streetOnGreen) {
+        return occupancy.countWithin(streetOnGreen, configuration.longSupervisedDistance) == 0;
+    }
+
+    private Integer redStreetColorCounter() {
+        if (getLightColorOn(NORTH_SOUTH).equals(RED)) {
+            return streetCounters.get(NORTH_SOUTH);
+        }
+        return streetCounters.get(WEST_EAST);
+    }
+
+    private Street getStreetOn(TrafficLightColor color) {
+        if (getLightColorOn(NORTH_SOUTH).equals(color)) {
+            return NORTH_SOUTH;
+        }
+        return WEST_EAST;
+    }
+}
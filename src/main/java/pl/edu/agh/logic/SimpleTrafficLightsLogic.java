@@ -0,0 +1,29 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.messages.IntersectionSurrounding;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+
+public class SimpleTrafficLightsLogic extends TrafficLightsLogic {
+
+    public SimpleTrafficLightsLogic(TrafficLightsConfiguration configuration) {
+        super(configuration);
+    }
+
+    @Override
+    protected void updateState(IntersectionSurrounding intersectionSurrounding) {}
+
+    @Override
+    protected boolean shouldSwitchGreenToYellow(IntersectionSurrounding intersectionSurrounding) {
+        int expectedGreenLightDuration;
+        if (getLightColorOn(NORTH_SOUTH) == GREEN) {
+            expectedGreenLightDuration = configuration.northSouthGreenLightDuration;
+        } else {
+            expectedGreenLightDuration = configuration.westEastGreenLightDuration;
+        }
+        return getCurrentLightGreenSince() >= expectedGreenLightDuration;
+    }
+
+}
@@ -0,0 +1,156 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.model.IterationStats;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.model.SimulationStatsState;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.timeseries.StatsSeriesWriter;
+
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+public class SimulationStatsCalculator {
+    private final IterationStatsHistoryWriter historyWriter;
+    private final StatsSeriesWriter seriesWriter;
+    private final GreenLightDurationTracker greenLightDurations = new GreenLightDurationTracker();
+    private final float convergenceRelativeTolerance;
+    private final int convergenceMinIterations;
+    private final BatchMeans velocity = new BatchMeans();
+    private final BatchMeans crossings = new BatchMeans();
+    private final BatchMeans waitingCars = new BatchMeans();
+    private int numberOfIterations = 0;
+    private int totalNumberOfCollisions = 0;
+    private float totalVelocity = 0.0f;
+    private int totalCars = 0;
+    private float totalCrossings = 0.0f;
+    private float totalNumberOfWaitingCars = 0.0f;
+
+    public SimulationStatsCalculator() {
+        this(null);
+    }
+
+    public SimulationStatsCalculator(String historyFilename) {
+        this(historyFilename, 0.0f, 0);
+    }
+
+    /**
+     * With a positive {@code convergenceRelativeTolerance} the averages are also tracked by batch means,
+     * see {@link #hasConverged()}.
+     */
+    public SimulationStatsCalculator(String historyFilename, float convergenceRelativeTolerance, int convergenceMinIterations) {
+        this(historyFilename, null, convergenceRelativeTolerance, convergenceMinIterations);
+    }
+
+    /**
+     * {@code seriesFilename} receives the same per-iteration statistics as the history file, written
+     * by a {@link StatsSeriesWriter} in compressed columns.
+     */
+    public SimulationStatsCalculator(String historyFilename,
+                                     String seriesFilename,
+                                     float convergenceRelativeTolerance,
+                                     int convergenceMinIterations) {
+        this.historyWriter = historyFilename == null ? null : new IterationStatsHistoryWriter(historyFilename);
+        this.seriesWriter = seriesFilename == null ? null : new StatsSeriesWriter(seriesFilename);
+        this.convergenceRelativeTolerance = convergenceRelativeTolerance;
+        this.convergenceMinIterations = convergenceMinIterations;
+    }
+
+    public void addIteration(IterationStats stats,
+                             Map<Street, TrafficLightColor> previousLights,
+                             Map<Street, TrafficLightColor> currentLights) {
+        accumulate(stats);
+        if (historyWriter != null) {
+            historyWriter.append(stats);
+        }
+        if (seriesWriter != null) {
+            seriesWriter.append(numberOfIterations - 1, stats);
+        }
+        greenLightDurations.addLights(previousLights, currentLights);
+    }
+
+    /**
+     * True once the confidence intervals of the average velocity, crossings and waiting cars are all
+     * narrower than the relative tolerance, but not before the minimum number of iterations.
+     */
+    public boolean hasConverged() {
+        return convergenceRelativeTolerance > 0
+                && numberOfIterations >= convergenceMinIterations
+                && velocity.isWithin(convergenceRelativeTolerance)
+                && crossings.isWithin(convergenceRelativeTolerance)
+                && waitingCars.isWithin(convergenceRelativeTolerance);
+    }
+
+    public int getNumberOfIterations() {
+        return numberOfIterations;
+    }
+
+    public SimulationStats calculateSimulationStats() {
+        if (historyWriter != null) {
+            historyWriter.close();
+        }
+        if (seriesWriter != null) {
+            seriesWriter.close();
+        }
+        float averageVelocity = totalVelocity / totalCars;
+        float averageNumberOfIntersectionCrossings = totalCrossings / numberOfIterations;
+        float averageNumberOfCarsWaitingOnRedOrYellow = totalNumberOfWaitingCars / numberOfIterations;
+        float averageGreenLightDurationOnNorthSouth = calculateAverageGreenLightDuration(NORTH_SOUTH);
+        float averageGreenLightDurationOnWestEast = calculateAverageGreenLightDuration(WEST_EAST);
+        if (convergenceRelativeTolerance <= 0) {
+            return new SimulationStats(averageVelocity, totalNumberOfCollisions,
+                    averageNumberOfIntersectionCrossings, averageNumberOfCarsWaitingOnRedOrYellow,
+                    averageGreenLightDurationOnNorthSouth, averageGreenLightDurationOnWestEast);
+        }
+        return new SimulationStats(averageVelocity, totalNumberOfCollisions,
+                averageNumberOfIntersectionCrossings, averageNumberOfCarsWaitingOnRedOrYellow,
+                averageGreenLightDurationOnNorthSouth, averageGreenLightDurationOnWestEast,
+                (float) velocity.getHalfWidth(), (float) crossings.getHalfWidth(), (float) waitingCars.getHalfWidth());
+    }
+
+    public SimulationStatsState getState() {
+        float[] totalGreenLightDurations = new float[Street.values().length];
+        int[] numberOfGreenLightPeriods = new int[Street.values().length];
+        for (Street street : Street.values()) {
+            totalGreenLightDurations[street.ordinal()] = greenLightDurations.getTotalGreenLightDuration(street);
+            numberOfGreenLightPeriods[street.ordinal()] = greenLightDurations.getNumberOfGreenLightPeriods(street);
+        }
+        return new SimulationStatsState(numberOfIterations, totalNumberOfCollisions, totalVelocity, totalCars,
+                totalCrossings, totalNumberOfWaitingCars, totalGreenLightDurations, numberOfGreenLightPeriods,
+                greenLightDurations.getCurrentLightGreenSince());
+    }
+
+    public void restoreState(SimulationStatsState state) {
+        numberOfIterations = state.numberOfIterations;
+        totalNumberOfCollisions = state.totalNumberOfCollisions;
+        totalVelocity = state.totalVelocity;
+        totalCars = state.totalCars;
+        totalCrossings = state.totalCrossings;
+        totalNumberOfWaitingCars = state.totalNumberOfWaitingCars;
+        greenLightDurations.restore(state.totalGreenLightDurations, state.numberOfGreenLightPeriods, state.currentLightGreenSince);
+    }
+
+    private void accumulate(IterationStats stats) {
+        numberOfIterations++;
+        totalNumberOfCollisions += stats.numberOfDetectedCollisions;
+        totalVelocity += stats.averageVelocityPerStreet.get(NORTH_SOUTH) * stats.numberOfCarsPerStreet.get(NORTH_SOUTH);
+        totalVelocity += stats.averageVelocityPerStreet.get(WEST_EAST) * stats.numberOfCarsPerStreet.get(WEST_EAST);
+        totalCars += stats.numberOfCarsPerStreet.get(NORTH_SOUTH);
+        totalCars += stats.numberOfCarsPerStreet.get(WEST_EAST);
+        totalCrossings += stats.numberOfDriversThatCrossedIntersection;
+        totalNumberOfWaitingCars += stats.numberOfDriversWaitingOnRedOrYellow;
+        if (convergenceRelativeTolerance > 0) {
+            int cars = stats.numberOfCarsPerStreet.get(NORTH_SOUTH) + stats.numberOfCarsPerStreet.get(WEST_EAST);
+            velocity.add(stats.averageVelocityPerStreet.get(NORTH_SOUTH) * stats.numberOfCarsPerStreet.get(NORTH_SOUTH)
+                    + stats.averageVelocityPerStreet.get(WEST_EAST) * stats.numberOfCarsPerStreet.get(WEST_EAST), cars);
+            crossings.add(stats.numberOfDriversThatCrossedIntersection, 1);
+            waitingCars.add(stats.numberOfDriversWaitingOnRedOrYellow, 1);
+        }
+    }
+
+    private float calculateAverageGreenLightDuration(Street street) {
+        return greenLightDurations.getAverageGreenLightDuration(street);
+    }
+}
@@ -0,0 +1,181 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.StreetOccupancy;
+import pl.edu.agh.model.TrafficGenerationState;
+import pl.edu.agh.trace.TraceArrival;
+import pl.edu.agh.trace.TrafficTraceReader;
+import pl.edu.agh.trace.TrafficTraceWriter;
+
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+public class TrafficGenerationLogic {
+    public static final int MAX_WAITING_ARRIVALS = 4096;
+    private static final Integer DEFAULT_CAR_LENGTH = 2;
+    private final RandomStreams randomStreams;
+    private final ReplayableRandom random;
+    private final Map<Street, Float> newCarProbability;
+    private final DriverConfiguration baseConfiguration;
+    private final Integer initialDistanceToCrossing;
+    private final TrafficTraceReader trace;
+    private final TrafficTraceWriter traceRecorder;
+    private final Map<Street, ArrayDeque<DriverConfiguration>> waitingArrivals = new EnumMap<>(Street.class);
+    private TraceArrival nextArrival;
+    private long droppedArrivals = 0;
+    private long generatedVehicles = 0;
+
+    public TrafficGenerationLogic(Map<Street, Float> newCarProbability,
+                                  DriverConfiguration baseConfiguration,
+                                  Integer initialDistanceToCrossing,
+                                  Long randomSeed) {
+        this(newCarProbability, baseConfiguration, initialDistanceToCrossing, randomSeed, null, null);
+    }
+
+    /**
+     * With a {@code trace} the vehicles arrive as listed in it instead of at random. An arrival that
+     * finds the beginning of its street occupied waits and enters as soon as there is room; once
+     * {@link #MAX_WAITING_ARRIVALS} are waiting on a street, further arrivals on it are dropped and
+     * counted. Every vehicle entering a street is written to {@code traceRecorder}, when given.
+     */
+    public TrafficGenerationLogic(Map<Street, Float> newCarProbability,
+                                  DriverConfiguration baseConfiguration,
+                                  Integer initialDistanceToCrossing,
+                                  Long randomSeed,
+                                  TrafficTraceReader trace,
+                                  TrafficTraceWriter traceRecorder) {
+        this.newCarProbability = newCarProbability;
+        this.baseConfiguration = baseConfiguration;
+        this.initialDistanceToCrossing = initialDistanceToCrossing;
+        this.randomStreams = new RandomStreams(randomSeed);
+        this.random = randomStreams.trafficGeneratorStream();
+        this.trace = trace;
+        this.traceRecorder = traceRecorder;
+        for (Street street : Street.values()) {
+            waitingArrivals.put(street, new ArrayDeque<>());
+        }
+        if (trace != null) {
+            this.nextArrival = trace.next();
+        }
+    }
+
+    public TrafficGenerationLogic(Map<Street, Float> newCarProbability,
+                                  DriverConfiguration baseConfiguration,
+                                  Integer initialDistanceToCrossing,
+                                  TrafficGenerationState state) {
+        this(newCarProbability, baseConfiguration, initialDistanceToCrossing, state.masterSeed);
+        this.generatedVehicles = state.generatedVehicles;
+        this.random.skipTo(state.randomDraws);
+    }
+
+    public TrafficGenerationState getState() {
+        return new TrafficGenerationState(randomStreams.getMasterSeed(), generatedVehicles, random.getDraws());
+    }
+
+    public DriverConfiguration generateDriverConfiguration() {
+        return new DriverConfiguration.Builder()
+                .acceleration(max(1, baseConfiguration.acceleration + (int) RandomStreams.nextGaussian(random)))
+                .carLength(max(1, baseConfiguration.carLength + (int) RandomStreams.nextGaussian(random)))
+                .initialDistanceToIntersection(initialDistanceToCrossing)
+                .carWidth(baseConfiguration.carWidth)
+                .maxVelocity(max(1, baseConfiguration.maxVelocity + (int) RandomStreams.nextGaussian(random)))
+                .yellowLightGoProbability((float)max(0, min(1, baseConfiguration.yellowLightGoProbability + RandomStreams.nextGaussian(random)/10)))
+                .randomSeed(randomStreams.vehicleSeed(generatedVehicles++))
+                .build();
+    }
+
+    /**
+     * Vehicles starting the simulation, one on each street unless replaying a trace.
+     */
+    public Optional<DriverConfiguration> generateInitialTraffic(Street street) {
+        if (trace != null) {
+            return generateTraffic(true, street, 0);
+        }
+        return record(0, street, Optional.of(generateDriverConfiguration()));
+    }
+
+    public Optional<DriverConfiguration> generateTraffic(boolean isGenerationPossible, Street street, int iterationNo) {
+        if (trace == null) {
+            return record(iterationNo, street, generateTraffic(isGenerationPossible, street));
+        }
+        while (nextArrival != null && nextArrival.tick <= iterationNo) {
+            ArrayDeque<DriverConfiguration> waiting = waitingArrivals.get(nextArrival.street);
+            if (waiting.size() < MAX_WAITING_ARRIVALS) {
+                waiting.add(toDriverConfiguration(nextArrival));
+            } else {
+                droppedArrivals++;
+            }
+            nextArrival = trace.next();
+        }
+        ArrayDeque<DriverConfiguration> waiting = waitingArrivals.get(street);
+        if (isGenerationPossible && !waiting.isEmpty()) {
+            return record(iterationNo, street, Optional.of(waiting.poll()));
+        }
+        return Optional.empty();
+    }
+
+    public boolean isReplayingTrace() {
+        return trace != null;
+    }
+
+    public String traceBacklogSummary() {
+        StringBuilder summary = new StringBuilder();
+        for (Street street : Street.values()) {
+            summary.append(street).append(" waiting=").append(waitingArrivals.get(street).size()).append(' ');
+        }
+        return summary.append("dropped=").append(droppedArrivals).toString();
+    }
+
+    public void close() {
+        if (trace != null) {
+            trace.close();
+        }
+        if (traceRecorder != null) {
+            traceRecorder.close();
+        }
+    }
+
+    public Optional<DriverConfiguration> generateTraffic(boolean isGenerationPossible, Street street) {
+        if (isGenerationPossible && (random.nextDouble() < newCarProbability.get(street))) {
+            return Optional.of(generateDriverConfiguration());
+        }
+        return Optional.empty();
+    }
+
+    private DriverConfiguration toDriverConfiguration(TraceArrival arrival) {
+        return new DriverConfiguration.Builder()
+                .acceleration(arrival.acceleration)
+                .carLength(arrival.carLength)
+                .initialDistanceToIntersection(initialDistanceToCrossing)
+                .carWidth(baseConfiguration.carWidth)
+                .maxVelocity(arrival.maxVelocity)
+                .yellowLightGoProbability(arrival.yellowLightGoProbability)
+                .randomSeed(arrival.randomSeed != null ? arrival.randomSeed : randomStreams.vehicleSeed(generatedVehicles++))
+                .build();
+    }
+
+    private Optional<DriverConfiguration> record(int iterationNo, Street street, Optional<DriverConfiguration> traffic) {
+        if (traceRecorder != null && traffic.isPresent()) {
+            traceRecorder.record(iterationNo, street, traffic.get());
+        }
+        return traffic;
+    }
+
+    public boolean isGenerationPossible(StreetOccupancy occupancy, Street street) {
+        return occupancy.countWithin(street, getStreetBeginningLimit() + 1) == 0;
+    }
+
+    public boolean isOnStreetBeginning(Integer positionOnStreet) {
+        return positionOnStreet <= getStreetBeginningLimit();
+    }
+
+    public int getStreetBeginningLimit() {
+        return initialDistanceToCrossing - DEFAULT_CAR_LENGTH;
+    }
+}
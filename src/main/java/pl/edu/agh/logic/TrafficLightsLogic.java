@@ -0,0 +1,111 @@
+package pl.edu.agh.logic;
+
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.model.TrafficLightsState;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.RED;
+import static pl.edu.agh.model.TrafficLightColor.YELLOW;
+
+public abstract class TrafficLightsLogic {
+    protected final TrafficLightsConfiguration configuration;
+    private final Map<Street, TrafficLightColor> streetToLightColor = new HashMap<Street, TrafficLightColor>();
+    private Integer currentLightGreenSince = 0;
+    private Integer currentLightYellowSince = 0;
+
+    protected TrafficLightsLogic(TrafficLightsConfiguration configuration) {
+        this.configuration = configuration;
+        streetToLightColor.put(WEST_EAST, GREEN);
+        streetToLightColor.put(NORTH_SOUTH, RED);
+    }
+
+    public Map<Street, TrafficLightColor> update(IntersectionSurrounding intersectionSurrounding) {
+        updateState(intersectionSurrounding);
+        if (isYellowLightOn()) {
+            if (currentLightYellowSince < configuration.yellowLightDuration) {
+                currentLightYellowSince++;
+            } else {
+                switchLightsGreen();
+            }
+            return new HashMap<>(streetToLightColor);
+        }
+
+        currentLightGreenSince++;
+
+        if (shouldSwitchGreenToYellow(intersectionSurrounding)) {
+            switchLightsYellow();
+        }
+        return new HashMap<>(streetToLightColor);
+    }
+
+    private boolean isYellowLightOn() {
+        return streetToLightColor.get(NORTH_SOUTH) == YELLOW || streetToLightColor.get(WEST_EAST) == YELLOW;
+    }
+
+    private void switchLightsGreen() {
+        if (streetToLightColor.get(NORTH_SOUTH).equals(RED)) {
+            streetToLightColor.put(NORTH_SOUTH, GREEN);
+            streetToLightColor.put(WEST_EAST, RED);
+        } else {
+            streetToLightColor.put(NORTH_SOUTH, RED);
+            streetToLightColor.put(WEST_EAST, GREEN);
+        }
+        currentLightYellowSince = 0;
+    }
+
+    private void switchLightsYellow() {
+        if (streetToLightColor.get(NORTH_SOUTH).equals(RED)) {
+            streetToLightColor.put(WEST_EAST, YELLOW);
+        } else {
+            streetToLightColor.put(NORTH_SOUTH, YELLOW);
+        }
+        currentLightYellowSince = 1;
+        currentLightGreenSince = 0;
+    }
+
+    public TrafficLightsState getState() {
+        return new TrafficLightsState(getClass().getName(), new EnumMap<>(streetToLightColor),
+                currentLightGreenSince, currentLightYellowSince, getControllerCounters());
+    }
+
+    /**
+     * Counters specific to the controller are restored only from a state saved by the same class,
+     * so a run can be forked with a different controller that takes over the current lights.
+     */
+    public void restoreState(TrafficLightsState state) {
+        streetToLightColor.putAll(state.streetToLightColor);
+        currentLightGreenSince = state.currentLightGreenSince;
+        currentLightYellowSince = state.currentLightYellowSince;
+        if (getClass().getName().equals(state.controller)) {
+            restoreControllerCounters(state.controllerCounters);
+        }
+    }
+
+    protected int[] getControllerCounters() {
+        return new int[0];
+    }
+
+    protected void restoreControllerCounters(int[] counters) {}
+
+    protected TrafficLightColor getLightColorOn(Street street) {
+        return streetToLightColor.get(street);
+    }
+
+    protected int getCurrentLightGreenSince() {
+        return currentLightGreenSince;
+    }
+
+    protected abstract void updateState(IntersectionSurrounding intersectionSurrounding);
+
+    protected abstract boolean shouldSwitchGreenToYellow(IntersectionSurrounding intersectionSurrounding);
+
+}
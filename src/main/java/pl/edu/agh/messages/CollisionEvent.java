@@ -0,0 +1,18 @@
+package pl.edu.agh.messages;
+
+public class CollisionEvent<T> {
+    public final int iterationNo;
+    public final T westEastVehicle;
+    public final T northSouthVehicle;
+
+    public CollisionEvent(int iterationNo, T westEastVehicle, T northSouthVehicle) {
+        this.iterationNo = iterationNo;
+        this.westEastVehicle = westEastVehicle;
+        this.northSouthVehicle = northSouthVehicle;
+    }
+
+    @Override
+    public String toString() {
+        return "Collision in iteration " + iterationNo + " between " + westEastVehicle + " and " + northSouthVehicle;
+    }
+}
@@ -0,0 +1,8 @@
+package pl.edu.agh.messages;
+
+/**
+ * Sent by the StatisticsCollector to the Supervisor once the confidence intervals are narrow enough,
+ * the Supervisor then ends the simulation at the next tick.
+ */
+public final class ConvergenceReached {
+}
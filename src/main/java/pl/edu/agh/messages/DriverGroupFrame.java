@@ -0,0 +1,26 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.Map;
+
+public class DriverGroupFrame {
+    public final int[] vehicleIds;
+    public final int[] carAheadDistances;
+    public final TrafficLightColor[] trafficLightColors;
+    public final TrafficLightColor[] previousTrafficLightColors;
+    public final Map<Integer, DriverConfiguration> newVehicles;
+
+    public DriverGroupFrame(int[] vehicleIds,
+                            int[] carAheadDistances,
+                            TrafficLightColor[] trafficLightColors,
+                            TrafficLightColor[] previousTrafficLightColors,
+                            Map<Integer, DriverConfiguration> newVehicles) {
+        this.vehicleIds = vehicleIds;
+        this.carAheadDistances = carAheadDistances;
+        this.trafficLightColors = trafficLightColors;
+        this.previousTrafficLightColors = previousTrafficLightColors;
+        this.newVehicles = newVehicles;
+    }
+}
@@ -0,0 +1,13 @@
+package pl.edu.agh.messages;
+
+public class DriverGroupUpdate {
+    public final int[] vehicleIds;
+    public final int[] newDistancesToIntersection;
+    public final int[] currentVelocities;
+
+    public DriverGroupUpdate(int[] vehicleIds, int[] newDistancesToIntersection, int[] currentVelocities) {
+        this.vehicleIds = vehicleIds;
+        this.newDistancesToIntersection = newDistancesToIntersection;
+        this.currentVelocities = currentVelocities;
+    }
+}
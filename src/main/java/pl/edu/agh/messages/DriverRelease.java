@@ -0,0 +1,14 @@
+package pl.edu.agh.messages;
+
+import akka.actor.ActorRef;
+
+/**
+ * Returns the Driver actor of a car that left the simulation to the pool of the TrafficGenerator.
+ */
+public class DriverRelease {
+    public final ActorRef driver;
+
+    public DriverRelease(ActorRef driver) {
+        this.driver = driver;
+    }
+}
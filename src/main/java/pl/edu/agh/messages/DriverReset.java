@@ -0,0 +1,14 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+
+/**
+ * Reuses a pooled Driver actor for a new car. Sent by the Supervisor ahead of the first tick of the car.
+ */
+public class DriverReset {
+    public final DriverConfiguration configuration;
+
+    public DriverReset(DriverConfiguration configuration) {
+        this.configuration = configuration;
+    }
+}
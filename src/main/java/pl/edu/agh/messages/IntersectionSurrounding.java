@@ -1,17 +1,13 @@
 package pl.edu.agh.messages;
 
-import pl.edu.agh.model.DriverState;
-import pl.edu.agh.model.Street;
-
-import java.util.Map;
-import java.util.Set;
+import pl.edu.agh.model.StreetOccupancy;
 
 public class IntersectionSurrounding {
-    public final Map<Street, Set<DriverState>> streetToDrivers;
+    public final StreetOccupancy occupancy;
     public final Boolean isInitialMessage;
 
-    public IntersectionSurrounding(Map<Street, Set<DriverState>> streetToDrivers, Boolean isInitialMessage) {
-        this.streetToDrivers = streetToDrivers;
+    public IntersectionSurrounding(StreetOccupancy occupancy, Boolean isInitialMessage) {
+        this.occupancy = occupancy;
         this.isInitialMessage = isInitialMessage;
     }
 }
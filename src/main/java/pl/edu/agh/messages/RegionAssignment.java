@@ -0,0 +1,32 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+
+import java.io.Serializable;
+
+public final class RegionAssignment implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int region;
+    public final int regions;
+    public final long masterSeed;
+    public final DriverConfiguration baseDriverConfiguration;
+    public final TrafficLightsConfiguration trafficLightsConfiguration;
+    public final WorldConfiguration worldConfiguration;
+
+    public RegionAssignment(int region,
+                            int regions,
+                            long masterSeed,
+                            DriverConfiguration baseDriverConfiguration,
+                            TrafficLightsConfiguration trafficLightsConfiguration,
+                            WorldConfiguration worldConfiguration) {
+        this.region = region;
+        this.regions = regions;
+        this.masterSeed = masterSeed;
+        this.baseDriverConfiguration = baseDriverConfiguration;
+        this.trafficLightsConfiguration = trafficLightsConfiguration;
+        this.worldConfiguration = worldConfiguration;
+    }
+}
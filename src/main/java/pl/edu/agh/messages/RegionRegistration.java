@@ -0,0 +1,13 @@
+package pl.edu.agh.messages;
+
+import java.io.Serializable;
+
+public final class RegionRegistration implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int region;
+
+    public RegionRegistration(int region) {
+        this.region = region;
+    }
+}
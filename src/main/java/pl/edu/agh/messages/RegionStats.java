@@ -0,0 +1,37 @@
+package pl.edu.agh.messages;
+
+import java.io.Serializable;
+
+/**
+ * Statistics accumulated by one region of a road network, indexed by {@code Street.ordinal()} where per street.
+ */
+public final class RegionStats implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int region;
+    public final long totalVelocity;
+    public final long totalVehicleTicks;
+    public final long totalCrossings;
+    public final long totalWaiting;
+    public final long totalCollisions;
+    public final float[] totalGreenLightDurations;
+    public final int[] numberOfGreenLightPeriods;
+
+    public RegionStats(int region,
+                       long totalVelocity,
+                       long totalVehicleTicks,
+                       long totalCrossings,
+                       long totalWaiting,
+                       long totalCollisions,
+                       float[] totalGreenLightDurations,
+                       int[] numberOfGreenLightPeriods) {
+        this.region = region;
+        this.totalVelocity = totalVelocity;
+        this.totalVehicleTicks = totalVehicleTicks;
+        this.totalCrossings = totalCrossings;
+        this.totalWaiting = totalWaiting;
+        this.totalCollisions = totalCollisions;
+        this.totalGreenLightDurations = totalGreenLightDurations;
+        this.numberOfGreenLightPeriods = numberOfGreenLightPeriods;
+    }
+}
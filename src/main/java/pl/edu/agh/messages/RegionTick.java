@@ -0,0 +1,24 @@
+package pl.edu.agh.messages;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Everything a region needs from the rest of the network for one tick: vehicles handed over to it
+ * in the previous tick and the rear positions of foreign links its own links lead to.
+ */
+public final class RegionTick implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int iterationNo;
+    public final List<VehicleHandover> handovers;
+    public final int[] rearPositionLinks;
+    public final int[] rearPositions;
+
+    public RegionTick(int iterationNo, List<VehicleHandover> handovers, int[] rearPositionLinks, int[] rearPositions) {
+        this.iterationNo = iterationNo;
+        this.handovers = handovers;
+        this.rearPositionLinks = rearPositionLinks;
+        this.rearPositions = rearPositions;
+    }
+}
@@ -0,0 +1,30 @@
+package pl.edu.agh.messages;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Vehicles leaving a region in one tick, batched for all target regions, together with the rear
+ * positions of the region's links entered from other regions.
+ */
+public final class RegionTickResult implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final int region;
+    public final int iterationNo;
+    public final List<VehicleHandover> handovers;
+    public final int[] rearPositionLinks;
+    public final int[] rearPositions;
+
+    public RegionTickResult(int region,
+                            int iterationNo,
+                            List<VehicleHandover> handovers,
+                            int[] rearPositionLinks,
+                            int[] rearPositions) {
+        this.region = region;
+        this.iterationNo = iterationNo;
+        this.handovers = handovers;
+        this.rearPositionLinks = rearPositionLinks;
+        this.rearPositions = rearPositions;
+    }
+}
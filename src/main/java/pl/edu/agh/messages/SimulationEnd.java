@@ -1,4 +1,7 @@
 package pl.edu.agh.messages;
 
-public final class SimulationEnd {
+import java.io.Serializable;
+
+public final class SimulationEnd implements Serializable {
+    private static final long serialVersionUID = 1L;
 }
@@ -1,15 +1,44 @@
 package pl.edu.agh.messages;
 
-import pl.edu.agh.model.WorldSnapshot;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
 
+import java.util.Map;
+
+/**
+ * Changes to the world since the previous StatsUpdate. Per-street arrays are indexed by
+ * {@link Street#ordinal()}; {@code changedLightColors} is null when the lights did not change.
+ */
 public class StatsUpdate {
     public final int detectedCollisions;
-    public final WorldSnapshot previousSnapshot;
-    public final WorldSnapshot currentSnapshot;
+    public final int[] spawnedVehicles;
+    public final int[] removedVehicles;
+    public final int[] crossedVehicles;
+    public final int[] vehiclesBeforeIntersectionChange;
+    public final int[] velocitySumChange;
+    public final int[] velocityBeforeIntersectionSumChange;
+    public final Map<Street, TrafficLightColor> changedLightColors;
 
-    public StatsUpdate(int detectedCollisions, WorldSnapshot previousSnapshot, WorldSnapshot currentSnapshot) {
+    public StatsUpdate(int detectedCollisions,
+                       int[] spawnedVehicles,
+                       int[] removedVehicles,
+                       int[] crossedVehicles,
+                       int[] vehiclesBeforeIntersectionChange,
+                       int[] velocitySumChange,
+                       int[] velocityBeforeIntersectionSumChange,
+                       Map<Street, TrafficLightColor> changedLightColors) {
         this.detectedCollisions = detectedCollisions;
-        this.previousSnapshot = previousSnapshot;
-        this.currentSnapshot = currentSnapshot;
+        this.spawnedVehicles = spawnedVehicles;
+        this.removedVehicles = removedVehicles;
+        this.crossedVehicles = crossedVehicles;
+        this.vehiclesBeforeIntersectionChange = vehiclesBeforeIntersectionChange;
+        this.velocitySumChange = velocitySumChange;
+        this.velocityBeforeIntersectionSumChange = velocityBeforeIntersectionSumChange;
+        this.changedLightColors = changedLightColors;
+    }
+
+    public StatsUpdate withDetectedCollisions(int detectedCollisions) {
+        return new StatsUpdate(detectedCollisions, spawnedVehicles, removedVehicles, crossedVehicles,
+                vehiclesBeforeIntersectionChange, velocitySumChange, velocityBeforeIntersectionSumChange, changedLightColors);
     }
 }
@@ -0,0 +1,22 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.model.TrafficLightColor;
+
+/**
+ * One frame per tick shared by all Driver actors, each reading the slot of its own vehicle id.
+ * Light colours are indexed by {@link pl.edu.agh.model.Street#ordinal()}, gaps by vehicle id.
+ * The arrays are never modified after the frame is sent.
+ */
+public class TickFrame {
+    public final TrafficLightColor[] trafficLightColors;
+    public final TrafficLightColor[] previousTrafficLightColors;
+    public final int[] carAheadDistances;
+
+    public TickFrame(TrafficLightColor[] trafficLightColors,
+                     TrafficLightColor[] previousTrafficLightColors,
+                     int[] carAheadDistances) {
+        this.trafficLightColors = trafficLightColors;
+        this.previousTrafficLightColors = previousTrafficLightColors;
+        this.carAheadDistances = carAheadDistances;
+    }
+}
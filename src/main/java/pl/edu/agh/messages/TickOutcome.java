@@ -0,0 +1,30 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.journal.JournalFrame;
+
+import java.util.List;
+
+/**
+ * Everything the collision detection stage needs to finish a tick after the Supervisor has already
+ * moved on to the next one. {@code statsUpdate} and {@code journalFrame} carry zero collisions and are
+ * null when the tick is not published (the last tick, or no journal).
+ */
+public class TickOutcome<T> {
+    public final int iterationNo;
+    public final List<T> westEastVehiclesOnIntersection;
+    public final List<T> northSouthVehiclesOnIntersection;
+    public final StatsUpdate statsUpdate;
+    public final JournalFrame journalFrame;
+
+    public TickOutcome(int iterationNo,
+                       List<T> westEastVehiclesOnIntersection,
+                       List<T> northSouthVehiclesOnIntersection,
+                       StatsUpdate statsUpdate,
+                       JournalFrame journalFrame) {
+        this.iterationNo = iterationNo;
+        this.westEastVehiclesOnIntersection = westEastVehiclesOnIntersection;
+        this.northSouthVehiclesOnIntersection = northSouthVehiclesOnIntersection;
+        this.statsUpdate = statsUpdate;
+        this.journalFrame = journalFrame;
+    }
+}
@@ -0,0 +1,19 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.model.DriverLogicState;
+
+import java.io.Serializable;
+
+public final class VehicleHandover implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final long vehicleId;
+    public final int link;
+    public final DriverLogicState driver;
+
+    public VehicleHandover(long vehicleId, int link, DriverLogicState driver) {
+        this.vehicleId = vehicleId;
+        this.link = link;
+        this.driver = driver;
+    }
+}
@@ -0,0 +1,16 @@
+package pl.edu.agh.messages;
+
+import pl.edu.agh.model.Street;
+
+/**
+ * Tells a new Driver which slot of the {@link TickFrame} belongs to it; the id is kept until the vehicle is removed.
+ */
+public class VehicleIdAssignment {
+    public final int vehicleId;
+    public final Street street;
+
+    public VehicleIdAssignment(int vehicleId, Street street) {
+        this.vehicleId = vehicleId;
+        this.street = street;
+    }
+}
@@ -4,7 +4,10 @@ import pl.edu.agh.configuration.DriverConfiguration;
 import pl.edu.agh.configuration.TrafficLightsConfiguration;
 import pl.edu.agh.configuration.WorldConfiguration;
 import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.observer.WorldObserver;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 public class WorldInitialization {
@@ -12,14 +15,24 @@ public class WorldInitialization {
     public final TrafficLightsConfiguration trafficLightsConfiguration;
     public final WorldConfiguration worldConfiguration;
     public final BlockingQueue<SimulationStats> resultCallback;
+    public final List<WorldObserver> observers;
 
     public WorldInitialization(DriverConfiguration baseDriverConfiguration,
                                TrafficLightsConfiguration trafficLightsConfiguration,
                                WorldConfiguration worldConfiguration,
                                BlockingQueue<SimulationStats> resultCallback) {
+        this(baseDriverConfiguration, trafficLightsConfiguration, worldConfiguration, resultCallback, Collections.emptyList());
+    }
+
+    public WorldInitialization(DriverConfiguration baseDriverConfiguration,
+                               TrafficLightsConfiguration trafficLightsConfiguration,
+                               WorldConfiguration worldConfiguration,
+                               BlockingQueue<SimulationStats> resultCallback,
+                               List<WorldObserver> observers) {
         this.baseDriverConfiguration = baseDriverConfiguration;
         this.trafficLightsConfiguration = trafficLightsConfiguration;
         this.worldConfiguration = worldConfiguration;
         this.resultCallback = resultCallback;
+        this.observers = observers;
     }
 }
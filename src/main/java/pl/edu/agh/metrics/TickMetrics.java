@@ -0,0 +1,272 @@
+package pl.edu.agh.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.SynchronizedHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Per-tick latency histograms of the actor engine, exposed as an MBean. A tick spans from one
+ * broadcast of the world snapshot to the next. Reply phases are measured from the end of the
+ * broadcast, so they overlap: together they show which reply the tick was waiting for.
+ * <p>
+ * Recording happens on the supervisor only, histograms are synchronized so JMX can read them.
+ * Allocated bytes are summed over all live threads, so allocations of other simulations running
+ * in the same JVM are included; what the probe itself allocates to read them is subtracted. The
+ * threads are read once per tick, at its start, which also closes the previous tick.
+ */
+public class TickMetrics implements TickMetricsMBean {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(10);
+    private static final int SIGNIFICANT_DIGITS = 2;
+    private static final String OBJECT_NAME = "pl.edu.agh:type=TickMetrics,name=";
+
+    private final Histogram tickLatencies = newHistogram();
+    private final Map<TickPhase, Histogram> phaseLatencies = new EnumMap<>(TickPhase.class);
+    private final com.sun.management.ThreadMXBean threads = allocationTrackingThreads();
+    private final ObjectName objectName;
+    private volatile long ticks = 0;
+    private volatile long totalMessages = 0;
+    private volatile long totalAllocatedBytes = 0;
+    private volatile int liveVehicles = 0;
+    private volatile long startNanos = System.nanoTime();
+    private long tickStartNanos = 0;
+    private long broadcastEndNanos = 0;
+    private long lastDriverUpdateNanos = 0;
+    private long allocatedBytesAtTickStart = 0;
+    private long probeAllocatedBytes = 0;
+    private int tickMessages = 0;
+
+    public TickMetrics(String name) {
+        for (TickPhase phase : TickPhase.values()) {
+            phaseLatencies.put(phase, newHistogram());
+        }
+        try {
+            this.objectName = new ObjectName(OBJECT_NAME + ObjectName.quote(name));
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid metrics name " + name, e);
+        }
+    }
+
+    public void register() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register " + objectName, e);
+        }
+    }
+
+    public void unregister() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            // already unregistered
+        }
+    }
+
+    /**
+     * Closes the previous tick, if any, and opens a new one at the start of a broadcast.
+     */
+    public void tickStarted(int liveVehicles) {
+        long now = System.nanoTime();
+        long allocatedBytes = allocatedBytes();
+        if (tickStartNanos != 0) {
+            finishTick(now, allocatedBytes);
+        }
+        this.liveVehicles = liveVehicles;
+        tickStartNanos = now;
+        tickMessages = 0;
+        allocatedBytesAtTickStart = allocatedBytes;
+    }
+
+    public void broadcastFinished(int messagesSent) {
+        broadcastEndNanos = System.nanoTime();
+        record(TickPhase.BROADCAST, broadcastEndNanos - tickStartNanos);
+        tickMessages += messagesSent;
+    }
+
+    public void messageSent() {
+        tickMessages++;
+    }
+
+    public void driverUpdateReceived() {
+        lastDriverUpdateNanos = System.nanoTime();
+        tickMessages++;
+    }
+
+    public void replyReceived(TickPhase phase) {
+        record(phase, System.nanoTime() - broadcastEndNanos);
+        tickMessages++;
+    }
+
+    public void allUpdatesReceived() {
+        if (lastDriverUpdateNanos > broadcastEndNanos) {
+            record(TickPhase.DRIVER_UPDATES, lastDriverUpdateNanos - broadcastEndNanos);
+        }
+    }
+
+    public void phaseFinished(TickPhase phase, long phaseStartNanos) {
+        record(phase, System.nanoTime() - phaseStartNanos);
+    }
+
+    public void simulationFinished() {
+        if (tickStartNanos != 0) {
+            finishTick(System.nanoTime(), allocatedBytes());
+            tickStartNanos = 0;
+        }
+    }
+
+    public String summary() {
+        StringBuilder summary = new StringBuilder(String.format(
+                "ticks=%d ticks/s=%.1f vehicles=%d tick p50=%dus p99=%dus max=%dus messages/tick=%.1f allocated/tick=%.0fB",
+                getTicks(), getTicksPerSecond(), getLiveVehicles(), getTickLatencyP50Micros(),
+                getTickLatencyP99Micros(), getTickLatencyMaxMicros(), getMeanMessagesPerTick(), getMeanAllocatedBytesPerTick()));
+        for (TickPhase phase : TickPhase.values()) {
+            summary.append(' ').append(phase.name().toLowerCase()).append(" p99=").append(getPhaseP99Micros(phase)).append("us");
+        }
+        return summary.toString();
+    }
+
+    @Override
+    public long getTicks() {
+        return ticks;
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        return elapsedSeconds == 0 ? 0 : ticks / elapsedSeconds;
+    }
+
+    @Override
+    public int getLiveVehicles() {
+        return liveVehicles;
+    }
+
+    @Override
+    public long getTickLatencyP50Micros() {
+        return tickLatencies.getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getTickLatencyP99Micros() {
+        return tickLatencies.getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getTickLatencyMaxMicros() {
+        return tickLatencies.getMaxValue();
+    }
+
+    @Override
+    public long getBroadcastP99Micros() {
+        return getPhaseP99Micros(TickPhase.BROADCAST);
+    }
+
+    @Override
+    public long getDriverUpdatesP99Micros() {
+        return getPhaseP99Micros(TickPhase.DRIVER_UPDATES);
+    }
+
+    @Override
+    public long getLightsReplyP99Micros() {
+        return getPhaseP99Micros(TickPhase.LIGHTS_REPLY);
+    }
+
+    @Override
+    public long getGeneratorReplyP99Micros() {
+        return getPhaseP99Micros(TickPhase.GENERATOR_REPLY);
+    }
+
+    @Override
+    public long getCollisionDetectionP99Micros() {
+        return getPhaseP99Micros(TickPhase.COLLISION_DETECTION);
+    }
+
+    @Override
+    public long getSnapshotSwapP99Micros() {
+        return getPhaseP99Micros(TickPhase.SNAPSHOT_SWAP);
+    }
+
+    @Override
+    public double getMeanMessagesPerTick() {
+        return ticks == 0 ? 0 : (double) totalMessages / ticks;
+    }
+
+    @Override
+    public double getMeanAllocatedBytesPerTick() {
+        return ticks == 0 ? 0 : (double) totalAllocatedBytes / ticks;
+    }
+
+    @Override
+    public void reset() {
+        tickLatencies.reset();
+        for (Histogram histogram : phaseLatencies.values()) {
+            histogram.reset();
+        }
+        ticks = 0;
+        totalMessages = 0;
+        totalAllocatedBytes = 0;
+        startNanos = System.nanoTime();
+    }
+
+    public long getPhaseP99Micros(TickPhase phase) {
+        return phaseLatencies.get(phase).getValueAtPercentile(99);
+    }
+
+    private void finishTick(long now, long allocatedBytes) {
+        tickLatencies.recordValue(toMicros(now - tickStartNanos));
+        totalMessages += tickMessages;
+        if (threads != null) {
+            totalAllocatedBytes += Math.max(0, allocatedBytes - allocatedBytesAtTickStart);
+        }
+        ticks++;
+    }
+
+    private void record(TickPhase phase, long nanos) {
+        phaseLatencies.get(phase).recordValue(toMicros(nanos));
+    }
+
+    private long allocatedBytes() {
+        if (threads == null) {
+            return 0;
+        }
+        long probeThread = Thread.currentThread().getId();
+        long probeStart = threads.getThreadAllocatedBytes(probeThread);
+        long total = 0;
+        for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        probeAllocatedBytes += threads.getThreadAllocatedBytes(probeThread) - probeStart;
+        return total - probeAllocatedBytes;
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_TRACKABLE_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static Histogram newHistogram() {
+        return new SynchronizedHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+
+    private static com.sun.management.ThreadMXBean allocationTrackingThreads() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()
+                && ((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+            return (com.sun.management.ThreadMXBean) threads;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,33 @@
+package pl.edu.agh.metrics;
+
+public interface TickMetricsMBean {
+    long getTicks();
+
+    double getTicksPerSecond();
+
+    int getLiveVehicles();
+
+    long getTickLatencyP50Micros();
+
+    long getTickLatencyP99Micros();
+
+    long getTickLatencyMaxMicros();
+
+    long getBroadcastP99Micros();
+
+    long getDriverUpdatesP99Micros();
+
+    long getLightsReplyP99Micros();
+
+    long getGeneratorReplyP99Micros();
+
+    long getCollisionDetectionP99Micros();
+
+    long getSnapshotSwapP99Micros();
+
+    double getMeanMessagesPerTick();
+
+    double getMeanAllocatedBytesPerTick();
+
+    void reset();
+}
@@ -0,0 +1,10 @@
+package pl.edu.agh.metrics;
+
+public enum TickPhase {
+    BROADCAST,
+    DRIVER_UPDATES,
+    LIGHTS_REPLY,
+    GENERATOR_REPLY,
+    COLLISION_DETECTION,
+    SNAPSHOT_SWAP
+}
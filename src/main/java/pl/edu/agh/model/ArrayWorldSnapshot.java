@@ -0,0 +1,401 @@
+package pl.edu.agh.model;
+
+import akka.actor.ActorRef;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.messages.DriverUpdate;
+import pl.edu.agh.messages.IntersectionSurrounding;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class ArrayWorldSnapshot extends WorldSnapshot {
+    public static final int NO_VEHICLE = -1;
+    private static final byte FREE_SLOT = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Street[] STREETS = Street.values();
+
+    private byte[] streets;
+    private int[] positions;
+    private int[] velocities;
+    private DriverConfiguration[] configurations;
+    private ActorRef[] drivers;
+    private int[] laneIndices;
+    private int[] freeIds;
+    private int freeIdsCount;
+    private int[] removedIds;
+    private int removedIdsCount;
+    private int highestIdBound;
+    private int vehiclesCount;
+    private final Map<ActorRef, Integer> driverToId;
+    private final int[][] lanes;
+    private final int[] laneSizes;
+    private final boolean[] laneUnsorted;
+    private final int[] streetVehiclesCounts;
+    private final StreetOccupancy occupancy;
+
+    public ArrayWorldSnapshot() {
+        streets = new byte[INITIAL_CAPACITY];
+        Arrays.fill(streets, FREE_SLOT);
+        positions = new int[INITIAL_CAPACITY];
+        velocities = new int[INITIAL_CAPACITY];
+        configurations = new DriverConfiguration[INITIAL_CAPACITY];
+        drivers = new ActorRef[INITIAL_CAPACITY];
+        laneIndices = new int[INITIAL_CAPACITY];
+        freeIds = new int[INITIAL_CAPACITY];
+        removedIds = new int[INITIAL_CAPACITY];
+        driverToId = new HashMap<>();
+        lanes = new int[STREETS.length][INITIAL_CAPACITY];
+        laneSizes = new int[STREETS.length];
+        laneUnsorted = new boolean[STREETS.length];
+        streetVehiclesCounts = new int[STREETS.length];
+        occupancy = new StreetOccupancy();
+    }
+
+    private ArrayWorldSnapshot(ArrayWorldSnapshot snapshot) {
+        super(new HashMap<>(snapshot.streetToLightColor));
+        streets = snapshot.streets.clone();
+        positions = snapshot.positions.clone();
+        velocities = snapshot.velocities.clone();
+        configurations = snapshot.configurations.clone();
+        drivers = snapshot.drivers.clone();
+        laneIndices = snapshot.laneIndices.clone();
+        freeIds = snapshot.freeIds.clone();
+        freeIdsCount = snapshot.freeIdsCount;
+        removedIds = snapshot.removedIds.clone();
+        removedIdsCount = snapshot.removedIdsCount;
+        highestIdBound = snapshot.highestIdBound;
+        vehiclesCount = snapshot.vehiclesCount;
+        driverToId = new HashMap<>(snapshot.driverToId);
+        lanes = new int[STREETS.length][];
+        for (int street = 0; street < STREETS.length; street++) {
+            lanes[street] = snapshot.lanes[street].clone();
+        }
+        laneSizes = snapshot.laneSizes.clone();
+        laneUnsorted = snapshot.laneUnsorted.clone();
+        streetVehiclesCounts = snapshot.streetVehiclesCounts.clone();
+        occupancy = snapshot.occupancy.copy();
+    }
+
+    public int addVehicle(ActorRef driver, Street street, DriverConfiguration configuration) {
+        int id = allocateId();
+        byte streetIndex = (byte) street.ordinal();
+        streets[id] = streetIndex;
+        positions[id] = configuration.initialDistanceToIntersection;
+        velocities[id] = INITIAL_VELOCITY;
+        configurations[id] = configuration;
+        drivers[id] = driver;
+        if (driver != null) {
+            driverToId.put(driver, id);
+        }
+        appendToLane(streetIndex, id);
+        occupancy.add(street, positions[id]);
+        streetVehiclesCounts[streetIndex]++;
+        vehiclesCount++;
+        return id;
+    }
+
+    public void updateVehicle(int id, int positionOnStreet, int velocity) {
+        if (positions[id] != positionOnStreet) {
+            occupancy.move(STREETS[streets[id]], positions[id], positionOnStreet);
+            positions[id] = positionOnStreet;
+            laneUnsorted[streets[id]] = true;
+        }
+        velocities[id] = velocity;
+    }
+
+    public void removeVehicle(int id) {
+        byte streetIndex = streets[id];
+        lanes[streetIndex][laneIndices[id]] = NO_VEHICLE;
+        laneUnsorted[streetIndex] = true;
+        occupancy.remove(STREETS[streetIndex], positions[id]);
+        if (drivers[id] != null) {
+            driverToId.remove(drivers[id]);
+        }
+        streets[id] = FREE_SLOT;
+        configurations[id] = null;
+        drivers[id] = null;
+        removedIds[removedIdsCount++] = id;
+        streetVehiclesCounts[streetIndex]--;
+        vehiclesCount--;
+    }
+
+    @Override
+    public void recycleRemovedIds() {
+        for (int i = 0; i < removedIdsCount; i++) {
+            freeIds[freeIdsCount++] = removedIds[i];
+        }
+        removedIdsCount = 0;
+    }
+
+    public int getCarAheadDistance(int id) {
+        byte streetIndex = streets[id];
+        sortLane(streetIndex);
+        int[] lane = lanes[streetIndex];
+        int position = positions[id];
+        int index = laneIndices[id] - 1;
+        while (index >= 0 && positions[lane[index]] >= position) {
+            index--;
+        }
+        if (index < 0) {
+            return Integer.MAX_VALUE;
+        }
+        return position - positions[lane[index]];
+    }
+
+    public int getVehicleId(ActorRef driver) {
+        Integer id = driverToId.get(driver);
+        return id == null ? NO_VEHICLE : id;
+    }
+
+    public boolean isPresent(int id) {
+        return id >= 0 && id < highestIdBound && streets[id] != FREE_SLOT;
+    }
+
+    public Street getStreet(int id) {
+        return STREETS[streets[id]];
+    }
+
+    public int getPosition(int id) {
+        return positions[id];
+    }
+
+    public int getVelocity(int id) {
+        return velocities[id];
+    }
+
+    public DriverConfiguration getConfiguration(int id) {
+        return configurations[id];
+    }
+
+    public ActorRef getDriver(int id) {
+        return drivers[id];
+    }
+
+    public int getVehicleIdsBound() {
+        return highestIdBound;
+    }
+
+    @Override
+    public int getVehiclesCount() {
+        return vehiclesCount;
+    }
+
+    @Override
+    public void update(ActorRef driver, DriverUpdate updateMessage) {
+        updateVehicle(driverToId.get(driver), updateMessage.newDistanceToIntersection, updateMessage.currentVelocity);
+    }
+
+    @Override
+    public void remove(ActorRef driver) {
+        Integer id = driverToId.get(driver);
+        if (id != null) {
+            removeVehicle(id);
+        }
+    }
+
+    @Override
+    public void addDriver(ActorRef driver, Street street, DriverConfiguration configuration) {
+        remove(driver);
+        addVehicle(driver, street, configuration);
+    }
+
+    @Override
+    public Set<ActorRef> getAllDrivers() {
+        return new HashSet<>(driverToId.keySet());
+    }
+
+    @Override
+    public Set<ActorRef> getDriversOnStreet(Street street) {
+        byte streetIndex = (byte) street.ordinal();
+        return collectDrivers(streetIndex, 0, laneSizes[streetIndex]);
+    }
+
+    @Override
+    public Set<ActorRef> getDriversBeforeIntersectionOnStreet(Street street) {
+        byte streetIndex = (byte) street.ordinal();
+        sortLane(streetIndex);
+        return collectDrivers(streetIndex, firstLaneIndexFartherThan(streetIndex, 0), laneSizes[streetIndex]);
+    }
+
+    @Override
+    public int countDriversOnStreet(Street street) {
+        return streetVehiclesCounts[street.ordinal()];
+    }
+
+    @Override
+    public int countDriversBeforeIntersectionOnStreet(Street street) {
+        byte streetIndex = (byte) street.ordinal();
+        sortLane(streetIndex);
+        return laneSizes[streetIndex] - firstLaneIndexFartherThan(streetIndex, 0);
+    }
+
+    @Override
+    public int sumVelocitiesOnStreet(Street street) {
+        byte streetIndex = (byte) street.ordinal();
+        sortLane(streetIndex);
+        return sumVelocities(streetIndex, 0);
+    }
+
+    @Override
+    public int sumVelocitiesBeforeIntersectionOnStreet(Street street) {
+        byte streetIndex = (byte) street.ordinal();
+        sortLane(streetIndex);
+        return sumVelocities(streetIndex, firstLaneIndexFartherThan(streetIndex, 0));
+    }
+
+    @Override
+    public int countDriversThatCrossedIntersectionSince(WorldSnapshot previousSnapshot) {
+        ArrayWorldSnapshot previous = (ArrayWorldSnapshot) previousSnapshot;
+        int count = 0;
+        for (byte streetIndex = 0; streetIndex < STREETS.length; streetIndex++) {
+            previous.sortLane(streetIndex);
+            int[] previousLane = previous.lanes[streetIndex];
+            for (int index = previous.firstLaneIndexFartherThan(streetIndex, 0); index < previous.laneSizes[streetIndex]; index++) {
+                int id = previousLane[index];
+                if (isPresent(id) && streets[id] == streetIndex && positions[id] <= 0) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public ArrayWorldSnapshot copy() {
+        return new ArrayWorldSnapshot(this);
+    }
+
+    @Override
+    public DriverState getDriverState(ActorRef driver) {
+        Integer id = driverToId.get(driver);
+        if (id == null) {
+            return null;
+        }
+        return new DriverState(STREETS[streets[id]], positions[id], velocities[id]);
+    }
+
+    @Override
+    public DriverConfiguration getDriverConfiguration(ActorRef driver) {
+        Integer id = driverToId.get(driver);
+        return id == null ? null : configurations[id];
+    }
+
+    @Override
+    public IntersectionSurrounding getIntersectionSurrouding(Boolean isInitialMessage) {
+        return new IntersectionSurrounding(occupancy.copy(), isInitialMessage);
+    }
+
+    @Override
+    public Integer getCarAheadDistance(ActorRef driver) {
+        return getCarAheadDistance(driverToId.get(driver));
+    }
+
+    @Override
+    public Set<DriverState> getAllDriversStates() {
+        Set<DriverState> states = new HashSet<>();
+        for (int id = 0; id < highestIdBound; id++) {
+            if (streets[id] != FREE_SLOT) {
+                states.add(new DriverState(STREETS[streets[id]], positions[id], velocities[id]));
+            }
+        }
+        return states;
+    }
+
+    private Set<ActorRef> collectDrivers(byte streetIndex, int fromLaneIndex, int toLaneIndex) {
+        Set<ActorRef> result = new HashSet<>();
+        int[] lane = lanes[streetIndex];
+        for (int index = fromLaneIndex; index < toLaneIndex; index++) {
+            if (lane[index] != NO_VEHICLE && drivers[lane[index]] != null) {
+                result.add(drivers[lane[index]]);
+            }
+        }
+        return result;
+    }
+
+    private int sumVelocities(byte streetIndex, int fromLaneIndex) {
+        int[] lane = lanes[streetIndex];
+        int total = 0;
+        for (int index = fromLaneIndex; index < laneSizes[streetIndex]; index++) {
+            total += velocities[lane[index]];
+        }
+        return total;
+    }
+
+    private int firstLaneIndexFartherThan(byte streetIndex, int position) {
+        int[] lane = lanes[streetIndex];
+        int low = 0;
+        int high = laneSizes[streetIndex];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (positions[lane[middle]] > position) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    private void sortLane(byte streetIndex) {
+        if (!laneUnsorted[streetIndex]) {
+            return;
+        }
+        int[] lane = lanes[streetIndex];
+        int size = 0;
+        for (int index = 0; index < laneSizes[streetIndex]; index++) {
+            if (lane[index] != NO_VEHICLE) {
+                lane[size++] = lane[index];
+            }
+        }
+        for (int index = 1; index < size; index++) {
+            int id = lane[index];
+            int position = positions[id];
+            int insertAt = index - 1;
+            while (insertAt >= 0 && positions[lane[insertAt]] > position) {
+                lane[insertAt + 1] = lane[insertAt];
+                insertAt--;
+            }
+            lane[insertAt + 1] = id;
+        }
+        for (int index = 0; index < size; index++) {
+            laneIndices[lane[index]] = index;
+        }
+        laneSizes[streetIndex] = size;
+        laneUnsorted[streetIndex] = false;
+    }
+
+    private void appendToLane(byte streetIndex, int id) {
+        if (laneSizes[streetIndex] == lanes[streetIndex].length) {
+            lanes[streetIndex] = Arrays.copyOf(lanes[streetIndex], lanes[streetIndex].length * 2);
+        }
+        laneIndices[id] = laneSizes[streetIndex];
+        lanes[streetIndex][laneSizes[streetIndex]++] = id;
+        laneUnsorted[streetIndex] = true;
+    }
+
+    private int allocateId() {
+        if (freeIdsCount > 0) {
+            return freeIds[--freeIdsCount];
+        }
+        if (highestIdBound == streets.length) {
+            grow(streets.length * 2);
+        }
+        return highestIdBound++;
+    }
+
+    private void grow(int capacity) {
+        int previousCapacity = streets.length;
+        streets = Arrays.copyOf(streets, capacity);
+        Arrays.fill(streets, previousCapacity, capacity, FREE_SLOT);
+        positions = Arrays.copyOf(positions, capacity);
+        velocities = Arrays.copyOf(velocities, capacity);
+        configurations = Arrays.copyOf(configurations, capacity);
+        drivers = Arrays.copyOf(drivers, capacity);
+        laneIndices = Arrays.copyOf(laneIndices, capacity);
+        freeIds = Arrays.copyOf(freeIds, capacity);
+        removedIds = Arrays.copyOf(removedIds, capacity);
+    }
+}
@@ -0,0 +1,128 @@
+package pl.edu.agh.model;
+
+import akka.actor.ActorRef;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.messages.DriverUpdate;
+import pl.edu.agh.messages.TrafficGenerationMessage;
+import pl.edu.agh.messages.TrafficLightsUpdate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class DoubleBufferedWorldSnapshot {
+    private WorldSnapshot previous;
+    private WorldSnapshot current;
+    private final List<ActorRef> updatedDrivers = new ArrayList<>();
+    private final List<DriverUpdate> driverUpdates = new ArrayList<>();
+    private final List<ActorRef> removedDrivers = new ArrayList<>();
+    private final List<Integer> updatedVehicleIds = new ArrayList<>();
+    private final List<DriverUpdate> vehicleUpdates = new ArrayList<>();
+    private final List<Integer> removedVehicleIds = new ArrayList<>();
+    private TrafficLightsUpdate trafficLightsUpdate;
+
+    public DoubleBufferedWorldSnapshot(WorldSnapshot initialSnapshot) {
+        this.previous = initialSnapshot;
+        this.current = initialSnapshot.copy();
+    }
+
+    public WorldSnapshot getPrevious() {
+        return previous;
+    }
+
+    public WorldSnapshot getCurrent() {
+        return current;
+    }
+
+    public void update(ActorRef driver, DriverUpdate updateMessage) {
+        if (isUnchanged(current.getDriverState(driver), updateMessage)) {
+            return;
+        }
+        current.update(driver, updateMessage);
+        updatedDrivers.add(driver);
+        driverUpdates.add(updateMessage);
+    }
+
+    public void remove(ActorRef driver) {
+        current.remove(driver);
+        removedDrivers.add(driver);
+    }
+
+    public int addVehicle(Street street, DriverConfiguration configuration) {
+        int id = asArraySnapshot(current).addVehicle(null, street, configuration);
+        int previousId = asArraySnapshot(previous).addVehicle(null, street, configuration);
+        if (id != previousId) {
+            throw new IllegalStateException("Vehicle ids diverged between buffers: " + id + " != " + previousId);
+        }
+        return id;
+    }
+
+    public void updateVehicle(int id, DriverUpdate updateMessage) {
+        ArrayWorldSnapshot snapshot = asArraySnapshot(current);
+        if (snapshot.getPosition(id) == updateMessage.newDistanceToIntersection
+                && snapshot.getVelocity(id) == updateMessage.currentVelocity) {
+            return;
+        }
+        snapshot.updateVehicle(id, updateMessage.newDistanceToIntersection, updateMessage.currentVelocity);
+        updatedVehicleIds.add(id);
+        vehicleUpdates.add(updateMessage);
+    }
+
+    public void removeVehicle(int id) {
+        asArraySnapshot(current).removeVehicle(id);
+        removedVehicleIds.add(id);
+    }
+
+    public void update(TrafficLightsUpdate update) {
+        current.update(update);
+        trafficLightsUpdate = update;
+    }
+
+    public void update(TrafficGenerationMessage message) {
+        previous.update(message);
+        current.update(message);
+    }
+
+    public void swap() {
+        WorldSnapshot stale = previous;
+        previous = current;
+        current = stale;
+        for (int i = 0; i < updatedDrivers.size(); i++) {
+            current.update(updatedDrivers.get(i), driverUpdates.get(i));
+        }
+        for (ActorRef driver : removedDrivers) {
+            current.remove(driver);
+        }
+        for (int i = 0; i < updatedVehicleIds.size(); i++) {
+            DriverUpdate update = vehicleUpdates.get(i);
+            asArraySnapshot(current).updateVehicle(updatedVehicleIds.get(i), update.newDistanceToIntersection, update.currentVelocity);
+        }
+        for (Integer id : removedVehicleIds) {
+            asArraySnapshot(current).removeVehicle(id);
+        }
+        if (trafficLightsUpdate != null) {
+            current.update(trafficLightsUpdate);
+        }
+        previous.recycleRemovedIds();
+        current.recycleRemovedIds();
+        updatedDrivers.clear();
+        driverUpdates.clear();
+        removedDrivers.clear();
+        updatedVehicleIds.clear();
+        vehicleUpdates.clear();
+        removedVehicleIds.clear();
+        trafficLightsUpdate = null;
+    }
+
+    private ArrayWorldSnapshot asArraySnapshot(WorldSnapshot snapshot) {
+        if (!(snapshot instanceof ArrayWorldSnapshot)) {
+            throw new IllegalStateException("Vehicle id operations require array world snapshots");
+        }
+        return (ArrayWorldSnapshot) snapshot;
+    }
+
+    private boolean isUnchanged(DriverState state, DriverUpdate updateMessage) {
+        return state != null
+                && state.getPositionOnStreet().equals(updateMessage.newDistanceToIntersection)
+                && state.getCurrentVelocity().equals(updateMessage.currentVelocity);
+    }
+}
@@ -0,0 +1,34 @@
+package pl.edu.agh.model;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+
+import java.io.Serializable;
+
+/**
+ * Everything needed to rebuild a driver in another process. The random stream is recreated from
+ * {@code configuration.randomSeed} and advanced by {@code randomDraws}.
+ */
+public final class DriverLogicState implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    public final DriverConfiguration configuration;
+    public final int velocity;
+    public final int distanceToIntersection;
+    public final boolean decidedForYellowGo;
+    public final boolean decidedToSlowDown;
+    public final long randomDraws;
+
+    public DriverLogicState(DriverConfiguration configuration,
+                            int velocity,
+                            int distanceToIntersection,
+                            boolean decidedForYellowGo,
+                            boolean decidedToSlowDown,
+                            long randomDraws) {
+        this.configuration = configuration;
+        this.velocity = velocity;
+        this.distanceToIntersection = distanceToIntersection;
+        this.decidedForYellowGo = decidedForYellowGo;
+        this.decidedToSlowDown = decidedToSlowDown;
+        this.randomDraws = randomDraws;
+    }
+}
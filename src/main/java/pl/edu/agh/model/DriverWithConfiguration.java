@@ -6,9 +6,19 @@ import pl.edu.agh.configuration.DriverConfiguration;
 public class DriverWithConfiguration {
     public final ActorRef driver;
     public final DriverConfiguration configuration;
+    /**
+     * The driver is a pooled actor that still holds the state of its previous car and has to be reset
+     * with {@link #configuration} before its first tick.
+     */
+    public final boolean reused;
 
     public DriverWithConfiguration(ActorRef driver, DriverConfiguration configuration) {
+        this(driver, configuration, false);
+    }
+
+    public DriverWithConfiguration(ActorRef driver, DriverConfiguration configuration, boolean reused) {
         this.driver = driver;
         this.configuration = configuration;
+        this.reused = reused;
     }
 }
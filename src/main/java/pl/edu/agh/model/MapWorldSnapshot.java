@@ -0,0 +1,199 @@
+package pl.edu.agh.model;
+
+import akka.actor.ActorRef;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.messages.DriverUpdate;
+import pl.edu.agh.messages.IntersectionSurrounding;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class MapWorldSnapshot extends WorldSnapshot {
+    private Map<ActorRef, DriverState> driverToState = new HashMap<ActorRef, DriverState>();
+    private Map<ActorRef, DriverConfiguration> driverToConfiguration = new HashMap<ActorRef, DriverConfiguration>();
+    private final Map<Street, StreetLane> streetToLane = new EnumMap<Street, StreetLane>(Street.class);
+    private final StreetOccupancy occupancy;
+
+    public MapWorldSnapshot() {
+        occupancy = new StreetOccupancy();
+        initLanes();
+    }
+
+    public MapWorldSnapshot(Map<ActorRef,DriverState> driverToState,
+                            Map<ActorRef, DriverConfiguration> driverToConfiguration,
+                            Map<Street, TrafficLightColor> streetToLightColor) {
+        super(streetToLightColor);
+        this.driverToState = driverToState;
+        this.driverToConfiguration = driverToConfiguration;
+        this.occupancy = new StreetOccupancy();
+        initLanes();
+        for (Map.Entry<ActorRef, DriverState> entry : driverToState.entrySet()) {
+            streetToLane.get(entry.getValue().getStreet()).add(entry.getKey(), entry.getValue().getPositionOnStreet());
+            occupancy.add(entry.getValue().getStreet(), entry.getValue().getPositionOnStreet());
+        }
+    }
+
+    private MapWorldSnapshot(MapWorldSnapshot snapshot) {
+        super(new HashMap<>(snapshot.streetToLightColor));
+        this.driverToState = new HashMap<>(snapshot.driverToState);
+        this.driverToConfiguration = new HashMap<>(snapshot.driverToConfiguration);
+        this.occupancy = snapshot.occupancy.copy();
+        for (Map.Entry<Street, StreetLane> entry : snapshot.streetToLane.entrySet()) {
+            streetToLane.put(entry.getKey(), entry.getValue().copy());
+        }
+    }
+
+    private void initLanes() {
+        for (Street street : Street.values()) {
+            streetToLane.put(street, new StreetLane());
+        }
+    }
+
+    @Override
+    public void update(ActorRef driver, DriverUpdate updateMessage) {
+        DriverState previousState = driverToState.get(driver);
+        driverToState.put(driver, new DriverState(
+                        previousState.getStreet(),
+                        updateMessage.newDistanceToIntersection,
+                        updateMessage.currentVelocity)
+        );
+        streetToLane.get(previousState.getStreet()).move(driver, previousState.getPositionOnStreet(), updateMessage.newDistanceToIntersection);
+        occupancy.move(previousState.getStreet(), previousState.getPositionOnStreet(), updateMessage.newDistanceToIntersection);
+    }
+
+    @Override
+    public void remove(ActorRef driver) {
+        driverToConfiguration.remove(driver);
+        DriverState state = driverToState.remove(driver);
+        if (state != null) {
+            streetToLane.get(state.getStreet()).remove(driver, state.getPositionOnStreet());
+            occupancy.remove(state.getStreet(), state.getPositionOnStreet());
+        }
+    }
+
+    @Override
+    public void addDriver(ActorRef driver, Street street, DriverConfiguration configuration) {
+        driverToConfiguration.put(driver, configuration);
+        DriverState previousState = driverToState.put(driver, new DriverState(
+                street,
+                configuration.initialDistanceToIntersection,
+                INITIAL_VELOCITY
+        ));
+        if (previousState != null) {
+            streetToLane.get(previousState.getStreet()).remove(driver, previousState.getPositionOnStreet());
+            occupancy.remove(previousState.getStreet(), previousState.getPositionOnStreet());
+        }
+        streetToLane.get(street).add(driver, configuration.initialDistanceToIntersection);
+        occupancy.add(street, configuration.initialDistanceToIntersection);
+    }
+
+    @Override
+    public Set<ActorRef> getAllDrivers() {
+        return new HashSet<>(driverToState.keySet());
+    }
+
+    @Override
+    public int getVehiclesCount() {
+        return driverToState.size();
+    }
+
+    @Override
+    public Set<ActorRef> getDriversOnStreet(Street street) {
+        return streetToLane.get(street).getDrivers();
+    }
+
+    @Override
+    public Set<ActorRef> getDriversBeforeIntersectionOnStreet(Street street) {
+        return streetToLane.get(street).getDriversFartherThan(0, false);
+    }
+
+    @Override
+    public int countDriversOnStreet(Street street) {
+        return streetToLane.get(street).size();
+    }
+
+    @Override
+    public int countDriversBeforeIntersectionOnStreet(Street street) {
+        int count = 0;
+        for (Set<ActorRef> driversOnPosition : streetToLane.get(street).getDriversGroupedFartherThan(0, false)) {
+            count += driversOnPosition.size();
+        }
+        return count;
+    }
+
+    @Override
+    public int sumVelocitiesOnStreet(Street street) {
+        return sumVelocities(streetToLane.get(street).getDriversGroupedFartherThan(Integer.MIN_VALUE, true));
+    }
+
+    @Override
+    public int sumVelocitiesBeforeIntersectionOnStreet(Street street) {
+        return sumVelocities(streetToLane.get(street).getDriversGroupedFartherThan(0, false));
+    }
+
+    @Override
+    public int countDriversThatCrossedIntersectionSince(WorldSnapshot previousSnapshot) {
+        MapWorldSnapshot previous = (MapWorldSnapshot) previousSnapshot;
+        int count = 0;
+        for (StreetLane previousLane : previous.streetToLane.values()) {
+            for (Set<ActorRef> driversOnPosition : previousLane.getDriversGroupedFartherThan(0, false)) {
+                for (ActorRef driver : driversOnPosition) {
+                    DriverState state = driverToState.get(driver);
+                    if (state != null && state.getPositionOnStreet() <= 0) {
+                        count++;
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public MapWorldSnapshot copy() {
+        return new MapWorldSnapshot(this);
+    }
+
+    @Override
+    public DriverState getDriverState(ActorRef driver) {
+        return driverToState.get(driver);
+    }
+
+    @Override
+    public DriverConfiguration getDriverConfiguration(ActorRef driver) {
+        return driverToConfiguration.get(driver);
+    }
+
+    @Override
+    public IntersectionSurrounding getIntersectionSurrouding(Boolean isInitialMessage) {
+        return new IntersectionSurrounding(occupancy.copy(), isInitialMessage);
+    }
+
+    @Override
+    public Integer getCarAheadDistance(ActorRef driver) {
+        DriverState state = driverToState.get(driver);
+        Integer positionAhead = streetToLane.get(state.getStreet()).nearestPositionAhead(state.getPositionOnStreet());
+        if (positionAhead == null) {
+            return Integer.MAX_VALUE;
+        }
+        return state.getPositionOnStreet() - positionAhead;
+    }
+
+    @Override
+    public Set<DriverState> getAllDriversStates() {
+        return new HashSet<>(driverToState.values());
+    }
+
+    private int sumVelocities(Collection<Set<ActorRef>> groupedDrivers) {
+        int total = 0;
+        for (Set<ActorRef> driversOnPosition : groupedDrivers) {
+            for (ActorRef driver : driversOnPosition) {
+                total += driverToState.get(driver).getCurrentVelocity();
+            }
+        }
+        return total;
+    }
+}
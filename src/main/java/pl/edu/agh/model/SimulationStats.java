@@ -7,6 +7,12 @@ public final class SimulationStats {
     public final float averageNumberOfCarsWaitingOnRedOrYellow;
     public final float averageGreenLightDurationOnNorthSouth;
     public final float averageGreenLightDurationOnWestEast;
+    /**
+     * Half-widths of the 95% confidence intervals of the averages, NaN when they were not tracked.
+     */
+    public final float averageVelocityHalfWidth;
+    public final float averageNumberOfIntersectionCrossingsHalfWidth;
+    public final float averageNumberOfCarsWaitingOnRedOrYellowHalfWidth;
 
     public SimulationStats(float averageVelocity,
                            int totalNumberOfCollisions,
@@ -14,11 +20,28 @@ public final class SimulationStats {
                            float averageNumberOfCarsWaitingOnRedOrYellow,
                            float averageGreenLightDurationOnNorthSouth,
                            float averageGreenLightDurationOnWestEast) {
+        this(averageVelocity, totalNumberOfCollisions, averageNumberOfIntersectionCrossings,
+                averageNumberOfCarsWaitingOnRedOrYellow, averageGreenLightDurationOnNorthSouth,
+                averageGreenLightDurationOnWestEast, Float.NaN, Float.NaN, Float.NaN);
+    }
+
+    public SimulationStats(float averageVelocity,
+                           int totalNumberOfCollisions,
+                           float averageNumberOfIntersectionCrossings,
+                           float averageNumberOfCarsWaitingOnRedOrYellow,
+                           float averageGreenLightDurationOnNorthSouth,
+                           float averageGreenLightDurationOnWestEast,
+                           float averageVelocityHalfWidth,
+                           float averageNumberOfIntersectionCrossingsHalfWidth,
+                           float averageNumberOfCarsWaitingOnRedOrYellowHalfWidth) {
         this.averageVelocity = averageVelocity;
         this.totalNumberOfCollisions = totalNumberOfCollisions;
         this.averageNumberOfIntersectionCrossings = averageNumberOfIntersectionCrossings;
         this.averageNumberOfCarsWaitingOnRedOrYellow = averageNumberOfCarsWaitingOnRedOrYellow;
         this.averageGreenLightDurationOnNorthSouth = averageGreenLightDurationOnNorthSouth;
         this.averageGreenLightDurationOnWestEast = averageGreenLightDurationOnWestEast;
+        this.averageVelocityHalfWidth = averageVelocityHalfWidth;
+        this.averageNumberOfIntersectionCrossingsHalfWidth = averageNumberOfIntersectionCrossingsHalfWidth;
+        this.averageNumberOfCarsWaitingOnRedOrYellowHalfWidth = averageNumberOfCarsWaitingOnRedOrYellowHalfWidth;
     }
 }
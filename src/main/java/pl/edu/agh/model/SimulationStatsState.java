@@ -0,0 +1,36 @@
+package pl.edu.agh.model;
+
+/**
+ * Accumulators of a statistics calculator; green light arrays are indexed by {@code Street.ordinal()}.
+ */
+public final class SimulationStatsState {
+    public final int numberOfIterations;
+    public final int totalNumberOfCollisions;
+    public final float totalVelocity;
+    public final int totalCars;
+    public final float totalCrossings;
+    public final float totalNumberOfWaitingCars;
+    public final float[] totalGreenLightDurations;
+    public final int[] numberOfGreenLightPeriods;
+    public final int currentLightGreenSince;
+
+    public SimulationStatsState(int numberOfIterations,
+                                int totalNumberOfCollisions,
+                                float totalVelocity,
+                                int totalCars,
+                                float totalCrossings,
+                                float totalNumberOfWaitingCars,
+                                float[] totalGreenLightDurations,
+                                int[] numberOfGreenLightPeriods,
+                                int currentLightGreenSince) {
+        this.numberOfIterations = numberOfIterations;
+        this.totalNumberOfCollisions = totalNumberOfCollisions;
+        this.totalVelocity = totalVelocity;
+        this.totalCars = totalCars;
+        this.totalCrossings = totalCrossings;
+        this.totalNumberOfWaitingCars = totalNumberOfWaitingCars;
+        this.totalGreenLightDurations = totalGreenLightDurations;
+        this.numberOfGreenLightPeriods = numberOfGreenLightPeriods;
+        this.currentLightGreenSince = currentLightGreenSince;
+    }
+}
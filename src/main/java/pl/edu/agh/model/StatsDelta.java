@@ -0,0 +1,68 @@
+package pl.edu.agh.model;
+
+import pl.edu.agh.messages.StatsUpdate;
+
+import java.util.Map;
+
+public final class StatsDelta {
+    private static final int STREETS_COUNT = Street.values().length;
+
+    private int[] spawnedVehicles = new int[STREETS_COUNT];
+    private int[] removedVehicles = new int[STREETS_COUNT];
+    private int[] crossedVehicles = new int[STREETS_COUNT];
+    private int[] vehiclesBeforeIntersectionChange = new int[STREETS_COUNT];
+    private int[] velocitySumChange = new int[STREETS_COUNT];
+    private int[] velocityBeforeIntersectionSumChange = new int[STREETS_COUNT];
+    private Map<Street, TrafficLightColor> publishedLightColors;
+    private Map<Street, TrafficLightColor> lightColors;
+
+    public void vehicleSpawned(Street street, int positionOnStreet, int velocity) {
+        int streetIndex = street.ordinal();
+        spawnedVehicles[streetIndex]++;
+        add(streetIndex, positionOnStreet, velocity, 1);
+    }
+
+    public void vehicleMoved(Street street, int previousPositionOnStreet, int previousVelocity, int positionOnStreet, int velocity) {
+        int streetIndex = street.ordinal();
+        if (previousPositionOnStreet > 0 && positionOnStreet <= 0) {
+            crossedVehicles[streetIndex]++;
+        }
+        add(streetIndex, previousPositionOnStreet, previousVelocity, -1);
+        add(streetIndex, positionOnStreet, velocity, 1);
+    }
+
+    public void vehicleRemoved(Street street, int positionOnStreet, int velocity) {
+        int streetIndex = street.ordinal();
+        removedVehicles[streetIndex]++;
+        add(streetIndex, positionOnStreet, velocity, -1);
+    }
+
+    public void lightsChanged(Map<Street, TrafficLightColor> lightColors) {
+        this.lightColors = lightColors;
+    }
+
+    public StatsUpdate publish(int detectedCollisions) {
+        Map<Street, TrafficLightColor> changedLightColors = null;
+        if (lightColors != null && !lightColors.equals(publishedLightColors)) {
+            changedLightColors = lightColors;
+            publishedLightColors = lightColors;
+        }
+        StatsUpdate update = new StatsUpdate(detectedCollisions, spawnedVehicles, removedVehicles, crossedVehicles,
+                vehiclesBeforeIntersectionChange, velocitySumChange, velocityBeforeIntersectionSumChange, changedLightColors);
+        spawnedVehicles = new int[STREETS_COUNT];
+        removedVehicles = new int[STREETS_COUNT];
+        crossedVehicles = new int[STREETS_COUNT];
+        vehiclesBeforeIntersectionChange = new int[STREETS_COUNT];
+        velocitySumChange = new int[STREETS_COUNT];
+        velocityBeforeIntersectionSumChange = new int[STREETS_COUNT];
+        return update;
+    }
+
+    private void add(int streetIndex, int positionOnStreet, int velocity, int sign) {
+        velocitySumChange[streetIndex] += sign * velocity;
+        if (positionOnStreet > 0) {
+            vehiclesBeforeIntersectionChange[streetIndex] += sign;
+            velocityBeforeIntersectionSumChange[streetIndex] += sign * velocity;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package pl.edu.agh.model;
+
+import akka.actor.ActorRef;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+class StreetLane {
+    private final NavigableMap<Integer, Set<ActorRef>> positionToDrivers;
+    private final Set<ActorRef> drivers;
+
+    StreetLane() {
+        this.positionToDrivers = new TreeMap<>();
+        this.drivers = new HashSet<>();
+    }
+
+    private StreetLane(StreetLane lane) {
+        this.positionToDrivers = new TreeMap<>();
+        for (Map.Entry<Integer, Set<ActorRef>> entry : lane.positionToDrivers.entrySet()) {
+            positionToDrivers.put(entry.getKey(), new HashSet<>(entry.getValue()));
+        }
+        this.drivers = new HashSet<>(lane.drivers);
+    }
+
+    void add(ActorRef driver, Integer position) {
+        Set<ActorRef> driversOnPosition = positionToDrivers.get(position);
+        if (driversOnPosition == null) {
+            driversOnPosition = new HashSet<>(2);
+            positionToDrivers.put(position, driversOnPosition);
+        }
+        driversOnPosition.add(driver);
+        drivers.add(driver);
+    }
+
+    void remove(ActorRef driver, Integer position) {
+        Set<ActorRef> driversOnPosition = positionToDrivers.get(position);
+        if (driversOnPosition != null) {
+            driversOnPosition.remove(driver);
+            if (driversOnPosition.isEmpty()) {
+                positionToDrivers.remove(position);
+            }
+        }
+        drivers.remove(driver);
+    }
+
+    void move(ActorRef driver, Integer oldPosition, Integer newPosition) {
+        if (oldPosition.equals(newPosition)) {
+            return;
+        }
+        remove(driver, oldPosition);
+        add(driver, newPosition);
+    }
+
+    Integer nearestPositionAhead(Integer position) {
+        return positionToDrivers.lowerKey(position);
+    }
+
+    int size() {
+        return drivers.size();
+    }
+
+    Set<ActorRef> getDrivers() {
+        return new HashSet<>(drivers);
+    }
+
+    Set<ActorRef> getDriversFartherThan(Integer position, boolean inclusive) {
+        Set<ActorRef> result = new HashSet<>();
+        for (Set<ActorRef> driversOnPosition : positionToDrivers.tailMap(position, inclusive).values()) {
+            result.addAll(driversOnPosition);
+        }
+        return result;
+    }
+
+    Collection<Set<ActorRef>> getDriversGroupedFartherThan(Integer position, boolean inclusive) {
+        return positionToDrivers.tailMap(position, inclusive).values();
+    }
+
+    StreetLane copy() {
+        return new StreetLane(this);
+    }
+}
@@ -0,0 +1,87 @@
+package pl.edu.agh.model;
+
+import java.util.Arrays;
+
+/**
+ * Number of vehicles before the stop line of each street, cumulative over the distance to it:
+ * {@code countWithin(street, d)} is the number of vehicles at positions {@code 0 <= position < d}.
+ * Kept up to date as vehicles move, which costs only the distance they travelled, so a query does not
+ * depend on how many vehicles are queued. Vehicles past the stop line are not counted.
+ */
+public class StreetOccupancy {
+    private static final int INITIAL_CAPACITY = 128;
+    private static final Street[] STREETS = Street.values();
+
+    private final int[][] cumulativeCounts;
+
+    public StreetOccupancy() {
+        cumulativeCounts = new int[STREETS.length][INITIAL_CAPACITY];
+    }
+
+    private StreetOccupancy(StreetOccupancy occupancy) {
+        cumulativeCounts = new int[STREETS.length][];
+        for (int street = 0; street < STREETS.length; street++) {
+            cumulativeCounts[street] = occupancy.cumulativeCounts[street].clone();
+        }
+    }
+
+    public void add(Street street, int position) {
+        int streetIndex = street.ordinal();
+        ensureCapacity(streetIndex, position);
+        increment(streetIndex, countedFrom(streetIndex, position), cumulativeCounts[streetIndex].length, 1);
+    }
+
+    public void remove(Street street, int position) {
+        int streetIndex = street.ordinal();
+        ensureCapacity(streetIndex, position);
+        increment(streetIndex, countedFrom(streetIndex, position), cumulativeCounts[streetIndex].length, -1);
+    }
+
+    public void move(Street street, int previousPosition, int position) {
+        int streetIndex = street.ordinal();
+        ensureCapacity(streetIndex, Math.max(previousPosition, position));
+        int previousFrom = countedFrom(streetIndex, previousPosition);
+        int from = countedFrom(streetIndex, position);
+        if (from < previousFrom) {
+            increment(streetIndex, from, previousFrom, 1);
+        } else {
+            increment(streetIndex, previousFrom, from, -1);
+        }
+    }
+
+    public int countWithin(Street street, int distance) {
+        int[] counts = cumulativeCounts[street.ordinal()];
+        if (distance <= 0) {
+            return 0;
+        }
+        return counts[Math.min(distance, counts.length - 1)];
+    }
+
+    public StreetOccupancy copy() {
+        return new StreetOccupancy(this);
+    }
+
+    /**
+     * First distance whose count includes a vehicle at {@code position}; the array length for vehicles
+     * past the stop line, which are in no count.
+     */
+    private int countedFrom(int streetIndex, int position) {
+        return position < 0 ? cumulativeCounts[streetIndex].length : position + 1;
+    }
+
+    private void increment(int streetIndex, int from, int to, int delta) {
+        int[] counts = cumulativeCounts[streetIndex];
+        for (int distance = from; distance < to; distance++) {
+            counts[distance] += delta;
+        }
+    }
+
+    private void ensureCapacity(int streetIndex, int position) {
+        int[] counts = cumulativeCounts[streetIndex];
+        if (position + 1 >= counts.length) {
+            int[] grown = Arrays.copyOf(counts, Math.max(position + 2, counts.length * 2));
+            Arrays.fill(grown, counts.length, grown.length, counts[counts.length - 1]);
+            cumulativeCounts[streetIndex] = grown;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package pl.edu.agh.model;
+
+public final class TrafficGenerationState {
+    public final long masterSeed;
+    public final long generatedVehicles;
+    public final long randomDraws;
+
+    public TrafficGenerationState(long masterSeed, long generatedVehicles, long randomDraws) {
+        this.masterSeed = masterSeed;
+        this.generatedVehicles = generatedVehicles;
+        this.randomDraws = randomDraws;
+    }
+}
@@ -0,0 +1,27 @@
+package pl.edu.agh.model;
+
+import java.util.Map;
+
+/**
+ * Saved state of a traffic lights controller. {@code controllerCounters} are specific to
+ * {@code controller} and only restored into a controller of the same class.
+ */
+public final class TrafficLightsState {
+    public final String controller;
+    public final Map<Street, TrafficLightColor> streetToLightColor;
+    public final int currentLightGreenSince;
+    public final int currentLightYellowSince;
+    public final int[] controllerCounters;
+
+    public TrafficLightsState(String controller,
+                              Map<Street, TrafficLightColor> streetToLightColor,
+                              int currentLightGreenSince,
+                              int currentLightYellowSince,
+                              int[] controllerCounters) {
+        this.controller = controller;
+        this.streetToLightColor = streetToLightColor;
+        this.currentLightGreenSince = currentLightGreenSince;
+        this.currentLightYellowSince = currentLightYellowSince;
+        this.controllerCounters = controllerCounters;
+    }
+}
@@ -1,54 +1,41 @@
 package pl.edu.agh.model;
 
 import akka.actor.ActorRef;
-import com.google.common.collect.ImmutableMap;
 import pl.edu.agh.configuration.DriverConfiguration;
 import pl.edu.agh.messages.DriverUpdate;
 import pl.edu.agh.messages.IntersectionSurrounding;
 import pl.edu.agh.messages.TrafficGenerationMessage;
 import pl.edu.agh.messages.TrafficLightsUpdate;
 
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import static pl.edu.agh.model.Street.NORTH_SOUTH;
 import static pl.edu.agh.model.Street.WEST_EAST;
 import static pl.edu.agh.model.TrafficLightColor.GREEN;
 import static pl.edu.agh.model.TrafficLightColor.RED;
 
-public class WorldSnapshot {
+public abstract class WorldSnapshot {
     public static final int INITIAL_VELOCITY = 0;
-    private Map<ActorRef, DriverState> driverToState = new HashMap<ActorRef, DriverState>();
-    private Map<ActorRef, DriverConfiguration> driverToConfiguration = new HashMap<ActorRef, DriverConfiguration>();
-    private Map<Street, TrafficLightColor> streetToLightColor = new HashMap<Street, TrafficLightColor>();
+    protected Map<Street, TrafficLightColor> streetToLightColor;
 
-    public WorldSnapshot() {
+    protected WorldSnapshot() {
+        streetToLightColor = new HashMap<Street, TrafficLightColor>();
         streetToLightColor.put(WEST_EAST, GREEN);
         streetToLightColor.put(NORTH_SOUTH, RED);
     }
 
-    public WorldSnapshot(Map<ActorRef,DriverState> driverToState,
-                         Map<ActorRef, DriverConfiguration> driverToConfiguration,
-                         Map<Street, TrafficLightColor> streetToLightColor) {
-        this.driverToState = driverToState;
-        this.driverToConfiguration = driverToConfiguration;
+    protected WorldSnapshot(Map<Street, TrafficLightColor> streetToLightColor) {
         this.streetToLightColor = streetToLightColor;
     }
 
-    public void update(ActorRef driver, DriverUpdate updateMessage) {
-        driverToState.put(driver, new DriverState(
-                        driverToState.get(driver).getStreet(),
-                        updateMessage.newDistanceToIntersection,
-                        updateMessage.currentVelocity)
-        );
-    }
-
-    public void remove(ActorRef driver) {
-        driverToConfiguration.remove(driver);
-        driverToState.remove(driver);
+    public static WorldSnapshot create(Boolean useArrayStorage) {
+        if (Boolean.TRUE.equals(useArrayStorage)) {
+            return new ArrayWorldSnapshot();
+        }
+        return new MapWorldSnapshot();
     }
 
     public void update(TrafficLightsUpdate update) {
@@ -63,99 +50,49 @@ public class WorldSnapshot {
         }
     }
 
-    public void addDriver(ActorRef driver, Street street, DriverConfiguration configuration) {
-        driverToConfiguration.put(driver, configuration);
-        driverToState.put(driver, new DriverState(
-                street,
-                configuration.initialDistanceToIntersection,
-                INITIAL_VELOCITY
-        ));
-    }
-
-    public Set<ActorRef> getAllDrivers() {
-        return new HashSet<>(driverToState.keySet());
-    }
-
     public TrafficLightColor getLightColorOnStreet(Street street) {
         return streetToLightColor.get(street);
     }
 
-    public Set<ActorRef> getDriversOnStreet(Street street) {
-        Set<ActorRef> result = driverToState.keySet().stream().filter(driver -> street.equals(driverToState.get(driver).getStreet())).collect(Collectors.toSet());
-        return result;
+    public Map<Street, TrafficLightColor> getLightColors() {
+        return Collections.unmodifiableMap(streetToLightColor);
     }
 
-    public Set<ActorRef> getDriversBeforeIntersectionOnStreet(Street street) {
-        Set<ActorRef> result = new HashSet<>();
-        for (ActorRef driver : getDriversOnStreet(street)) {
-            DriverState state = driverToState.get(driver);
-            if (state.getPositionOnStreet() > 0) {
-                result.add(driver);
-            }
-        }
-        return result;
-    }
+    public void recycleRemovedIds() {}
 
-    public WorldSnapshot copy() {
-        return new WorldSnapshot(
-                new HashMap<>(driverToState),
-                new HashMap<>(driverToConfiguration),
-                new HashMap<>(streetToLightColor)
-        );
-    }
+    public abstract void update(ActorRef driver, DriverUpdate updateMessage);
 
-    public DriverState getDriverState(ActorRef driver) {
-        return driverToState.get(driver);
-    }
+    public abstract void remove(ActorRef driver);
 
-    public DriverConfiguration getDriverConfiguration(ActorRef driver) {
-        return driverToConfiguration.get(driver);
-    }
+    public abstract void addDriver(ActorRef driver, Street street, DriverConfiguration configuration);
 
-    public IntersectionSurrounding getIntersectionSurrouding(Boolean isInitialMessage) {
-        final Set<DriverState> northSouthDrivers = new HashSet<DriverState>();
-        final Set<DriverState> eastWestDrivers = new HashSet<DriverState>();
-        for (ActorRef driver : driverToState.keySet()) {
-            DriverState state = driverToState.get(driver);
-            if (state.getPositionOnStreet() < 0) {
-                continue;
-            }
-            if (state.getStreet() == WEST_EAST) {
-                eastWestDrivers.add(state);
-            } else {
-                northSouthDrivers.add(state);
-            }
-        }
-        return  new IntersectionSurrounding(
-                new HashMap<Street, Set<DriverState>>() {{
-                    put(WEST_EAST, eastWestDrivers);
-                    put(NORTH_SOUTH, northSouthDrivers);
-                }}, isInitialMessage);
-    }
+    public abstract Set<ActorRef> getAllDrivers();
 
-    public Integer getCarAheadDistance(ActorRef driver) {
-        Set<ActorRef> driversOnSameStreet = getDriversOnStreet(driverToState.get(driver).getStreet());
-        driversOnSameStreet.remove(driver);
-        Integer nearestDistanceAhead = Integer.MAX_VALUE;
-        for (ActorRef driverOnSameStreet : driversOnSameStreet) {
-            if (isAhead(driver, driverOnSameStreet)) {
-                if (distance(driver, driverOnSameStreet) < nearestDistanceAhead) {
-                    nearestDistanceAhead = distance(driver, driverOnSameStreet);
-                }
-            }
-        }
-        return nearestDistanceAhead;
-    }
+    public abstract int getVehiclesCount();
 
-    public Set<DriverState> getAllDriversStates() {
-        return new HashSet<>(driverToState.values());
-    }
+    public abstract Set<ActorRef> getDriversOnStreet(Street street);
 
-    private boolean isAhead(ActorRef driver, ActorRef driverOnSameStreet) {
-        return driverToState.get(driver).getPositionOnStreet() > driverToState.get(driverOnSameStreet).getPositionOnStreet();
-    }
+    public abstract Set<ActorRef> getDriversBeforeIntersectionOnStreet(Street street);
 
-    private Integer distance(ActorRef driver, ActorRef driverOnSameStreet) {
-        return driverToState.get(driver).getPositionOnStreet() - driverToState.get(driverOnSameStreet).getPositionOnStreet();
-    }
+    public abstract int countDriversOnStreet(Street street);
+
+    public abstract int countDriversBeforeIntersectionOnStreet(Street street);
+
+    public abstract int sumVelocitiesOnStreet(Street street);
+
+    public abstract int sumVelocitiesBeforeIntersectionOnStreet(Street street);
+
+    public abstract int countDriversThatCrossedIntersectionSince(WorldSnapshot previousSnapshot);
+
+    public abstract WorldSnapshot copy();
+
+    public abstract DriverState getDriverState(ActorRef driver);
+
+    public abstract DriverConfiguration getDriverConfiguration(ActorRef driver);
+
+    public abstract IntersectionSurrounding getIntersectionSurrouding(Boolean isInitialMessage);
+
+    public abstract Integer getCarAheadDistance(ActorRef driver);
+
+    public abstract Set<DriverState> getAllDriversStates();
 }
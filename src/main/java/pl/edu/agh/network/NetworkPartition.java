@@ -0,0 +1,439 @@
+package pl.edu.agh.network;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.logic.CollisionDetector;
+import pl.edu.agh.logic.DriverLogic;
+import pl.edu.agh.logic.GreenLightDurationTracker;
+import pl.edu.agh.logic.RandomStreams;
+import pl.edu.agh.logic.SelfOrganizingTrafficLightsLogic;
+import pl.edu.agh.logic.SimpleTrafficLightsLogic;
+import pl.edu.agh.logic.TrafficGenerationLogic;
+import pl.edu.agh.logic.TrafficLightsLogic;
+import pl.edu.agh.messages.IntersectionSurrounding;
+import pl.edu.agh.messages.RegionStats;
+import pl.edu.agh.messages.VehicleHandover;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.StreetOccupancy;
+import pl.edu.agh.model.TrafficLightColor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+import static pl.edu.agh.model.TrafficLightColor.GREEN;
+import static pl.edu.agh.model.TrafficLightColor.RED;
+
+/**
+ * Intersections of one band of columns together with their incoming links and the vehicles on them.
+ * A tick only reads state owned by this partition plus {@code rearPositions} published by the
+ * neighbours, and the only thing sent across the boundary are vehicles handed over to a link of
+ * another partition. Handovers, local ones included, are applied after every partition finished
+ * driving, so the outcome does not depend on how the grid is partitioned.
+ */
+public class NetworkPartition {
+    public static final int NO_VEHICLE_ON_LINK = Integer.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final Comparator<Handover> BY_VEHICLE_ID = Comparator.comparingLong(handover -> handover.vehicleId);
+
+    private final int partition;
+    private final RoadNetwork network;
+    private final WorldConfiguration worldConfiguration;
+    private final CollisionDetector collisionDetector;
+    private final int[] rearPositions;
+    private final int[] intersections;
+    private final int[] links;
+    private final TrafficLightsLogic[] controllers;
+    private final List<Map<Street, TrafficLightColor>> lights = new ArrayList<>();
+    private final GreenLightDurationTracker[] greenLightDurations;
+    private final TrafficGenerationLogic[] generators;
+    private final int[] generatedVehicles;
+    private final int[][] lanes;
+    private final int[] laneSizes;
+    private final StreetOccupancy[] occupancies;
+    private final List<List<Handover>> outboxes = new ArrayList<>();
+    private final List<Handover> inbox = new ArrayList<>();
+
+    private DriverLogic[] drivers = new DriverLogic[INITIAL_CAPACITY];
+    private long[] vehicleIds = new long[INITIAL_CAPACITY];
+    private int[] previousPositions = new int[INITIAL_CAPACITY];
+    private int[] carAheadDistances = new int[INITIAL_CAPACITY];
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeSlotsCount = 0;
+    private int slotsBound = 0;
+
+    private long totalVelocity = 0;
+    private long totalVehicleTicks = 0;
+    private long totalCrossings = 0;
+    private long totalWaiting = 0;
+    private long totalCollisions = 0;
+
+    public NetworkPartition(int partition,
+                     int partitions,
+                     RoadNetwork network,
+                     DriverConfiguration baseDriverConfiguration,
+                     TrafficLightsConfiguration trafficLightsConfiguration,
+                     WorldConfiguration worldConfiguration,
+                     RandomStreams randomStreams,
+                     int[] rearPositions) {
+        this.partition = partition;
+        this.network = network;
+        this.worldConfiguration = worldConfiguration;
+        this.collisionDetector = new CollisionDetector(worldConfiguration.streetWidth);
+        this.rearPositions = rearPositions;
+        this.intersections = ownedIntersections(network, partition, partitions);
+        this.links = new int[intersections.length * Street.values().length];
+        this.controllers = new TrafficLightsLogic[intersections.length];
+        this.greenLightDurations = new GreenLightDurationTracker[intersections.length];
+        this.generators = new TrafficGenerationLogic[network.getLinkCount()];
+        this.generatedVehicles = new int[network.getLinkCount()];
+        this.lanes = new int[network.getLinkCount()][];
+        this.laneSizes = new int[network.getLinkCount()];
+        this.occupancies = new StreetOccupancy[network.getLinkCount()];
+        for (int i = 0; i < intersections.length; i++) {
+            controllers[i] = worldConfiguration.useSimpleLights
+                    ? new SimpleTrafficLightsLogic(trafficLightsConfiguration)
+                    : new SelfOrganizingTrafficLightsLogic(trafficLightsConfiguration);
+            Map<Street, TrafficLightColor> initialLights = new EnumMap<>(Street.class);
+            initialLights.put(WEST_EAST, GREEN);
+            initialLights.put(NORTH_SOUTH, RED);
+            lights.add(initialLights);
+            greenLightDurations[i] = new GreenLightDurationTracker();
+            StreetOccupancy occupancy = new StreetOccupancy();
+            for (Street street : Street.values()) {
+                int link = network.getLink(intersections[i], street);
+                links[i * Street.values().length + street.ordinal()] = link;
+                lanes[link] = new int[INITIAL_CAPACITY];
+                occupancies[link] = occupancy;
+                if (network.isSourceLink(link)) {
+                    generators[link] = new TrafficGenerationLogic(
+                            worldConfiguration.newCarGenerationProbability,
+                            baseDriverConfiguration,
+                            network.getLinkLength(link),
+                            randomStreams.sourceLinkSeed(link));
+                }
+            }
+        }
+        for (int i = 0; i < partitions; i++) {
+            outboxes.add(new ArrayList<>());
+        }
+    }
+
+    public void tick() {
+        for (int link : links) {
+            sortLane(link);
+            computeCarAheadDistances(link);
+        }
+        List<Map<Street, TrafficLightColor>> newLights = new ArrayList<>(intersections.length);
+        for (int i = 0; i < intersections.length; i++) {
+            newLights.add(controllers[i].update(getIntersectionSurrounding(i)));
+        }
+        List<Optional<DriverConfiguration>> newTraffic = new ArrayList<>();
+        for (int link : links) {
+            if (generators[link] != null) {
+                newTraffic.add(generators[link].generateTraffic(isGenerationPossible(link), network.getStreet(link)));
+            }
+        }
+
+        for (int i = 0; i < intersections.length; i++) {
+            for (Street street : Street.values()) {
+                moveDrivers(links[i * Street.values().length + street.ordinal()], lights.get(i).get(street));
+            }
+        }
+        for (int i = 0; i < intersections.length; i++) {
+            totalCollisions += detectCollisions(i);
+        }
+        for (int link : links) {
+            releaseVehiclesLeavingLink(link);
+        }
+
+        for (int i = 0; i < intersections.length; i++) {
+            greenLightDurations[i].addLights(lights.get(i), newLights.get(i));
+            lights.set(i, newLights.get(i));
+        }
+        int sourceLinkNo = 0;
+        for (int link : links) {
+            if (generators[link] != null) {
+                newTraffic.get(sourceLinkNo++).ifPresent(configuration -> spawn(link, configuration));
+            }
+        }
+        recordTick();
+    }
+
+    List<Handover> getOutbox(int partition) {
+        return outboxes.get(partition);
+    }
+
+    void receive(List<Handover> handovers) {
+        inbox.addAll(handovers);
+        handovers.clear();
+    }
+
+    /**
+     * Applies handovers received during the last tick and publishes, for every owned link, the position
+     * of its rearmost vehicle - the only state of this partition that other partitions read.
+     */
+    public void acceptHandovers() {
+        inbox.sort(BY_VEHICLE_ID);
+        for (Handover handover : inbox) {
+            handover.driver.enterNextLink(network.getLinkLength(handover.link));
+            int slot = allocateSlot();
+            drivers[slot] = handover.driver;
+            vehicleIds[slot] = handover.vehicleId;
+            previousPositions[slot] = handover.driver.getDistanceToIntersection();
+            addToLane(handover.link, slot);
+        }
+        inbox.clear();
+        for (int link : links) {
+            rearPositions[link] = getRearPosition(link);
+        }
+    }
+
+    /**
+     * Handovers to other partitions converted to messages, for partitions living in another process.
+     * Handovers within this partition stay in place for {@link #acceptHandovers}.
+     */
+    public List<VehicleHandover> takeRemoteHandovers() {
+        List<VehicleHandover> handovers = new ArrayList<>();
+        for (int target = 0; target < outboxes.size(); target++) {
+            if (target == partition) {
+                continue;
+            }
+            for (Handover handover : outboxes.get(target)) {
+                handovers.add(new VehicleHandover(handover.vehicleId, handover.link, handover.driver.getState()));
+            }
+            outboxes.get(target).clear();
+        }
+        return handovers;
+    }
+
+    public void receiveRemoteHandovers(List<VehicleHandover> handovers) {
+        for (VehicleHandover handover : handovers) {
+            inbox.add(new Handover(handover.vehicleId, new DriverLogic(handover.driver), handover.link));
+        }
+        receive(outboxes.get(partition));
+    }
+
+    public int getIntersectionCount() {
+        return intersections.length;
+    }
+
+    public void setRearPosition(int link, int rearPosition) {
+        rearPositions[link] = rearPosition;
+    }
+
+    public int getRearPosition(int link) {
+        int rearPosition = NO_VEHICLE_ON_LINK;
+        for (int index = 0; index < laneSizes[link]; index++) {
+            rearPosition = Math.max(rearPosition, drivers[lanes[link][index]].getDistanceToIntersection());
+        }
+        return rearPosition;
+    }
+
+    public RegionStats getStats() {
+        float[] totalGreenLightDurations = new float[Street.values().length];
+        int[] numberOfGreenLightPeriods = new int[Street.values().length];
+        for (GreenLightDurationTracker tracker : greenLightDurations) {
+            for (Street street : Street.values()) {
+                totalGreenLightDurations[street.ordinal()] += tracker.getTotalGreenLightDuration(street);
+                numberOfGreenLightPeriods[street.ordinal()] += tracker.getNumberOfGreenLightPeriods(street);
+            }
+        }
+        return new RegionStats(partition, totalVelocity, totalVehicleTicks, totalCrossings, totalWaiting,
+                totalCollisions, totalGreenLightDurations, numberOfGreenLightPeriods);
+    }
+
+    private void computeCarAheadDistances(int link) {
+        int[] lane = lanes[link];
+        for (int index = 0; index < laneSizes[link]; index++) {
+            int position = drivers[lane[index]].getDistanceToIntersection();
+            int ahead = index - 1;
+            while (ahead >= 0 && drivers[lane[ahead]].getDistanceToIntersection() >= position) {
+                ahead--;
+            }
+            if (ahead >= 0) {
+                carAheadDistances[lane[index]] = position - drivers[lane[ahead]].getDistanceToIntersection();
+            } else {
+                carAheadDistances[lane[index]] = distanceToRearOfDownstreamLink(link, position);
+            }
+        }
+    }
+
+    private int distanceToRearOfDownstreamLink(int link, int position) {
+        int downstream = network.getDownstreamLink(link);
+        if (downstream == RoadNetwork.NO_LINK || rearPositions[downstream] == NO_VEHICLE_ON_LINK) {
+            return Integer.MAX_VALUE;
+        }
+        return Math.max(0, position + network.getLinkLength(downstream) - rearPositions[downstream]);
+    }
+
+    private IntersectionSurrounding getIntersectionSurrounding(int index) {
+        return new IntersectionSurrounding(occupancies[links[index * Street.values().length]], false);
+    }
+
+    private boolean isGenerationPossible(int link) {
+        return generators[link].isGenerationPossible(occupancies[link], network.getStreet(link));
+    }
+
+    private void moveDrivers(int link, TrafficLightColor lightColor) {
+        for (int index = 0; index < laneSizes[link]; index++) {
+            int slot = lanes[link][index];
+            DriverLogic driver = drivers[slot];
+            previousPositions[slot] = driver.getDistanceToIntersection();
+            driver.drive(carAheadDistances[slot], lightColor, lightColor);
+            occupancies[link].move(network.getStreet(link), previousPositions[slot], driver.getDistanceToIntersection());
+            if (previousPositions[slot] > 0 && driver.getDistanceToIntersection() <= 0) {
+                totalCrossings++;
+            }
+        }
+    }
+
+    private int detectCollisions(int index) {
+        List<Long> westEastVehicles = vehiclesOnIntersection(links[index * Street.values().length + WEST_EAST.ordinal()]);
+        List<Long> northSouthVehicles = vehiclesOnIntersection(links[index * Street.values().length + NORTH_SOUTH.ordinal()]);
+        return collisionDetector.detectCollisions(0, westEastVehicles, northSouthVehicles).size();
+    }
+
+    private List<Long> vehiclesOnIntersection(int link) {
+        List<Long> vehicles = new ArrayList<>();
+        for (int index = 0; index < laneSizes[link]; index++) {
+            int slot = lanes[link][index];
+            DriverLogic driver = drivers[slot];
+            if (collisionDetector.isOnIntersection(previousPositions[slot], driver.getDistanceToIntersection(), driver.getConfiguration().carLength)) {
+                vehicles.add(vehicleIds[slot]);
+            }
+        }
+        return vehicles;
+    }
+
+    /**
+     * Vehicles that cleared the intersection move to the downstream link, vehicles past the last
+     * intersection of their street leave the network once they are out of the monitored distance.
+     */
+    private void releaseVehiclesLeavingLink(int link) {
+        int downstream = network.getDownstreamLink(link);
+        int[] lane = lanes[link];
+        int kept = 0;
+        for (int index = 0; index < laneSizes[link]; index++) {
+            int slot = lane[index];
+            int position = drivers[slot].getDistanceToIntersection();
+            if (downstream != RoadNetwork.NO_LINK && position <= -worldConfiguration.streetWidth) {
+                int target = network.getPartition(network.getIntersectionOfLink(downstream), outboxes.size());
+                outboxes.get(target).add(new Handover(vehicleIds[slot], drivers[slot], downstream));
+                occupancies[link].remove(network.getStreet(link), position);
+                freeSlot(slot);
+            } else if (downstream == RoadNetwork.NO_LINK && position < -worldConfiguration.monitoredDistanceFromCrossing) {
+                occupancies[link].remove(network.getStreet(link), position);
+                freeSlot(slot);
+            } else {
+                lane[kept++] = slot;
+            }
+        }
+        laneSizes[link] = kept;
+    }
+
+    private void recordTick() {
+        for (int i = 0; i < intersections.length; i++) {
+            for (Street street : Street.values()) {
+                int link = links[i * Street.values().length + street.ordinal()];
+                boolean stopped = lights.get(i).get(street) != GREEN;
+                for (int index = 0; index < laneSizes[link]; index++) {
+                    DriverLogic driver = drivers[lanes[link][index]];
+                    totalVelocity += driver.getVelocity();
+                    if (stopped && driver.getDistanceToIntersection() > 0) {
+                        totalWaiting++;
+                    }
+                }
+                totalVehicleTicks += laneSizes[link];
+            }
+        }
+    }
+
+    private void spawn(int link, DriverConfiguration configuration) {
+        int slot = allocateSlot();
+        drivers[slot] = new DriverLogic(configuration);
+        vehicleIds[slot] = ((long) link << 32) | generatedVehicles[link]++;
+        previousPositions[slot] = configuration.initialDistanceToIntersection;
+        addToLane(link, slot);
+    }
+
+    private void addToLane(int link, int slot) {
+        if (laneSizes[link] == lanes[link].length) {
+            lanes[link] = Arrays.copyOf(lanes[link], lanes[link].length * 2);
+        }
+        lanes[link][laneSizes[link]++] = slot;
+        occupancies[link].add(network.getStreet(link), drivers[slot].getDistanceToIntersection());
+    }
+
+    /**
+     * Insertion sort by position, then vehicle id; lanes are almost sorted between ticks.
+     */
+    private void sortLane(int link) {
+        int[] lane = lanes[link];
+        for (int index = 1; index < laneSizes[link]; index++) {
+            int slot = lane[index];
+            int previous = index - 1;
+            while (previous >= 0 && isAhead(slot, lane[previous])) {
+                lane[previous + 1] = lane[previous];
+                previous--;
+            }
+            lane[previous + 1] = slot;
+        }
+    }
+
+    private boolean isAhead(int slot, int otherSlot) {
+        int position = drivers[slot].getDistanceToIntersection();
+        int otherPosition = drivers[otherSlot].getDistanceToIntersection();
+        return position < otherPosition || (position == otherPosition && vehicleIds[slot] < vehicleIds[otherSlot]);
+    }
+
+    private int allocateSlot() {
+        if (freeSlotsCount > 0) {
+            return freeSlots[--freeSlotsCount];
+        }
+        if (slotsBound == drivers.length) {
+            int newCapacity = drivers.length * 2;
+            drivers = Arrays.copyOf(drivers, newCapacity);
+            vehicleIds = Arrays.copyOf(vehicleIds, newCapacity);
+            previousPositions = Arrays.copyOf(previousPositions, newCapacity);
+            carAheadDistances = Arrays.copyOf(carAheadDistances, newCapacity);
+            freeSlots = Arrays.copyOf(freeSlots, newCapacity);
+        }
+        return slotsBound++;
+    }
+
+    private void freeSlot(int slot) {
+        drivers[slot] = null;
+        freeSlots[freeSlotsCount++] = slot;
+    }
+
+    private static int[] ownedIntersections(RoadNetwork network, int partition, int partitions) {
+        int[] owned = new int[network.getIntersectionCount()];
+        int count = 0;
+        for (int intersection = 0; intersection < network.getIntersectionCount(); intersection++) {
+            if (network.getPartition(intersection, partitions) == partition) {
+                owned[count++] = intersection;
+            }
+        }
+        return Arrays.copyOf(owned, count);
+    }
+
+    static final class Handover {
+        final long vehicleId;
+        final DriverLogic driver;
+        final int link;
+
+        Handover(long vehicleId, DriverLogic driver, int link) {
+            this.vehicleId = vehicleId;
+            this.driver = driver;
+            this.link = link;
+        }
+    }
+}
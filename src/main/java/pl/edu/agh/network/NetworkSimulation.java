@@ -0,0 +1,122 @@
+package pl.edu.agh.network;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.logic.RandomStreams;
+import pl.edu.agh.model.SimulationStats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs a {@link RoadNetwork} split into partitions that tick in parallel. Each tick has two phases
+ * separated by a barrier: every partition drives its own vehicles, then the boundary vehicles are
+ * routed to their new partitions and every partition accepts them and publishes the rear of its links.
+ */
+public class NetworkSimulation {
+    private final WorldConfiguration worldConfiguration;
+    private final RoadNetwork network;
+    private final List<NetworkPartition> partitions = new ArrayList<>();
+    private final int threads;
+    private long elapsedNanos = 0;
+
+    public NetworkSimulation(DriverConfiguration baseDriverConfiguration,
+                             TrafficLightsConfiguration trafficLightsConfiguration,
+                             WorldConfiguration worldConfiguration) {
+        this.worldConfiguration = worldConfiguration;
+        this.network = new RoadNetwork(
+                worldConfiguration.networkRows,
+                worldConfiguration.networkColumns,
+                worldConfiguration.networkBlockLength,
+                worldConfiguration.monitoredDistanceFromCrossing);
+        int cores = Runtime.getRuntime().availableProcessors();
+        int partitionCount = worldConfiguration.networkPartitions > 0 ? worldConfiguration.networkPartitions : cores;
+        partitionCount = Math.min(partitionCount, network.getColumns());
+        this.threads = Math.min(partitionCount, cores);
+        RandomStreams randomStreams = new RandomStreams(worldConfiguration.randomSeed);
+        int[] rearPositions = new int[network.getLinkCount()];
+        Arrays.fill(rearPositions, NetworkPartition.NO_VEHICLE_ON_LINK);
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitions.add(new NetworkPartition(partition, partitionCount, network,
+                    baseDriverConfiguration, trafficLightsConfiguration, worldConfiguration,
+                    randomStreams, rearPositions));
+        }
+    }
+
+    public SimulationStats run() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Callable<Void>> tickPhase = new ArrayList<>();
+        List<Callable<Void>> handoverPhase = new ArrayList<>();
+        for (NetworkPartition partition : partitions) {
+            tickPhase.add(() -> {
+                partition.tick();
+                return null;
+            });
+            handoverPhase.add(() -> {
+                partition.acceptHandovers();
+                return null;
+            });
+        }
+        long start = System.nanoTime();
+        try {
+            for (int iteration = 1; iteration < worldConfiguration.simulationIterations; iteration++) {
+                runPhase(executor, tickPhase);
+                routeHandovers();
+                runPhase(executor, handoverPhase);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        elapsedNanos = System.nanoTime() - start;
+        return calculateSimulationStats();
+    }
+
+    /**
+     * Describes the size, the parallelism and the throughput of the last {@link #run}.
+     */
+    public String throughputSummary() {
+        double elapsedSeconds = elapsedNanos / 1e9;
+        return String.format("Simulated %d intersections in %d partitions on %d threads: %.1f s (%.0f intersection ticks/s)",
+                network.getIntersectionCount(), partitions.size(), threads, elapsedSeconds, getIntersectionTicksPerSecond());
+    }
+
+    public double getIntersectionTicksPerSecond() {
+        return (double) network.getIntersectionCount() * (worldConfiguration.simulationIterations - 1) / (elapsedNanos / 1e9);
+    }
+
+    private void runPhase(ExecutorService executor, List<Callable<Void>> phase) throws InterruptedException {
+        for (Future<Void> result : executor.invokeAll(phase)) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Network partition failed", e.getCause());
+            }
+        }
+    }
+
+    private void routeHandovers() {
+        for (NetworkPartition source : partitions) {
+            for (int target = 0; target < partitions.size(); target++) {
+                List<NetworkPartition.Handover> outbox = source.getOutbox(target);
+                if (!outbox.isEmpty()) {
+                    partitions.get(target).receive(outbox);
+                }
+            }
+        }
+    }
+
+    private SimulationStats calculateSimulationStats() {
+        NetworkStatsCalculator calculator = new NetworkStatsCalculator();
+        for (NetworkPartition partition : partitions) {
+            calculator.addRegion(partition.getStats());
+        }
+        return calculator.calculateSimulationStats(worldConfiguration.simulationIterations - 1);
+    }
+}
@@ -0,0 +1,40 @@
+package pl.edu.agh.network;
+
+import pl.edu.agh.messages.RegionStats;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.model.Street;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+public class NetworkStatsCalculator {
+    private long totalVelocity = 0;
+    private long totalVehicleTicks = 0;
+    private long totalCrossings = 0;
+    private long totalWaiting = 0;
+    private long totalCollisions = 0;
+    private final float[] totalGreenLightDurations = new float[Street.values().length];
+    private final int[] numberOfGreenLightPeriods = new int[Street.values().length];
+
+    public void addRegion(RegionStats stats) {
+        totalVelocity += stats.totalVelocity;
+        totalVehicleTicks += stats.totalVehicleTicks;
+        totalCrossings += stats.totalCrossings;
+        totalWaiting += stats.totalWaiting;
+        totalCollisions += stats.totalCollisions;
+        for (Street street : Street.values()) {
+            totalGreenLightDurations[street.ordinal()] += stats.totalGreenLightDurations[street.ordinal()];
+            numberOfGreenLightPeriods[street.ordinal()] += stats.numberOfGreenLightPeriods[street.ordinal()];
+        }
+    }
+
+    public SimulationStats calculateSimulationStats(int ticks) {
+        return new SimulationStats(
+                totalVehicleTicks == 0 ? 0.0f : (float) totalVelocity / totalVehicleTicks,
+                (int) totalCollisions,
+                totalCrossings / (float) ticks,
+                totalWaiting / (float) ticks,
+                totalGreenLightDurations[NORTH_SOUTH.ordinal()] / numberOfGreenLightPeriods[NORTH_SOUTH.ordinal()],
+                totalGreenLightDurations[WEST_EAST.ordinal()] / numberOfGreenLightPeriods[WEST_EAST.ordinal()]);
+    }
+}
@@ -0,0 +1,145 @@
+package pl.edu.agh.network;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.ExtendedActorSystem;
+import akka.actor.Inbox;
+import akka.actor.Props;
+import akka.actor.Terminated;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import pl.edu.agh.actors.NetworkRegion;
+import pl.edu.agh.actors.NetworkSupervisor;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.messages.WorldInitialization;
+import pl.edu.agh.model.SimulationStats;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import scala.concurrent.duration.Duration;
+
+/**
+ * Runs a road network split into regions, each in its own JVM on this machine. The processes talk
+ * to the coordinating {@link NetworkSupervisor} with Akka remoting over 127.0.0.1.
+ */
+public class RemoteNetworkSimulation {
+    private static final String REMOTE_CONFIGURATION = "network-remote.conf";
+    private static final long REGION_SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final long RESULT_POLL_INTERVAL_MILLIS = 500;
+    private final DriverConfiguration baseDriverConfiguration;
+    private final TrafficLightsConfiguration trafficLightsConfiguration;
+    private final WorldConfiguration worldConfiguration;
+
+    public RemoteNetworkSimulation(DriverConfiguration baseDriverConfiguration,
+                                   TrafficLightsConfiguration trafficLightsConfiguration,
+                                   WorldConfiguration worldConfiguration) {
+        if (worldConfiguration.networkRegionProcesses > worldConfiguration.networkColumns) {
+            throw new IllegalArgumentException("Cannot split " + worldConfiguration.networkColumns
+                    + " columns into " + worldConfiguration.networkRegionProcesses + " regions");
+        }
+        this.baseDriverConfiguration = baseDriverConfiguration;
+        this.trafficLightsConfiguration = trafficLightsConfiguration;
+        this.worldConfiguration = worldConfiguration;
+    }
+
+    public SimulationStats run() throws InterruptedException {
+        ActorSystem system = ActorSystem.create("NetworkSimulation", remoteConfiguration());
+        List<Process> regionProcesses = new ArrayList<>();
+        try {
+            ActorRef supervisor = system.actorOf(Props.create(NetworkSupervisor.class), "networkSupervisor");
+            Inbox supervisorWatch = Inbox.create(system);
+            supervisorWatch.watch(supervisor);
+            BlockingQueue<SimulationStats> resultCallback = new LinkedBlockingQueue<>();
+            supervisor.tell(new WorldInitialization(
+                    baseDriverConfiguration,
+                    trafficLightsConfiguration,
+                    worldConfiguration,
+                    resultCallback), null);
+            String supervisorPath = supervisor.path().toStringWithAddress(
+                    ((ExtendedActorSystem) system).provider().getDefaultAddress());
+            for (int region = 0; region < worldConfiguration.networkRegionProcesses; region++) {
+                regionProcesses.add(startRegionProcess(supervisorPath, region));
+            }
+            return awaitResult(resultCallback, supervisorWatch, regionProcesses);
+        } finally {
+            system.shutdown();
+            for (Process process : regionProcesses) {
+                if (!process.waitFor(REGION_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits for the statistics, failing once a region process exits abnormally or the supervisor stops
+     * because it lost a region.
+     */
+    private SimulationStats awaitResult(BlockingQueue<SimulationStats> resultCallback,
+                                        Inbox supervisorWatch,
+                                        List<Process> regionProcesses) throws InterruptedException {
+        while (true) {
+            SimulationStats stats = resultCallback.poll(RESULT_POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            if (stats != null) {
+                return stats;
+            }
+            for (int region = 0; region < regionProcesses.size(); region++) {
+                Process process = regionProcesses.get(region);
+                if (!process.isAlive() && process.exitValue() != 0) {
+                    throw new IllegalStateException("Process of region " + region + " exited with code "
+                            + process.exitValue() + " before the simulation finished");
+                }
+            }
+            if (hasTerminated(supervisorWatch)) {
+                throw new IllegalStateException("Network supervisor stopped before the simulation finished, see its log");
+            }
+        }
+    }
+
+    private boolean hasTerminated(Inbox supervisorWatch) {
+        try {
+            return supervisorWatch.receive(Duration.Zero()) instanceof Terminated;
+        } catch (Exception e) {
+            // Inbox.receive reports an empty inbox with a TimeoutException its Scala signature does not declare
+            if (e instanceof TimeoutException) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    private Process startRegionProcess(String supervisorPath, int region) {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        ProcessBuilder builder = new ProcessBuilder(java,
+                "-cp", System.getProperty("java.class.path"),
+                RemoteNetworkSimulation.class.getName(),
+                supervisorPath, String.valueOf(region));
+        try {
+            return builder.inheritIO().start();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start process for region " + region, e);
+        }
+    }
+
+    static Config remoteConfiguration() {
+        return ConfigFactory.parseResources(REMOTE_CONFIGURATION).withFallback(ConfigFactory.load());
+    }
+
+    /**
+     * Entry point of a region process: {@code <supervisor actor path> <region>}.
+     */
+    public static void main(String[] args) {
+        ActorSystem system = ActorSystem.create("NetworkRegion", remoteConfiguration());
+        system.actorOf(NetworkRegion.props(args[0], Integer.parseInt(args[1])), "region");
+        system.awaitTermination();
+    }
+}
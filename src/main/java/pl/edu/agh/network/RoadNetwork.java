@@ -0,0 +1,145 @@
+package pl.edu.agh.network;
+
+import pl.edu.agh.model.Street;
+
+import java.util.Arrays;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+/**
+ * City grid of signalised intersections connected by one-way directed links. Every WEST_EAST street
+ * runs along a row and every NORTH_SOUTH street along a column, so each intersection has exactly one
+ * incoming link per {@link Street} and looks like the single-intersection model to its controller.
+ * <p>
+ * Link {@code (street, row, column)} approaches intersection {@code (row, column)}. Links leaving the
+ * west and north edges are sources where traffic is generated; a vehicle that crosses the last
+ * intersection of its street stays on its link until it leaves the monitored distance.
+ */
+public class RoadNetwork {
+    public static final int NO_LINK = -1;
+    private final int rows;
+    private final int columns;
+    private final int blockLength;
+    private final int sourceLinkLength;
+
+    public RoadNetwork(int rows, int columns, int blockLength, int sourceLinkLength) {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Road network needs at least one intersection");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.blockLength = blockLength;
+        this.sourceLinkLength = sourceLinkLength;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getIntersectionCount() {
+        return rows * columns;
+    }
+
+    public int getLinkCount() {
+        return Street.values().length * getIntersectionCount();
+    }
+
+    public int getIntersection(int row, int column) {
+        return row * columns + column;
+    }
+
+    public int getLink(int intersection, Street street) {
+        return street.ordinal() * getIntersectionCount() + intersection;
+    }
+
+    public int getIntersectionOfLink(int link) {
+        return link % getIntersectionCount();
+    }
+
+    public Street getStreet(int link) {
+        return Street.values()[link / getIntersectionCount()];
+    }
+
+    public int getRow(int intersection) {
+        return intersection / columns;
+    }
+
+    public int getColumn(int intersection) {
+        return intersection % columns;
+    }
+
+    public boolean isSourceLink(int link) {
+        int intersection = getIntersectionOfLink(link);
+        return getStreet(link) == WEST_EAST ? getColumn(intersection) == 0 : getRow(intersection) == 0;
+    }
+
+    public int getLinkLength(int link) {
+        return isSourceLink(link) ? sourceLinkLength : blockLength;
+    }
+
+    public int getDownstreamLink(int link) {
+        int intersection = getIntersectionOfLink(link);
+        int row = getRow(intersection);
+        int column = getColumn(intersection);
+        if (getStreet(link) == WEST_EAST) {
+            return column + 1 < columns ? getLink(getIntersection(row, column + 1), WEST_EAST) : NO_LINK;
+        }
+        return row + 1 < rows ? getLink(getIntersection(row + 1, column), NORTH_SOUTH) : NO_LINK;
+    }
+
+    public int getUpstreamLink(int link) {
+        if (isSourceLink(link)) {
+            return NO_LINK;
+        }
+        int intersection = getIntersectionOfLink(link);
+        int row = getRow(intersection);
+        int column = getColumn(intersection);
+        if (getStreet(link) == WEST_EAST) {
+            return getLink(getIntersection(row, column - 1), WEST_EAST);
+        }
+        return getLink(getIntersection(row - 1, column), NORTH_SOUTH);
+    }
+
+    /**
+     * Links of the partition entered from another partition; their rear is read by that partition.
+     */
+    public int[] getIncomingBoundaryLinks(int partition, int partitions) {
+        return boundaryLinks(partition, partitions, true);
+    }
+
+    /**
+     * Links of other partitions entered from this partition; their rear is read by this partition.
+     */
+    public int[] getOutgoingBoundaryLinks(int partition, int partitions) {
+        return boundaryLinks(partition, partitions, false);
+    }
+
+    private int[] boundaryLinks(int partition, int partitions, boolean incoming) {
+        int[] links = new int[getLinkCount()];
+        int count = 0;
+        for (int link = 0; link < getLinkCount(); link++) {
+            int upstream = getUpstreamLink(link);
+            if (upstream == NO_LINK) {
+                continue;
+            }
+            int owner = getPartition(getIntersectionOfLink(link), partitions);
+            int upstreamOwner = getPartition(getIntersectionOfLink(upstream), partitions);
+            if (owner != upstreamOwner && (incoming ? owner : upstreamOwner) == partition) {
+                links[count++] = link;
+            }
+        }
+        return Arrays.copyOf(links, count);
+    }
+
+    /**
+     * Partitions are contiguous bands of columns, so only WEST_EAST traffic crosses partition boundaries.
+     */
+    public int getPartition(int intersection, int partitions) {
+        return (int) ((long) getColumn(intersection) * partitions / columns);
+    }
+}
@@ -0,0 +1,42 @@
+package pl.edu.agh.observer;
+
+import pl.edu.agh.model.Street;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+
+/**
+ * Reference observer drawing every frame as one text line per street. Vehicles approach from the
+ * left and are shown as their velocity, {@code |} marks the stop line.
+ */
+public class ConsoleWorldObserver implements WorldObserver {
+    private final int monitoredDistance;
+    private final PrintStream out;
+
+    public ConsoleWorldObserver(int monitoredDistance) {
+        this(monitoredDistance, System.out);
+    }
+
+    public ConsoleWorldObserver(int monitoredDistance, PrintStream out) {
+        this.monitoredDistance = monitoredDistance;
+        this.out = out;
+    }
+
+    @Override
+    public void onFrame(WorldFrame frame) {
+        StringBuilder text = new StringBuilder("Iteration ").append(frame.getIterationNo()).append('\n');
+        for (Street street : Street.values()) {
+            char[] lane = new char[2 * monitoredDistance + 1];
+            Arrays.fill(lane, '.');
+            lane[monitoredDistance] = '|';
+            for (int vehicle = 0; vehicle < frame.getVehicleCount(); vehicle++) {
+                int index = monitoredDistance - frame.getPosition(vehicle);
+                if (frame.getStreet(vehicle) == street && index >= 0 && index < lane.length) {
+                    lane[index] = Character.forDigit(Math.min(frame.getVelocity(vehicle), 9), 10);
+                }
+            }
+            text.append(String.format("%-11s %-6s ", street, frame.getLightColors().get(street))).append(lane).append('\n');
+        }
+        out.print(text);
+    }
+}
@@ -0,0 +1,82 @@
+package pl.edu.agh.observer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans sampled frames out to observers. Every observer has a bounded queue drained by its own daemon
+ * thread; when an observer falls behind, the oldest queued frame is dropped to make room, so
+ * {@link #publish} never waits for a viewer. A buffer size of 1 keeps only the latest frame.
+ */
+public class ObserverTap {
+    private final int sampleInterval;
+    private final List<Subscription> subscriptions = new ArrayList<>();
+
+    public ObserverTap(int sampleInterval, int bufferSize, List<WorldObserver> observers) {
+        this.sampleInterval = sampleInterval;
+        for (int i = 0; i < observers.size(); i++) {
+            subscriptions.add(new Subscription(observers.get(i), bufferSize, "world-observer-" + i));
+        }
+    }
+
+    public boolean isDue(int iterationNo) {
+        return iterationNo % sampleInterval == 0;
+    }
+
+    public void publish(WorldFrame frame) {
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(frame);
+        }
+    }
+
+    public long getDroppedFrames() {
+        long dropped = 0;
+        for (Subscription subscription : subscriptions) {
+            dropped += subscription.droppedFrames.get();
+        }
+        return dropped;
+    }
+
+    public void close() {
+        for (Subscription subscription : subscriptions) {
+            subscription.thread.interrupt();
+        }
+    }
+
+    private static class Subscription implements Runnable {
+        private final WorldObserver observer;
+        private final BlockingQueue<WorldFrame> frames;
+        private final AtomicLong droppedFrames = new AtomicLong();
+        private final Thread thread;
+
+        Subscription(WorldObserver observer, int bufferSize, String threadName) {
+            this.observer = observer;
+            this.frames = new ArrayBlockingQueue<>(bufferSize);
+            this.thread = new Thread(this, threadName);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void offer(WorldFrame frame) {
+            while (!frames.offer(frame)) {
+                if (frames.poll() != null) {
+                    droppedFrames.incrementAndGet();
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    observer.onFrame(frames.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
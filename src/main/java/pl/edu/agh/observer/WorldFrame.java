@@ -0,0 +1,68 @@
+package pl.edu.agh.observer;
+
+import com.google.common.collect.ImmutableMap;
+import pl.edu.agh.model.DriverState;
+import pl.edu.agh.model.Street;
+import pl.edu.agh.model.TrafficLightColor;
+import pl.edu.agh.model.WorldSnapshot;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable copy of the vehicles and lights at the end of one tick, safe to hand to other threads.
+ */
+public final class WorldFrame {
+    private final int iterationNo;
+    private final Map<Street, TrafficLightColor> lightColors;
+    private final Street[] streets;
+    private final int[] positions;
+    private final int[] velocities;
+
+    private WorldFrame(int iterationNo, Map<Street, TrafficLightColor> lightColors, Street[] streets, int[] positions, int[] velocities) {
+        this.iterationNo = iterationNo;
+        this.lightColors = lightColors;
+        this.streets = streets;
+        this.positions = positions;
+        this.velocities = velocities;
+    }
+
+    public static WorldFrame of(int iterationNo, WorldSnapshot snapshot) {
+        Set<DriverState> states = snapshot.getAllDriversStates();
+        Street[] streets = new Street[states.size()];
+        int[] positions = new int[states.size()];
+        int[] velocities = new int[states.size()];
+        int vehicle = 0;
+        for (DriverState state : states) {
+            streets[vehicle] = state.getStreet();
+            positions[vehicle] = state.getPositionOnStreet();
+            velocities[vehicle] = state.getCurrentVelocity();
+            vehicle++;
+        }
+        return new WorldFrame(iterationNo, ImmutableMap.copyOf(snapshot.getLightColors()), streets, positions, velocities);
+    }
+
+    public int getIterationNo() {
+        return iterationNo;
+    }
+
+    public Map<Street, TrafficLightColor> getLightColors() {
+        return lightColors;
+    }
+
+    public int getVehicleCount() {
+        return streets.length;
+    }
+
+    public Street getStreet(int vehicle) {
+        return streets[vehicle];
+    }
+
+    public int getPosition(int vehicle) {
+        return positions[vehicle];
+    }
+
+    public int getVelocity(int vehicle) {
+        return velocities[vehicle];
+    }
+}
@@ -0,0 +1,8 @@
+package pl.edu.agh.observer;
+
+/**
+ * Receives sampled world frames on a thread of its own, never on the simulation's.
+ */
+public interface WorldObserver {
+    void onFrame(WorldFrame frame);
+}
@@ -0,0 +1,63 @@
+package pl.edu.agh.timeseries;
+
+import pl.edu.agh.model.IterationStats;
+
+import static pl.edu.agh.model.Street.NORTH_SOUTH;
+import static pl.edu.agh.model.Street.WEST_EAST;
+
+/**
+ * The per-iteration metrics stored in a statistics series, one column each. Float columns are kept as
+ * their raw IEEE 754 bits.
+ */
+public enum StatsColumn {
+    CARS_NORTH_SOUTH(false),
+    CARS_WEST_EAST(false),
+    CARS_BEFORE_INTERSECTION_NORTH_SOUTH(false),
+    CARS_BEFORE_INTERSECTION_WEST_EAST(false),
+    COLLISIONS(false),
+    CROSSINGS(false),
+    WAITING_ON_RED_OR_YELLOW(false),
+    AVERAGE_VELOCITY_NORTH_SOUTH(true),
+    AVERAGE_VELOCITY_WEST_EAST(true),
+    AVERAGE_VELOCITY_BEFORE_INTERSECTION_NORTH_SOUTH(true),
+    AVERAGE_VELOCITY_BEFORE_INTERSECTION_WEST_EAST(true);
+
+    private final boolean floatingPoint;
+
+    StatsColumn(boolean floatingPoint) {
+        this.floatingPoint = floatingPoint;
+    }
+
+    public boolean isFloatingPoint() {
+        return floatingPoint;
+    }
+
+    int extract(IterationStats stats) {
+        switch (this) {
+            case CARS_NORTH_SOUTH:
+                return stats.numberOfCarsPerStreet.get(NORTH_SOUTH);
+            case CARS_WEST_EAST:
+                return stats.numberOfCarsPerStreet.get(WEST_EAST);
+            case CARS_BEFORE_INTERSECTION_NORTH_SOUTH:
+                return stats.numberOfCarsBeforeIntersection.get(NORTH_SOUTH);
+            case CARS_BEFORE_INTERSECTION_WEST_EAST:
+                return stats.numberOfCarsBeforeIntersection.get(WEST_EAST);
+            case COLLISIONS:
+                return stats.numberOfDetectedCollisions;
+            case CROSSINGS:
+                return stats.numberOfDriversThatCrossedIntersection;
+            case WAITING_ON_RED_OR_YELLOW:
+                return stats.numberOfDriversWaitingOnRedOrYellow;
+            case AVERAGE_VELOCITY_NORTH_SOUTH:
+                return Float.floatToRawIntBits(stats.averageVelocityPerStreet.get(NORTH_SOUTH));
+            case AVERAGE_VELOCITY_WEST_EAST:
+                return Float.floatToRawIntBits(stats.averageVelocityPerStreet.get(WEST_EAST));
+            case AVERAGE_VELOCITY_BEFORE_INTERSECTION_NORTH_SOUTH:
+                return Float.floatToRawIntBits(stats.averageVelocityBeforeIntersection.get(NORTH_SOUTH));
+            case AVERAGE_VELOCITY_BEFORE_INTERSECTION_WEST_EAST:
+                return Float.floatToRawIntBits(stats.averageVelocityBeforeIntersection.get(WEST_EAST));
+            default:
+                throw new IllegalStateException("Unknown statistics column " + this);
+        }
+    }
+}
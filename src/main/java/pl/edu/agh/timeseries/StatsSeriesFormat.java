@@ -0,0 +1,61 @@
+package pl.edu.agh.timeseries;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Series layout: a 4 byte magic number and a byte with the number of columns, followed by chunks of
+ * up to {@link #CHUNK_ROWS} consecutive iterations. Each chunk holds
+ * <pre>
+ * int firstIteration, int rows, columns x int compressedLength,
+ * columns x deflated column block
+ * </pre>
+ * A column block lists one varint per row: the zigzag delta against the previous row for integer
+ * columns, the xor with the previous row's bits for float columns. Slowly changing values thus encode
+ * to small numbers before deflating, and a reader can skip the columns it does not need.
+ */
+final class StatsSeriesFormat {
+    static final int MAGIC = 0x54535331;
+    static final int CHUNK_ROWS = 4096;
+    static final int MAX_VARINT_SIZE = 5;
+    static final StatsColumn[] COLUMNS = StatsColumn.values();
+    static final int FILE_HEADER_SIZE = 5;
+    static final int CHUNK_HEADER_SIZE = 8 + 4 * COLUMNS.length;
+
+    private StatsSeriesFormat() {
+    }
+
+    static int encode(StatsColumn column, int value, int previousValue) {
+        if (column.isFloatingPoint()) {
+            return value ^ previousValue;
+        }
+        int delta = value - previousValue;
+        return (delta << 1) ^ (delta >> 31);
+    }
+
+    static int decode(StatsColumn column, int encoded, int previousValue) {
+        if (column.isFloatingPoint()) {
+            return encoded ^ previousValue;
+        }
+        return previousValue + ((encoded >>> 1) ^ -(encoded & 1));
+    }
+
+    static void putVarInt(ByteBuffer buffer, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int getVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte next;
+        do {
+            next = buffer.get();
+            value |= (next & 0x7F) << shift;
+            shift += 7;
+        } while ((next & 0x80) != 0);
+        return value;
+    }
+}
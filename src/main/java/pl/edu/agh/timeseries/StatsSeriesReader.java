@@ -0,0 +1,180 @@
+package pl.edu.agh.timeseries;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import static java.nio.file.StandardOpenOption.READ;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.CHUNK_HEADER_SIZE;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.CHUNK_ROWS;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.COLUMNS;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.MAX_VARINT_SIZE;
+
+/**
+ * Range scans over a series written by {@link StatsSeriesWriter}. Opening the file reads only the
+ * chunk headers; a scan inflates just the requested column of the chunks overlapping the range.
+ */
+public class StatsSeriesReader implements Closeable {
+    private final String filename;
+    private final FileChannel channel;
+    private final List<Chunk> chunks = new ArrayList<>();
+    private final Inflater inflater = new Inflater();
+    private final byte[] decoded = new byte[CHUNK_ROWS * MAX_VARINT_SIZE];
+
+    public StatsSeriesReader(String filename) {
+        this.filename = filename;
+        try {
+            this.channel = FileChannel.open(Paths.get(filename), READ);
+            ByteBuffer header = readAt(0, StatsSeriesFormat.FILE_HEADER_SIZE);
+            if (header.getInt() != StatsSeriesFormat.MAGIC || header.get() != COLUMNS.length) {
+                throw new IllegalStateException(filename + " is not a statistics series");
+            }
+            indexChunks();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open statistics series file " + filename, e);
+        }
+    }
+
+    /**
+     * First iteration in the series, or 0 for an empty one.
+     */
+    public int getFirstIteration() {
+        return chunks.isEmpty() ? 0 : chunks.get(0).firstIteration;
+    }
+
+    /**
+     * Iteration following the last one in the series.
+     */
+    public int getEndIteration() {
+        if (chunks.isEmpty()) {
+            return 0;
+        }
+        Chunk last = chunks.get(chunks.size() - 1);
+        return last.firstIteration + last.rows;
+    }
+
+    /**
+     * Values of an integer column for iterations {@code fromIteration <= i < toIteration}, clipped to
+     * the iterations present in the series.
+     */
+    public int[] readInts(StatsColumn column, int fromIteration, int toIteration) {
+        if (column.isFloatingPoint()) {
+            throw new IllegalArgumentException(column + " is not an integer column");
+        }
+        return scan(column, fromIteration, toIteration);
+    }
+
+    /**
+     * Values of a float column for iterations {@code fromIteration <= i < toIteration}, clipped to
+     * the iterations present in the series.
+     */
+    public float[] readFloats(StatsColumn column, int fromIteration, int toIteration) {
+        if (!column.isFloatingPoint()) {
+            throw new IllegalArgumentException(column + " is not a float column");
+        }
+        int[] bits = scan(column, fromIteration, toIteration);
+        float[] values = new float[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            values[i] = Float.intBitsToFloat(bits[i]);
+        }
+        return values;
+    }
+
+    @Override
+    public void close() {
+        inflater.end();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close statistics series file " + filename, e);
+        }
+    }
+
+    private int[] scan(StatsColumn column, int fromIteration, int toIteration) {
+        int from = Math.max(fromIteration, getFirstIteration());
+        int to = Math.min(toIteration, getEndIteration());
+        int[] values = new int[Math.max(0, to - from)];
+        int filled = 0;
+        try {
+            for (Chunk chunk : chunks) {
+                int chunkEnd = chunk.firstIteration + chunk.rows;
+                if (chunkEnd <= from || chunk.firstIteration >= to) {
+                    continue;
+                }
+                ByteBuffer block = inflate(chunk, column);
+                int previousValue = 0;
+                for (int row = 0; row < chunk.rows && chunk.firstIteration + row < to; row++) {
+                    previousValue = StatsSeriesFormat.decode(column, StatsSeriesFormat.getVarInt(block), previousValue);
+                    if (chunk.firstIteration + row >= from) {
+                        values[filled++] = previousValue;
+                    }
+                }
+            }
+        } catch (IOException | DataFormatException e) {
+            throw new IllegalStateException("Could not read statistics series file " + filename, e);
+        }
+        return filled == values.length ? values : Arrays.copyOf(values, filled);
+    }
+
+    private ByteBuffer inflate(Chunk chunk, StatsColumn column) throws IOException, DataFormatException {
+        ByteBuffer block = readAt(chunk.blockOffsets[column.ordinal()], chunk.blockLengths[column.ordinal()]);
+        inflater.reset();
+        inflater.setInput(block.array(), 0, block.limit());
+        int length = 0;
+        while (!inflater.finished()) {
+            int inflated = inflater.inflate(decoded, length, decoded.length - length);
+            if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                throw new DataFormatException("Truncated column block in chunk starting at iteration " + chunk.firstIteration);
+            }
+            length += inflated;
+        }
+        return ByteBuffer.wrap(decoded, 0, length);
+    }
+
+    private void indexChunks() throws IOException {
+        long offset = StatsSeriesFormat.FILE_HEADER_SIZE;
+        long size = channel.size();
+        while (offset < size) {
+            ByteBuffer header = readAt(offset, CHUNK_HEADER_SIZE);
+            Chunk chunk = new Chunk(header.getInt(), header.getInt());
+            long blockOffset = offset + CHUNK_HEADER_SIZE;
+            for (int column = 0; column < COLUMNS.length; column++) {
+                chunk.blockOffsets[column] = blockOffset;
+                chunk.blockLengths[column] = header.getInt();
+                blockOffset += chunk.blockLengths[column];
+            }
+            chunks.add(chunk);
+            offset = blockOffset;
+        }
+    }
+
+    private ByteBuffer readAt(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of statistics series");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static class Chunk {
+        private final int firstIteration;
+        private final int rows;
+        private final long[] blockOffsets = new long[COLUMNS.length];
+        private final int[] blockLengths = new int[COLUMNS.length];
+
+        Chunk(int firstIteration, int rows) {
+            this.firstIteration = firstIteration;
+            this.rows = rows;
+        }
+    }
+}
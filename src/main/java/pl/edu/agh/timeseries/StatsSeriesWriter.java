@@ -0,0 +1,165 @@
+package pl.edu.agh.timeseries;
+
+import pl.edu.agh.model.IterationStats;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.CHUNK_HEADER_SIZE;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.CHUNK_ROWS;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.COLUMNS;
+import static pl.edu.agh.timeseries.StatsSeriesFormat.MAX_VARINT_SIZE;
+
+/**
+ * Collects {@link IterationStats} column by column and hands each full chunk to a background thread,
+ * which encodes, deflates and writes it. {@link #append} only stores a few ints, unless
+ * {@link #MAX_PENDING_CHUNKS} chunks are already waiting, in which case it blocks until one is written.
+ */
+public class StatsSeriesWriter implements Closeable {
+    private static final int MAX_PENDING_CHUNKS = 4;
+    private final String filename;
+    private final FileChannel channel;
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_PENDING_CHUNKS),
+            runnable -> {
+                Thread thread = new Thread(runnable, "stats-series-writer");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> {
+                if (pool.isShutdown()) {
+                    throw new RejectedExecutionException("Statistics series writer is closed");
+                }
+                try {
+                    pool.getQueue().put(task);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RejectedExecutionException("Interrupted while waiting for the statistics series writer", e);
+                }
+            });
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    private final ByteBuffer encoded = ByteBuffer.allocate(CHUNK_ROWS * MAX_VARINT_SIZE);
+    private final byte[] compressed = new byte[CHUNK_ROWS * MAX_VARINT_SIZE + 64];
+    private int[][] columns = new int[COLUMNS.length][CHUNK_ROWS];
+    private int firstIteration = 0;
+    private int rows = 0;
+    private volatile IOException failure;
+
+    public StatsSeriesWriter(String filename) {
+        this.filename = filename;
+        try {
+            this.channel = FileChannel.open(Paths.get(filename), CREATE, WRITE, TRUNCATE_EXISTING);
+            ByteBuffer header = ByteBuffer.allocate(StatsSeriesFormat.FILE_HEADER_SIZE);
+            header.putInt(StatsSeriesFormat.MAGIC).put((byte) COLUMNS.length).flip();
+            writeFully(header);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open statistics series file " + filename, e);
+        }
+    }
+
+    public void append(int iterationNo, IterationStats stats) {
+        if (rows > 0 && iterationNo != firstIteration + rows) {
+            submitChunk();
+        }
+        if (rows == 0) {
+            firstIteration = iterationNo;
+        }
+        for (StatsColumn column : COLUMNS) {
+            columns[column.ordinal()][rows] = column.extract(stats);
+        }
+        rows++;
+        if (rows == CHUNK_ROWS) {
+            submitChunk();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (rows > 0) {
+            submitChunk();
+        }
+        executor.shutdown();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+            channel.close();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            deflater.end();
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Could not write statistics series file " + filename, failure);
+        }
+    }
+
+    private void submitChunk() {
+        int[][] chunk = columns;
+        int chunkFirstIteration = firstIteration;
+        int chunkRows = rows;
+        executor.execute(() -> {
+            if (failure == null) {
+                try {
+                    writeChunk(chunk, chunkFirstIteration, chunkRows);
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        });
+        columns = new int[COLUMNS.length][CHUNK_ROWS];
+        rows = 0;
+    }
+
+    private void writeChunk(int[][] chunk, int chunkFirstIteration, int chunkRows) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(CHUNK_HEADER_SIZE);
+        header.putInt(chunkFirstIteration).putInt(chunkRows);
+        ByteBuffer[] blocks = new ByteBuffer[COLUMNS.length];
+        for (StatsColumn column : COLUMNS) {
+            blocks[column.ordinal()] = compress(column, chunk[column.ordinal()], chunkRows);
+            header.putInt(blocks[column.ordinal()].remaining());
+        }
+        header.flip();
+        writeFully(header);
+        for (ByteBuffer block : blocks) {
+            writeFully(block);
+        }
+    }
+
+    private ByteBuffer compress(StatsColumn column, int[] values, int chunkRows) {
+        encoded.clear();
+        int previousValue = 0;
+        for (int row = 0; row < chunkRows; row++) {
+            StatsSeriesFormat.putVarInt(encoded, StatsSeriesFormat.encode(column, values[row], previousValue));
+            previousValue = values[row];
+        }
+        deflater.reset();
+        deflater.setInput(encoded.array(), 0, encoded.position());
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        ByteBuffer block = ByteBuffer.allocate(length);
+        block.put(compressed, 0, length).flip();
+        return block;
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package pl.edu.agh.trace;
+
+import pl.edu.agh.model.Street;
+
+/**
+ * One row of a traffic trace: a vehicle arriving at the entrance of a street. The random seed of the
+ * vehicle is null when the trace does not record it.
+ */
+public final class TraceArrival {
+    public final int tick;
+    public final Street street;
+    public final int maxVelocity;
+    public final int acceleration;
+    public final int carLength;
+    public final float yellowLightGoProbability;
+    public final Long randomSeed;
+
+    public TraceArrival(int tick,
+                        Street street,
+                        int maxVelocity,
+                        int acceleration,
+                        int carLength,
+                        float yellowLightGoProbability,
+                        Long randomSeed) {
+        this.tick = tick;
+        this.street = street;
+        this.maxVelocity = maxVelocity;
+        this.acceleration = acceleration;
+        this.carLength = carLength;
+        this.yellowLightGoProbability = yellowLightGoProbability;
+        this.randomSeed = randomSeed;
+    }
+}
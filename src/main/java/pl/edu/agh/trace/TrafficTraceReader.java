@@ -0,0 +1,159 @@
+package pl.edu.agh.trace;
+
+import pl.edu.agh.model.Street;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Streams the arrivals of a traffic trace, a text file with one vehicle per line:
+ * <pre>
+ * tick,street,maxVelocity,acceleration,carLength,yellowLightGoProbability[,randomSeed]
+ * </pre>
+ * ordered by tick. Lines starting with {@code #} and lines not starting with a digit (such as a CSV
+ * header) are skipped. The file is mapped one window at a time; while a window is parsed, a
+ * background thread touches the pages of the following one, which becomes the next window. A window is
+ * unmapped only once its buffer is garbage collected, so more than two windows may stay mapped, but
+ * their pages are clean file pages the operating system can reclaim under memory pressure.
+ */
+public class TrafficTraceReader implements Closeable {
+    private static final long WINDOW_SIZE = 16L << 20;
+    private static final int MAX_LINE_LENGTH = 1024;
+    private final String filename;
+    private final FileChannel channel;
+    private final long fileSize;
+    private final ExecutorService readAhead = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "traffic-trace-read-ahead");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final byte[] line = new byte[MAX_LINE_LENGTH];
+    private MappedByteBuffer window;
+    private MappedByteBuffer followingWindow;
+    private long windowStart;
+    private long lineNo = 0;
+    private int lastTick = Integer.MIN_VALUE;
+
+    public TrafficTraceReader(String filename) {
+        this.filename = filename;
+        try {
+            this.channel = FileChannel.open(Paths.get(filename), READ);
+            this.fileSize = channel.size();
+            window = map(0);
+            windowStart = 0;
+            readAhead();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open traffic trace file " + filename, e);
+        }
+    }
+
+    /**
+     * Returns the next arrival, or null once the whole trace has been read.
+     */
+    public TraceArrival next() {
+        try {
+            int length;
+            while ((length = readLine()) >= 0) {
+                lineNo++;
+                if (length > 0 && line[0] >= '0' && line[0] <= '9') {
+                    return parse(length);
+                }
+            }
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read traffic trace file " + filename, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        readAhead.shutdownNow();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close traffic trace file " + filename, e);
+        }
+    }
+
+    /**
+     * Copies the next line into {@link #line} and returns its length without the line terminator,
+     * or -1 at the end of the file. A line may continue in the following window.
+     */
+    private int readLine() throws IOException {
+        int length = 0;
+        while (true) {
+            while (window.hasRemaining()) {
+                byte next = window.get();
+                if (next == '\n') {
+                    return stripCarriageReturn(length);
+                }
+                if (length == MAX_LINE_LENGTH) {
+                    throw new IllegalStateException("Line " + (lineNo + 1) + " of traffic trace " + filename + " is too long");
+                }
+                line[length++] = next;
+            }
+            long windowEnd = windowStart + window.limit();
+            if (windowEnd >= fileSize) {
+                return length > 0 ? stripCarriageReturn(length) : -1;
+            }
+            window = followingWindow;
+            windowStart = windowEnd;
+            readAhead();
+        }
+    }
+
+    private int stripCarriageReturn(int length) {
+        return length > 0 && line[length - 1] == '\r' ? length - 1 : length;
+    }
+
+    private MappedByteBuffer map(long start) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, fileSize - start));
+    }
+
+    private void readAhead() throws IOException {
+        long nextStart = windowStart + window.limit();
+        if (nextStart < fileSize) {
+            MappedByteBuffer next = map(nextStart);
+            followingWindow = next;
+            readAhead.execute(next::load);
+        } else {
+            followingWindow = null;
+        }
+    }
+
+    private TraceArrival parse(int length) {
+        String[] fields = new String(line, 0, length, StandardCharsets.US_ASCII).split(",");
+        if (fields.length < 6 || fields.length > 7) {
+            throw malformedLine(null);
+        }
+        try {
+            TraceArrival arrival = new TraceArrival(
+                    Integer.parseInt(fields[0].trim()),
+                    Street.valueOf(fields[1].trim()),
+                    Integer.parseInt(fields[2].trim()),
+                    Integer.parseInt(fields[3].trim()),
+                    Integer.parseInt(fields[4].trim()),
+                    Float.parseFloat(fields[5].trim()),
+                    fields.length == 7 ? Long.valueOf(fields[6].trim()) : null);
+            if (arrival.tick < lastTick) {
+                throw malformedLine(new IllegalArgumentException("ticks are not in order"));
+            }
+            lastTick = arrival.tick;
+            return arrival;
+        } catch (IllegalArgumentException e) {
+            throw malformedLine(e);
+        }
+    }
+
+    private IllegalStateException malformedLine(Exception cause) {
+        return new IllegalStateException("Malformed line " + lineNo + " in traffic trace " + filename, cause);
+    }
+}
@@ -0,0 +1,55 @@
+package pl.edu.agh.trace;
+
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.model.Street;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Records the vehicles entering the streets in the format read by {@link TrafficTraceReader},
+ * including their random seeds, so that a run's demand can be replayed exactly.
+ */
+public class TrafficTraceWriter implements Closeable {
+    private static final String HEADER = "# tick,street,maxVelocity,acceleration,carLength,yellowLightGoProbability,randomSeed";
+    private final String filename;
+    private final Writer writer;
+
+    public TrafficTraceWriter(String filename) {
+        this.filename = filename;
+        try {
+            this.writer = new BufferedWriter(Files.newBufferedWriter(Paths.get(filename), StandardCharsets.US_ASCII));
+            writer.write(HEADER);
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open traffic trace file " + filename, e);
+        }
+    }
+
+    public void record(int tick, Street street, DriverConfiguration configuration) {
+        try {
+            writer.write(tick + "," + street + ","
+                    + configuration.maxVelocity + ","
+                    + configuration.acceleration + ","
+                    + configuration.carLength + ","
+                    + configuration.yellowLightGoProbability + ","
+                    + configuration.randomSeed + "\n");
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write traffic trace file " + filename, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not close traffic trace file " + filename, e);
+        }
+    }
+}
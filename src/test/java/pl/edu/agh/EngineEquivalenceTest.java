@@ -0,0 +1,129 @@
+package pl.edu.agh;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.edu.agh.journal.JournalReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static pl.edu.agh.SimulationSetup.describe;
+
+/**
+ * Every engine and every execution mode of the actor engine must produce exactly the statistics of
+ * the synchronous engine for the same seed, and the journal and traffic trace of a run must replay to
+ * the statistics of that run.
+ */
+public class EngineEquivalenceTest {
+    private static final int ITERATIONS = 2000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<SimulationSetup> scenarios() {
+        SimulationSetup base = SimulationSetup.defaults().with("simulationIterations", ITERATIONS);
+        return Arrays.asList(
+                base.with("randomSeed", 5),
+                base.with("randomSeed", 42),
+                base.with("randomSeed", 9)
+                        .with("yellowLightGoProbability", 1.0)
+                        .with("useSimpleLights", true)
+                        .with("yellowLightDuration", 1)
+                        .with("northSouthGenerationProbability", 0.9));
+    }
+
+    @Test
+    public void batchDriverKernelMatchesPerDriverLogic() {
+        for (SimulationSetup scenario : scenarios()) {
+            assertEquals(describe(scenario.runSynchronous()),
+                    describe(scenario.with("batchDriverKernel", true).runSynchronous()));
+        }
+    }
+
+    @Test
+    public void actorPerDriverMatchesSynchronousEngine() throws InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            String synchronous = describe(scenario.runSynchronous());
+
+            assertEquals(synchronous, describe(scenario.runActors()));
+            assertEquals(synchronous, describe(scenario.with("useArrayWorldSnapshot", true).runActors()));
+        }
+    }
+
+    @Test
+    public void driverGroupsMatchSynchronousEngine() throws InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            assertEquals(describe(scenario.runSynchronous()),
+                    describe(scenario.with("driverGroups", 4).runActors()));
+        }
+    }
+
+    @Test
+    public void pipelinedTicksMatchSynchronousEngine() throws InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            assertEquals(describe(scenario.runSynchronous()), describe(scenario.with("pipelinedTicks", true).runActors()));
+        }
+    }
+
+    @Test
+    public void sharedTickFramesWithPooledDriversMatchSynchronousEngine() throws InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            assertEquals(describe(scenario.runSynchronous()), describe(scenario
+                    .with("sharedTickFrames", true)
+                    .with("driverPoolSize", 4)
+                    .runActors()));
+        }
+    }
+
+    @Test
+    public void journalReplaysToLiveStatistics() throws IOException, InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            for (boolean pipelined : new boolean[]{false, true}) {
+                File journal = folder.newFile();
+                String live = describe(scenario.with("journalFile", journal).with("pipelinedTicks", pipelined).runActors());
+
+                assertEquals(live, describe(JournalReader.recomputeSimulationStats(journal.getPath())));
+            }
+        }
+    }
+
+    @Test
+    public void synchronousJournalReplaysToLiveStatistics() throws IOException {
+        for (SimulationSetup scenario : scenarios()) {
+            for (boolean batchDriverKernel : new boolean[]{false, true}) {
+                File journal = folder.newFile();
+                String live = describe(scenario.with("journalFile", journal).with("batchDriverKernel", batchDriverKernel).runSynchronous());
+
+                assertEquals(live, describe(JournalReader.recomputeSimulationStats(journal.getPath())));
+            }
+        }
+    }
+
+    @Test
+    public void recordedTraceReplaysToRecordedRun() throws IOException, InterruptedException {
+        for (SimulationSetup scenario : scenarios()) {
+            File trace = folder.newFile();
+            String recorded = describe(scenario.with("trafficTraceRecordFile", trace).runSynchronous());
+
+            assertEquals(recorded, describe(scenario.with("trafficTraceFile", trace).runSynchronous()));
+            assertEquals(recorded, describe(scenario.with("trafficTraceFile", trace).runActors()));
+        }
+    }
+
+    @Test
+    public void networkStatisticsDoNotDependOnPartitionCount() throws InterruptedException {
+        SimulationSetup network = SimulationSetup.defaults()
+                .with("randomSeed", 5)
+                .with("simulationIterations", 500)
+                .with("networkRows", 6)
+                .with("networkColumns", 6);
+        String singlePartition = describe(network.with("networkPartitions", 1).runNetwork());
+        for (int partitions : new int[]{2, 3, 4}) {
+            assertEquals(singlePartition, describe(network.with("networkPartitions", partitions).runNetwork()));
+        }
+    }
+}
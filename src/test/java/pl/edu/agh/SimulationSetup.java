@@ -0,0 +1,125 @@
+package pl.edu.agh;
+
+import akka.actor.ActorRef;
+import akka.actor.ActorSystem;
+import akka.actor.Props;
+import com.typesafe.config.ConfigFactory;
+import pl.edu.agh.actors.Supervisor;
+import pl.edu.agh.configuration.DriverConfiguration;
+import pl.edu.agh.configuration.TrafficLightsConfiguration;
+import pl.edu.agh.configuration.WorldConfiguration;
+import pl.edu.agh.engine.SynchronousSimulation;
+import pl.edu.agh.messages.WorldInitialization;
+import pl.edu.agh.model.SimulationStats;
+import pl.edu.agh.network.NetworkSimulation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static pl.edu.agh.configuration.ConfigurationLoader.*;
+
+/**
+ * The bundled driver, world and lights properties with per-test overrides. Output files are cleared,
+ * so a test only writes what it asks for.
+ */
+public final class SimulationSetup {
+    private static final long ACTOR_RUN_TIMEOUT_SECONDS = 120;
+    private static final String[] OUTPUT_KEYS = {"statisticsHistoryFile", "statisticsSeriesFile", "journalFile",
+            "parameterSweepFile", "checkpointFile", "restoreCheckpointFile", "trafficTraceFile", "trafficTraceRecordFile"};
+    private final List<Properties> properties;
+
+    private SimulationSetup(List<Properties> properties) {
+        this.properties = properties;
+    }
+
+    public static SimulationSetup defaults() {
+        List<Properties> properties = Arrays.asList(
+                loadPropertiesFile(BASE_DRIVER_CONFIGURATION_FILENAME),
+                loadPropertiesFile(WORLD_CONFIGURATION_FILENAME),
+                loadPropertiesFile(TRAFFIC_LIGHTS_FILENAME));
+        for (String key : OUTPUT_KEYS) {
+            properties.get(1).setProperty(key, "");
+        }
+        return new SimulationSetup(properties);
+    }
+
+    /**
+     * A copy with {@code key} set in whichever properties file has it.
+     */
+    public SimulationSetup with(String key, Object value) {
+        List<Properties> copies = new ArrayList<>();
+        for (Properties original : properties) {
+            Properties copy = new Properties();
+            copy.putAll(original);
+            copies.add(copy);
+        }
+        for (Properties copy : copies) {
+            if (copy.containsKey(key)) {
+                copy.setProperty(key, String.valueOf(value));
+                return new SimulationSetup(copies);
+            }
+        }
+        throw new IllegalArgumentException("Unknown parameter: " + key);
+    }
+
+    public DriverConfiguration driverConfiguration() {
+        return loadBaseDriverConfiguration(properties.get(0));
+    }
+
+    public WorldConfiguration worldConfiguration() {
+        return loadWorldConfiguration(properties.get(1));
+    }
+
+    public TrafficLightsConfiguration trafficLightsConfiguration() {
+        return loadTrafficLightsConfiguration(properties.get(2));
+    }
+
+    public SimulationStats runSynchronous() {
+        return new SynchronousSimulation(driverConfiguration(), trafficLightsConfiguration(), worldConfiguration()).run();
+    }
+
+    /**
+     * Runs the actor engine in its own actor system, which is terminated before returning, so the
+     * output files written when the actors stop are complete.
+     */
+    public SimulationStats runActors() throws InterruptedException {
+        ActorSystem system = ActorSystem.create("simulationSetup", ConfigFactory.parseString("akka.loglevel=WARNING"));
+        try {
+            ActorRef supervisor = system.actorOf(Props.create(Supervisor.class), "supervisor");
+            BlockingQueue<SimulationStats> resultCallback = new LinkedBlockingQueue<>();
+            supervisor.tell(new WorldInitialization(driverConfiguration(), trafficLightsConfiguration(), worldConfiguration(), resultCallback), null);
+            SimulationStats stats = resultCallback.poll(ACTOR_RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            if (stats == null) {
+                throw new AssertionError("Actor simulation did not finish within " + ACTOR_RUN_TIMEOUT_SECONDS + " s");
+            }
+            return stats;
+        } finally {
+            system.shutdown();
+            system.awaitTermination();
+        }
+    }
+
+    public SimulationStats runNetwork() throws InterruptedException {
+        return new NetworkSimulation(driverConfiguration(), trafficLightsConfiguration(), worldConfiguration()).run();
+    }
+
+    /**
+     * All statistics in one line, so an equality assertion shows every difference at once.
+     */
+    public static String describe(SimulationStats stats) {
+        return "averageVelocity=" + stats.averageVelocity
+                + " totalNumberOfCollisions=" + stats.totalNumberOfCollisions
+                + " averageNumberOfIntersectionCrossings=" + stats.averageNumberOfIntersectionCrossings
+                + " averageNumberOfCarsWaitingOnRedOrYellow=" + stats.averageNumberOfCarsWaitingOnRedOrYellow
+                + " averageGreenLightDurationOnNorthSouth=" + stats.averageGreenLightDurationOnNorthSouth
+                + " averageGreenLightDurationOnWestEast=" + stats.averageGreenLightDurationOnWestEast
+                + " halfWidths=" + stats.averageVelocityHalfWidth
+                + "/" + stats.averageNumberOfIntersectionCrossingsHalfWidth
+                + "/" + stats.averageNumberOfCarsWaitingOnRedOrYellowHalfWidth;
+    }
+}
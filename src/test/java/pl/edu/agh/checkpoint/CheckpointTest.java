@@ -0,0 +1,103 @@
+package pl.edu.agh.checkpoint;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import pl.edu.agh.SimulationSetup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static pl.edu.agh.SimulationSetup.describe;
+
+public class CheckpointTest {
+    private static final int ITERATIONS = 3000;
+    private static final int RESTORE_ITERATION = 1300;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void checkpointFileSurvivesReadAndWrite() throws IOException {
+        File checkpoint = writeCheckpoint(SimulationSetup.defaults().with("randomSeed", 42));
+        byte[] written;
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(checkpoint.toPath()))) {
+            written = readFully(input);
+        }
+        SimulationCheckpoint decoded = CheckpointReader.read(new DataInputStream(new ByteArrayInputStream(written)), checkpoint.toString());
+        ByteArrayOutputStream reencoded = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(reencoded)) {
+            CheckpointWriter.write(output, decoded);
+        }
+
+        assertEquals(RESTORE_ITERATION, decoded.iterationNo);
+        assertArrayEquals(written, reencoded.toByteArray());
+    }
+
+    @Test
+    public void restoredSimulationMatchesUninterruptedOne() throws IOException {
+        for (long seed : new long[]{42, 7}) {
+            assertRestoreMatchesUninterrupted(SimulationSetup.defaults().with("randomSeed", seed));
+        }
+    }
+
+    @Test
+    public void restoredBatchKernelSimulationMatchesUninterruptedOne() throws IOException {
+        for (long seed : new long[]{42, 7}) {
+            assertRestoreMatchesUninterrupted(SimulationSetup.defaults().with("randomSeed", seed).with("batchDriverKernel", true));
+        }
+    }
+
+    @Test
+    public void restoredSimulationWithCollisionsMatchesUninterruptedOne() throws IOException {
+        assertRestoreMatchesUninterrupted(SimulationSetup.defaults()
+                .with("randomSeed", 9)
+                .with("yellowLightGoProbability", 1.0)
+                .with("useSimpleLights", true)
+                .with("yellowLightDuration", 1)
+                .with("northSouthGenerationProbability", 0.9));
+    }
+
+    private void assertRestoreMatchesUninterrupted(SimulationSetup setup) throws IOException {
+        String uninterrupted = describe(setup.with("simulationIterations", ITERATIONS).runSynchronous());
+        File checkpoint = writeCheckpoint(setup);
+        String restored = describe(setup
+                .with("simulationIterations", ITERATIONS)
+                .with("restoreCheckpointFile", checkpoint)
+                .runSynchronous());
+
+        assertEquals(uninterrupted, restored);
+    }
+
+    /**
+     * Stops one tick after the checkpoint, so the checkpointed ticks record statistics exactly like
+     * those of a longer run.
+     */
+    private File writeCheckpoint(SimulationSetup setup) throws IOException {
+        File checkpoint = folder.newFile();
+        setup.with("simulationIterations", RESTORE_ITERATION + 1)
+                .with("checkpointFile", checkpoint)
+                .with("checkpointInterval", RESTORE_ITERATION)
+                .runSynchronous();
+        return checkpoint;
+    }
+
+    private static byte[] readFully(InputStream input) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = input.read(buffer)) > 0) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}